@@ -0,0 +1,63 @@
+package dk.danamlund.yabuilder.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A batch of {@link Remote#fetch} calls that each block for a millisecond,
+ * one after the other with {@code build} and with {@code buildAll} of
+ * {@code @Builder(async = true)} at most {@code maxConcurrency} at a time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AsyncBenchmark {
+
+    @Param("100")
+    int calls;
+
+    @Param({ "1", "16", "100" })
+    int maxConcurrency;
+
+    List<Function<RemoteBuilder<RemoteBuilder.MissingId>, RemoteBuilder<RemoteBuilder.Good>>> batch;
+
+    @Setup
+    public void setup() {
+        batch = new ArrayList<>(calls);
+        for (int i = 0; i < calls; i++) {
+            int id = i;
+            batch.add(b -> b.id(id));
+        }
+    }
+
+    @Benchmark
+    public List<String> sequential() {
+        List<String> results = new ArrayList<>(calls);
+        for (Function<RemoteBuilder<RemoteBuilder.MissingId>, RemoteBuilder<RemoteBuilder.Good>> b
+                 : batch) {
+            results.add(RemoteBuilder.build(b));
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<String> buildAll() throws Exception {
+        return RemoteBuilder.buildAll(batch, maxConcurrency).get();
+    }
+}
@@ -0,0 +1,343 @@
+package dk.danamlund.yabuilder.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generated builders versus direct constructor calls versus hand-written builders.
+ * <p>
+ * Every target is built three ways with the same parameter values:
+ * <ul>
+ * <li>{@code constructor}: {@code new X(...)} with all arguments spelled out.
+ * <li>{@code builder}: {@code XBuilder.build(b {@literal ->} ...)} from {@code BuilderProcessor}.
+ * <li>{@code handBuilder}: {@code new X.HandBuilder()...build()}.
+ * <li>{@code fluent}: {@code XFluentBuilder.build(XFluentBuilder.start()...)} from
+ *     {@code @Builder(fluent = true)}. With {@code -prof gc} this should allocate
+ *     the same bytes per operation as {@code constructor}, the builder itself
+ *     is scalar-replaced.
+ * <li>{@code pooled}: {@code XPooledBuilder.build(b {@literal ->} ...)} from
+ *     {@code @Builder(pooled = true)}, reusing one builder per thread.
+ * </ul>
+ * {@code smallMetrics} is {@code smallFluentName} with {@code metrics = true},
+ * counting every build and setter and timing the static method.
+ * {@code smallEvents} is {@code smallFluentName} with {@code events = true}, a
+ * JFR build event per build, measured without a recording.
+ * {@code smallLazy} creates the {@code LazyBuild} of {@code lazy = true} and
+ * never calls {@code get()}, {@code smallLazyGet} calls it once.
+ * {@code mediumMap} decodes a {@code Medium} from a {@code Map<String, Object>},
+ * {@code mediumDynamicName} and {@code mediumDynamicOrdinal} with a reused
+ * {@code @Builder(dynamic = true)} builder by name and by ordinal.
+ * {@code mediumBuilderDate} and {@code mediumPooledDate} override the
+ * {@code @Default} date, which the builder should then never evaluate.
+ * {@code taggedCopy} fills a list and a map that the target copies,
+ * {@code taggedAdders} adds to the storage of a {@code @Builder(adders = true)}
+ * builder that the target keeps.
+ * {@code seriesBoxed} collects 32 ints and doubles in boxed lists and
+ * converts them to arrays, {@code seriesAdders} appends them to the primitive
+ * buffers of the builder, {@code seriesAddersCapacity} sizes them first.
+ * {@code mediumShared} sets seven parameters of which six are the same for
+ * every build, {@code mediumTemplate} builds from a
+ * {@code @Builder(templates = true)} template of the six and sets only the id.
+ * {@code mediumWithers}, {@code mediumFrom} and {@code mediumFromFluent} change
+ * three parameters of an existing {@code Medium}, with hand-written withers
+ * that copy the object per change and with {@code @Builder(from = true)}.
+ * Run with {@code -prof gc} to get allocation rates next to the throughput.
+ * {@link SingleThreaded} and {@link MultiThreaded} run the same benchmarks
+ * with one thread and with one thread per core.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public abstract class BuildBenchmark {
+
+    @State(Scope.Thread)
+    public static class Values {
+        // Non-final so the JIT cannot constant fold the targets away
+        int id = 42;
+        String name = "name";
+        double height = 1.38;
+        long weight = 80_000L;
+        java.time.LocalDate date = java.time.LocalDate.of(2017, 1, 1);
+        MediumBuilder.Dynamic dynamic = MediumBuilder.dynamic();
+        java.util.Map<String, Object> map = new java.util.HashMap<>();
+        MediumBuilder.Template<MediumBuilder.MissingId, MediumBuilder.Good, MediumBuilder.Good,
+                               MediumBuilder.Good> template = MediumBuilder.template(
+            b -> b.name(name).shortDescription("short").longDescription("long").date(date)
+                .heightInFeet(height).weightInGrams(weight));
+        Medium medium = new Medium(42, "name", null, "none", java.time.LocalDate.of(2016, 3, 21),
+                                   0, 1.38, 80_000L, 0.0);
+    }
+
+    @Benchmark
+    public Small smallConstructor(Values s) {
+        return new Small(s.id, "none");
+    }
+
+    @Benchmark
+    public Small smallBuilder(Values s) {
+        return SmallBuilder.build(b -> b.id(s.id));
+    }
+
+    @Benchmark
+    public Small smallHandBuilder(Values s) {
+        return new Small.HandBuilder().id(s.id).build();
+    }
+
+    @Benchmark
+    public Small smallFluent(Values s) {
+        return SmallFluentBuilder.build(SmallFluentBuilder.start().id(s.id));
+    }
+
+    @Benchmark
+    public Small smallMetrics(Values s) {
+        return SmallMetricsBuilder.build(SmallMetricsBuilder.start().id(s.id).name(s.name));
+    }
+
+    @Benchmark
+    public Small smallEvents(Values s) {
+        return SmallEventsBuilder.build(SmallEventsBuilder.start().id(s.id).name(s.name));
+    }
+
+    @Benchmark
+    public Supplier<Small> smallLazy(Values s) {
+        return SmallLazyBuilder.lazy(SmallLazyBuilder.start().id(s.id).name(s.name));
+    }
+
+    @Benchmark
+    public Small smallLazyGet(Values s) {
+        return SmallLazyBuilder.lazy(SmallLazyBuilder.start().id(s.id).name(s.name)).get();
+    }
+
+    @Benchmark
+    public Small smallFluentName(Values s) {
+        return SmallFluentBuilder.build(SmallFluentBuilder.start().id(s.id).name(s.name));
+    }
+
+    @Benchmark
+    public Small smallPooled(Values s) {
+        return SmallPooledBuilder.build(b -> b.id(s.id));
+    }
+
+    @Benchmark
+    public Medium mediumConstructor(Values s) {
+        return new Medium(s.id, s.name, null, "none", java.time.LocalDate.of(2016, 3, 21),
+                          0, s.height, s.weight, 0.0);
+    }
+
+    @Benchmark
+    public Medium mediumBuilder(Values s) {
+        return MediumBuilder.build(b -> b.id(s.id).name(s.name)
+                                   .heightInFeet(s.height).weightInGrams(s.weight));
+    }
+
+    @Benchmark
+    public Medium mediumHandBuilder(Values s) {
+        return new Medium.HandBuilder().id(s.id).name(s.name)
+            .heightInFeet(s.height).weightInGrams(s.weight).build();
+    }
+
+    @Benchmark
+    public Medium mediumFluent(Values s) {
+        return MediumFluentBuilder.build(MediumFluentBuilder.start().id(s.id).name(s.name)
+                                         .heightInFeet(s.height).weightInGrams(s.weight));
+    }
+
+    @Benchmark
+    public Medium mediumPooled(Values s) {
+        return MediumPooledBuilder.build(b -> b.id(s.id).name(s.name)
+                                         .heightInFeet(s.height).weightInGrams(s.weight));
+    }
+
+    @Benchmark
+    public Medium mediumBuilderDate(Values s) {
+        return MediumBuilder.build(b -> b.id(s.id).name(s.name).date(s.date)
+                                   .heightInFeet(s.height).weightInGrams(s.weight));
+    }
+
+    @Benchmark
+    public Medium mediumPooledDate(Values s) {
+        return MediumPooledBuilder.build(b -> b.id(s.id).name(s.name).date(s.date)
+                                         .heightInFeet(s.height).weightInGrams(s.weight));
+    }
+
+    @Benchmark
+    public Medium mediumShared(Values s) {
+        return MediumBuilder.build(b -> b.id(s.id).name(s.name).shortDescription("short")
+                                   .longDescription("long").date(s.date)
+                                   .heightInFeet(s.height).weightInGrams(s.weight));
+    }
+
+    @Benchmark
+    public Medium mediumTemplate(Values s) {
+        return s.template.build(b -> b.id(s.id));
+    }
+
+    @Benchmark
+    public Medium mediumMap(Values s) {
+        java.util.Map<String, Object> map = s.map;
+        map.clear();
+        map.put("id", s.id);
+        map.put("name", s.name);
+        map.put("heightInFeet", s.height);
+        map.put("weightInGrams", s.weight);
+        Object longDescription = map.getOrDefault("longDescription", "none");
+        Object date = map.getOrDefault("date", java.time.LocalDate.of(2016, 3, 21));
+        Object heightInCm = map.getOrDefault("heightInCm", 0);
+        Object weightInPounds = map.getOrDefault("weightInPounds", 0.0);
+        return new Medium((Integer) map.get("id"), (String) map.get("name"),
+                          (String) map.get("shortDescription"), (String) longDescription,
+                          (java.time.LocalDate) date, (Integer) heightInCm,
+                          (Double) map.get("heightInFeet"), (Long) map.get("weightInGrams"),
+                          (Double) weightInPounds);
+    }
+
+    @Benchmark
+    public Medium mediumDynamicName(Values s) {
+        return s.dynamic.reset().set("id", s.id).set("name", s.name)
+            .set("heightInFeet", s.height).set("weightInGrams", s.weight).build();
+    }
+
+    @Benchmark
+    public Medium mediumDynamicOrdinal(Values s) {
+        return s.dynamic.reset().setInt(MediumBuilder.Dynamic.ID, s.id)
+            .setObject(MediumBuilder.Dynamic.NAME, s.name)
+            .setDouble(MediumBuilder.Dynamic.HEIGHT_IN_FEET, s.height)
+            .setLong(MediumBuilder.Dynamic.WEIGHT_IN_GRAMS, s.weight).build();
+    }
+
+    @Benchmark
+    public Medium mediumWithers(Values s) {
+        return s.medium.withName(s.name).withShortDescription(s.name).withHeightInCm(s.id);
+    }
+
+    @Benchmark
+    public Medium mediumFrom(Values s) {
+        return MediumBuilder.from(s.medium, b -> b.name(s.name).shortDescription(s.name)
+                                  .heightInCm(s.id));
+    }
+
+    @Benchmark
+    public Medium mediumFromFluent(Values s) {
+        return MediumFluentBuilder.build(MediumFluentBuilder.from(s.medium).name(s.name)
+                                         .shortDescription(s.name).heightInCm(s.id));
+    }
+
+    @Benchmark
+    public Tagged taggedCopy(Values s) {
+        java.util.List<String> tags = new java.util.ArrayList<>();
+        tags.add(s.name);
+        tags.add("a");
+        tags.add("b");
+        tags.add("c");
+        java.util.Map<String, String> attributes = new java.util.LinkedHashMap<>();
+        attributes.put("name", s.name);
+        attributes.put("kind", "k");
+        return TaggedCopyBuilder.build(TaggedCopyBuilder.start().id(s.id).tags(tags)
+                                       .attributes(attributes));
+    }
+
+    @Benchmark
+    public Tagged taggedAdders(Values s) {
+        return TaggedBuilder.build(TaggedBuilder.start().id(s.id).addTag(s.name).addTag("a")
+                                   .addTag("b").addTag("c")
+                                   .putAttribute("name", s.name).putAttribute("kind", "k"));
+    }
+
+    @Benchmark
+    public Series seriesBoxed(Values s) {
+        java.util.List<Integer> ids = new java.util.ArrayList<>();
+        java.util.List<Double> values = new java.util.ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            ids.add(s.id + i);
+            values.add(s.height * i);
+        }
+        int[] idArray = new int[ids.size()];
+        double[] valueArray = new double[values.size()];
+        for (int i = 0; i < idArray.length; i++) {
+            idArray[i] = ids.get(i);
+            valueArray[i] = values.get(i);
+        }
+        return SeriesBuilder.build(SeriesBuilder.start().name(s.name).ids(idArray)
+                                   .values(valueArray));
+    }
+
+    @Benchmark
+    public Series seriesAdders(Values s) {
+        SeriesBuilder<SeriesBuilder.Good> b = SeriesBuilder.start().name(s.name);
+        for (int i = 0; i < 32; i++) {
+            b.addId(s.id + i).addValue(s.height * i);
+        }
+        return SeriesBuilder.build(b);
+    }
+
+    @Benchmark
+    public Series seriesAddersCapacity(Values s) {
+        SeriesBuilder<SeriesBuilder.Good> b = SeriesBuilder.start().name(s.name)
+            .idsCapacity(32).valuesCapacity(32);
+        for (int i = 0; i < 32; i++) {
+            b.addId(s.id + i).addValue(s.height * i);
+        }
+        return SeriesBuilder.build(b);
+    }
+
+    @Benchmark
+    public Wide wideConstructor(Values s) {
+        return new Wide(s.id, s.name, 0L, s.height, 0, null, 7L, 0.0,
+                        0, null, 0L, 0.0, s.id, null, 0L, 0.0,
+                        0, null, 7L, 0.0, 0, null, 0L, 0.0,
+                        s.id, null, 0L, 0.0, 0, null, 7L, 0.0,
+                        0, null, 0L, 0.0, s.id, null, 0L, 0.0,
+                        0, null, 7L, 0.0, 0, null, 0L, 0.0,
+                        s.id, null, 0L, 0.0, 0, null, 7L, 0.0,
+                        0, null, 0L, 0.0, s.id, null, 0L, 0.0,
+                        0, null, 7L, 0.0, 0, null, 0L, 0.0,
+                        s.id, null, 0L, 0.0, 0, null, 7L, 0.0,
+                        0, null, 0L, 0.0, s.id, null, 0L, 0.0,
+                        0, null, 7L, 0.0, 0, null, 0L, 0.0,
+                        s.id, null, 0L, 0.0, 0, null, 7L, 0.0,
+                        0, null, 0L, 0.0, s.id, null, 0L, 0.0,
+                        0, null, 7L, 0.0, 0, null, 0L, 0.0);
+    }
+
+    @Benchmark
+    public Wide wideBuilder(Values s) {
+        return WideBuilder.build(b -> b.p0(s.id).p12(s.id).p24(s.id).p36(s.id)
+                                 .p48(s.id).p60(s.id).p72(s.id).p84(s.id).p96(s.id)
+                                 .p108(s.id).p1(s.name).p3(s.height));
+    }
+
+    @Benchmark
+    public Wide wideHandBuilder(Values s) {
+        return new Wide.HandBuilder().p0(s.id).p12(s.id).p24(s.id).p36(s.id)
+            .p48(s.id).p60(s.id).p72(s.id).p84(s.id).p96(s.id)
+            .p108(s.id).p1(s.name).p3(s.height)
+            .build();
+    }
+
+    @Benchmark
+    public Wide wideFluent(Values s) {
+        return WideFluentBuilder.build(WideFluentBuilder.start().p0(s.id).p12(s.id).p24(s.id)
+                                       .p36(s.id).p48(s.id).p60(s.id).p72(s.id).p84(s.id)
+                                       .p96(s.id).p108(s.id).p1(s.name).p3(s.height));
+    }
+
+    @Threads(1)
+    public static class SingleThreaded extends BuildBenchmark {
+    }
+
+    @Threads(Threads.MAX)
+    public static class MultiThreaded extends BuildBenchmark {
+    }
+}
@@ -0,0 +1,81 @@
+package dk.danamlund.yabuilder.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+import javax.tools.JavaFileObject;
+
+/**
+ * Full javac time for call sites of wide builders, phantom type variables
+ * versus {@code @Builder(staged = true)} and {@code @Builder(runtimeChecked = true)}.
+ * <p>
+ * For every number of required parameters, compiles {@code targets} targets
+ * with that many {@code @Required} and 8 optional parameters, and a caller
+ * class per target with {@code callSites} lambdas setting every parameter,
+ * with the default builder, staged and runtime-checked. Prints one CSV line
+ * per mode with the median and minimum milliseconds of the whole compilation
+ * and the bytes of the class files of one builder.
+ * <pre>
+ * java -cp target/benchmarks.jar dk.danamlund.yabuilder.benchmarks.CallSiteBenchmark [required ...]
+ * </pre>
+ */
+public final class CallSiteBenchmark {
+    private static final String[] DEFAULT_REQUIRED = { "4", "10", "20", "40" };
+    private static final int OPTIONAL = 8;
+    private static final int TARGETS = Integer.getInteger("targets", 50);
+    private static final int CALL_SITES = Integer.getInteger("callSites", 10);
+    private static final int WARMUP = Integer.getInteger("warmup", 3);
+    private static final int ITERATIONS = Integer.getInteger("iterations", 5);
+
+    private CallSiteBenchmark() { }
+
+    public static void main(String[] args) throws IOException {
+        String[] requireds = args.length == 0 ? DEFAULT_REQUIRED : args;
+        System.out.println("targets,callSites,required,mode,median_ms,min_ms,builder_bytes");
+        for (String required : requireds) {
+            for (String mode : Arrays.asList("phantom", "staged", "runtimeChecked")) {
+                run(Integer.parseInt(required), mode);
+            }
+        }
+    }
+
+    private static void run(int required, String mode) throws IOException {
+        List<JavaFileObject> sources = SyntheticSources.generateWithCallers(
+            TARGETS, required, OPTIONAL, mode, CALL_SITES);
+        for (int i = 0; i < WARMUP; i++) {
+            CompileBenchmark.compile(sources);
+        }
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            CompileBenchmark.compile(sources);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.println(String.format(Locale.ROOT, "%d,%d,%d,%s,%.3f,%.3f,%d",
+                                         TARGETS, CALL_SITES, required, mode,
+                                         nanos[ITERATIONS / 2] / 1e6, nanos[0] / 1e6,
+                                         builderBytes(sources)));
+    }
+
+    /**
+     * The class files of Target0Builder, including its nested classes.
+     */
+    private static long builderBytes(List<JavaFileObject> sources) throws IOException {
+        Path out = Files.createTempDirectory("yabuilder-call-site-benchmark");
+        try {
+            CompileBenchmark.compile(sources, out);
+            try (Stream<Path> paths = Files.walk(out)) {
+                return paths.filter(path -> path.getFileName().toString().startsWith("Target0Builder")
+                                    && path.toString().endsWith(".class"))
+                    .mapToLong(path -> path.toFile().length()).sum();
+            }
+        } finally {
+            CompileBenchmark.delete(out);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package dk.danamlund.yabuilder.benchmarks;
+
+import dk.danamlund.yabuilder.Builder;
+import dk.danamlund.yabuilder.Required;
+
+/**
+ * A primitive-heavy record of which only a few survive a filter.
+ */
+public class Candidate {
+    final long id;
+    final double score;
+    final long timestamp;
+    final int region;
+    final float weight;
+
+    @Builder(offHeap = true)
+    public Candidate(@Required long id, @Required double score, long timestamp, int region,
+                     float weight) {
+        this.id = id;
+        this.score = score;
+        this.timestamp = timestamp;
+        this.region = region;
+        this.weight = weight;
+    }
+}
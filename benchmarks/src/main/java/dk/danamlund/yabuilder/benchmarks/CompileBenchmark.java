@@ -0,0 +1,153 @@
+package dk.danamlund.yabuilder.benchmarks;
+
+import dk.danamlund.yabuilder.BuilderProcessor;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Wall time of {@code BuilderProcessor} on thousands of synthetic targets.
+ * <p>
+ * Every configuration compiles {@link SyntheticSources} with {@code -proc:only}
+ * through {@link TimedProcessor}, a few times to warm up and then a few
+ * measured times, and prints one CSV line per processing round with the
+ * median and minimum milliseconds. Round {@code 0} is {@code init}, round
+ * {@code 1} generates the builders. The {@code ns/param} column divides the
+ * median of all rounds by {@code targets * params}; it should stay roughly
+ * flat across configurations, a growing value means generation got
+ * superlinear in the number of parameters. {@code -Dparallelism=n} is passed
+ * on as {@code -Ayabuilder.parallelism=n} and {@code -Dstats=file} as
+ * {@code -Ayabuilder.stats=file}, which then holds the last compilation.
+ * <pre>
+ * java -cp target/benchmarks.jar dk.danamlund.yabuilder.benchmarks.CompileBenchmark [targets:params ...]
+ * </pre>
+ */
+public final class CompileBenchmark {
+    private static final String[] DEFAULT_CONFIGURATIONS = {
+        "4000:8", "1000:32", "250:128", "125:255"
+    };
+    private static final int WARMUP = Integer.getInteger("warmup", 3);
+    private static final int ITERATIONS = Integer.getInteger("iterations", 5);
+    private static final String PARALLELISM = System.getProperty("parallelism");
+    private static final String STATS = System.getProperty("stats");
+
+    private CompileBenchmark() { }
+
+    public static void main(String[] args) throws IOException {
+        String[] configurations = args.length == 0 ? DEFAULT_CONFIGURATIONS : args;
+        System.out.println("targets,params,round,median_ms,min_ms,ns/param");
+        for (String configuration : configurations) {
+            String[] split = configuration.split(":");
+            int targets = Integer.parseInt(split[0]);
+            int params = Integer.parseInt(split[1]);
+            run(targets, params);
+        }
+    }
+
+    private static void run(int targets, int params) throws IOException {
+        List<JavaFileObject> sources = SyntheticSources.generate(targets, params);
+        for (int i = 0; i < WARMUP; i++) {
+            processOnly(sources);
+        }
+        List<List<Long>> iterations = new ArrayList<>();
+        for (int i = 0; i < ITERATIONS; i++) {
+            iterations.add(processOnly(sources));
+        }
+        int rounds = iterations.get(0).size();
+        long[] totals = new long[ITERATIONS];
+        for (int round = 0; round < rounds; round++) {
+            long[] nanos = new long[ITERATIONS];
+            for (int i = 0; i < ITERATIONS; i++) {
+                nanos[i] = iterations.get(i).get(round);
+                totals[i] += nanos[i];
+            }
+            Arrays.sort(nanos);
+            System.out.println(String.format(Locale.ROOT, "%d,%d,%d,%.3f,%.3f,",
+                                             targets, params, round,
+                                             nanos[ITERATIONS / 2] / 1e6, nanos[0] / 1e6));
+        }
+        Arrays.sort(totals);
+        long median = totals[ITERATIONS / 2];
+        System.out.println(String.format(Locale.ROOT, "%d,%d,all,%.3f,%.3f,%.1f",
+                                         targets, params, median / 1e6, totals[0] / 1e6,
+                                         (double) median / ((long) targets * params)));
+    }
+
+    private static List<Long> processOnly(List<JavaFileObject> sources) throws IOException {
+        return compile(sources, "-proc:only").getRoundNanos();
+    }
+
+    /**
+     * Compile with {@code BuilderProcessor} and the given options into a temporary
+     * directory, which is deleted afterwards.
+     */
+    static TimedProcessor compile(List<JavaFileObject> sources, String... extraOptions)
+        throws IOException {
+        Path out = Files.createTempDirectory("yabuilder-compile-benchmark");
+        try {
+            return compile(sources, out, extraOptions);
+        } finally {
+            delete(out);
+        }
+    }
+
+    /**
+     * Compile with {@code BuilderProcessor} and the given options into {@code out}.
+     */
+    static TimedProcessor compile(List<JavaFileObject> sources, Path out, String... extraOptions)
+        throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("No system java compiler, run with a JDK");
+        }
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        StandardJavaFileManager fileManager =
+            compiler.getStandardFileManager(diagnostics, Locale.ROOT, null);
+        List<String> options = new ArrayList<>(Arrays.asList(extraOptions));
+        options.addAll(Arrays.asList(
+            "-nowarn",
+            "-classpath", System.getProperty("java.class.path"),
+            "-s", out.toString(), "-d", out.toString()));
+        if (PARALLELISM != null) {
+            options.add("-A" + BuilderProcessor.PARALLELISM_OPTION + "=" + PARALLELISM);
+        }
+        if (STATS != null) {
+            options.add("-A" + BuilderProcessor.STATS_OPTION + "=" + STATS);
+        }
+        JavaCompiler.CompilationTask task =
+            compiler.getTask(null, fileManager, diagnostics, options, null, sources);
+        TimedProcessor processor = new TimedProcessor();
+        task.setProcessors(Collections.singletonList(processor));
+        if (!task.call()) {
+            throw new IllegalStateException("Compilation failed: "
+                                             + diagnostics.getDiagnostics());
+        }
+        fileManager.close();
+        return processor;
+    }
+
+    static void delete(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package dk.danamlund.yabuilder.benchmarks;
+
+import dk.danamlund.yabuilder.Builder;
+import dk.danamlund.yabuilder.Default;
+import dk.danamlund.yabuilder.Required;
+import dk.danamlund.yabuilder.RequiredOneOf;
+import java.time.LocalDate;
+
+/**
+ * Mix of {@code @Required}, {@code @RequiredOneOf}, {@code @Default} and
+ * optional parameters, like the {@code Advanced} and {@code OneOf} test targets.
+ */
+public class Medium {
+    final int id;
+    final String name;
+    final String shortDescription;
+    final String longDescription;
+    final LocalDate date;
+    final int heightInCm;
+    final double heightInFeet;
+    final long weightInGrams;
+    final double weightInPounds;
+
+    @Builder(from = true, dynamic = true, streams = true, templates = true)
+    public Medium(@Required int id,
+                  @Required String name,
+                  String shortDescription,
+                  @Default("none") String longDescription,
+                  @Default("java.time.LocalDate.of(2016, 3, 21)") LocalDate date,
+                  @RequiredOneOf("height") int heightInCm,
+                  @RequiredOneOf("height") double heightInFeet,
+                  @RequiredOneOf("weight") long weightInGrams,
+                  @RequiredOneOf("weight") double weightInPounds) {
+        this.id = id;
+        this.name = name;
+        this.shortDescription = shortDescription;
+        this.longDescription = longDescription;
+        this.date = date;
+        this.heightInCm = heightInCm;
+        this.heightInFeet = heightInFeet;
+        this.weightInGrams = weightInGrams;
+        this.weightInPounds = weightInPounds;
+    }
+
+    @Builder(value = "MediumFluentBuilder", fluent = true, from = true)
+    public static Medium of(@Required int id,
+                            @Required String name,
+                            String shortDescription,
+                            @Default("none") String longDescription,
+                            @Default("java.time.LocalDate.of(2016, 3, 21)") LocalDate date,
+                            @RequiredOneOf("height") int heightInCm,
+                            @RequiredOneOf("height") double heightInFeet,
+                            @RequiredOneOf("weight") long weightInGrams,
+                            @RequiredOneOf("weight") double weightInPounds) {
+        return new Medium(id, name, shortDescription, longDescription, date,
+                          heightInCm, heightInFeet, weightInGrams, weightInPounds);
+    }
+
+    @Builder(value = "MediumPooledBuilder", pooled = true)
+    public static Medium pooled(@Required int id,
+                                @Required String name,
+                                String shortDescription,
+                                @Default("none") String longDescription,
+                                @Default("java.time.LocalDate.of(2016, 3, 21)") LocalDate date,
+                                @RequiredOneOf("height") int heightInCm,
+                                @RequiredOneOf("height") double heightInFeet,
+                                @RequiredOneOf("weight") long weightInGrams,
+                                @RequiredOneOf("weight") double weightInPounds) {
+        return new Medium(id, name, shortDescription, longDescription, date,
+                          heightInCm, heightInFeet, weightInGrams, weightInPounds);
+    }
+
+    /**
+     * Hand-written wither, a copy of this with another name.
+     */
+    public Medium withName(String name) {
+        return new Medium(id, name, shortDescription, longDescription, date,
+                          heightInCm, heightInFeet, weightInGrams, weightInPounds);
+    }
+
+    /**
+     * Hand-written wither, a copy of this with another shortDescription.
+     */
+    public Medium withShortDescription(String shortDescription) {
+        return new Medium(id, name, shortDescription, longDescription, date,
+                          heightInCm, heightInFeet, weightInGrams, weightInPounds);
+    }
+
+    /**
+     * Hand-written wither, a copy of this with another heightInCm.
+     */
+    public Medium withHeightInCm(int heightInCm) {
+        return new Medium(id, name, shortDescription, longDescription, date,
+                          heightInCm, 0.0, weightInGrams, weightInPounds);
+    }
+
+    /**
+     * Hand-written equivalent of the generated {@code MediumBuilder}.
+     */
+    public static final class HandBuilder {
+        private int id;
+        private String name;
+        private String shortDescription;
+        private String longDescription = "none";
+        private LocalDate date = LocalDate.of(2016, 3, 21);
+        private int heightInCm;
+        private double heightInFeet;
+        private long weightInGrams;
+        private double weightInPounds;
+
+        public HandBuilder id(int id) {
+            this.id = id;
+            return this;
+        }
+
+        public HandBuilder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public HandBuilder shortDescription(String shortDescription) {
+            this.shortDescription = shortDescription;
+            return this;
+        }
+
+        public HandBuilder longDescription(String longDescription) {
+            this.longDescription = longDescription;
+            return this;
+        }
+
+        public HandBuilder date(LocalDate date) {
+            this.date = date;
+            return this;
+        }
+
+        public HandBuilder heightInCm(int heightInCm) {
+            this.heightInCm = heightInCm;
+            this.heightInFeet = 0.0;
+            return this;
+        }
+
+        public HandBuilder heightInFeet(double heightInFeet) {
+            this.heightInFeet = heightInFeet;
+            this.heightInCm = 0;
+            return this;
+        }
+
+        public HandBuilder weightInGrams(long weightInGrams) {
+            this.weightInGrams = weightInGrams;
+            this.weightInPounds = 0.0;
+            return this;
+        }
+
+        public HandBuilder weightInPounds(double weightInPounds) {
+            this.weightInPounds = weightInPounds;
+            this.weightInGrams = 0L;
+            return this;
+        }
+
+        public Medium build() {
+            return new Medium(id, name, shortDescription, longDescription, date,
+                              heightInCm, heightInFeet, weightInGrams, weightInPounds);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package dk.danamlund.yabuilder.benchmarks;
+
+import dk.danamlund.yabuilder.Builder;
+import dk.danamlund.yabuilder.Default;
+import dk.danamlund.yabuilder.Required;
+
+/**
+ * A static factory that blocks like a remote call.
+ */
+public final class Remote {
+    private Remote() { }
+
+    @Builder(value = "RemoteBuilder", async = true)
+    public static String fetch(@Required int id, @Default("1") int latencyMillis) {
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        return "remote " + id;
+    }
+}
@@ -0,0 +1,21 @@
+package dk.danamlund.yabuilder.benchmarks;
+
+import dk.danamlund.yabuilder.Builder;
+import dk.danamlund.yabuilder.Required;
+
+/**
+ * Target with primitive arrays, built with the appenders of
+ * {@code @Builder(adders = true)} or from arrays converted by the caller.
+ */
+public class Series {
+    final String name;
+    final int[] ids;
+    final double[] values;
+
+    @Builder(fluent = true, adders = true)
+    public Series(@Required String name, int[] ids, double[] values) {
+        this.name = name;
+        this.ids = ids;
+        this.values = values;
+    }
+}
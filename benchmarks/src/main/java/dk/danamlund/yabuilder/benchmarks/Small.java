@@ -0,0 +1,66 @@
+package dk.danamlund.yabuilder.benchmarks;
+
+import dk.danamlund.yabuilder.Builder;
+import dk.danamlund.yabuilder.Default;
+import dk.danamlund.yabuilder.Required;
+
+/**
+ * Two parameter target, the smallest builder worth having.
+ */
+public class Small {
+    final int id;
+    final String name;
+
+    @Builder
+    public Small(@Required int id, @Default("none") String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    @Builder(value = "SmallFluentBuilder", fluent = true)
+    public static Small of(@Required int id, @Default("none") String name) {
+        return new Small(id, name);
+    }
+
+    @Builder(value = "SmallPooledBuilder", pooled = true)
+    public static Small pooled(@Required int id, @Default("none") String name) {
+        return new Small(id, name);
+    }
+
+    @Builder(value = "SmallMetricsBuilder", fluent = true, metrics = true)
+    public static Small metrics(@Required int id, @Default("none") String name) {
+        return new Small(id, name);
+    }
+
+    @Builder(value = "SmallEventsBuilder", fluent = true, events = true)
+    public static Small events(@Required int id, @Default("none") String name) {
+        return new Small(id, name);
+    }
+
+    @Builder(value = "SmallLazyBuilder", fluent = true, lazy = true)
+    public static Small lazy(@Required int id, @Default("none") String name) {
+        return new Small(id, name);
+    }
+
+    /**
+     * Hand-written equivalent of the generated {@code SmallBuilder}.
+     */
+    public static final class HandBuilder {
+        private int id;
+        private String name = "none";
+
+        public HandBuilder id(int id) {
+            this.id = id;
+            return this;
+        }
+
+        public HandBuilder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Small build() {
+            return new Small(id, name);
+        }
+    }
+}
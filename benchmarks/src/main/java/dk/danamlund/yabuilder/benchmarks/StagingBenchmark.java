@@ -0,0 +1,101 @@
+package dk.danamlund.yabuilder.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Stages {@code rows} {@link Candidate}s and keeps the one in a thousand with
+ * the highest scores.
+ * <ul>
+ * <li>{@code heap}: builds every candidate into a list, then filters it.
+ * <li>{@code offHeap}: adds every row to {@code CandidateBuilder.Rows} from
+ *     {@code @Builder(offHeap = true)}, reused between operations, and builds
+ *     only the rows whose score passes.
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class StagingBenchmark {
+    private static final double THRESHOLD = 0.999;
+
+    @Param("1000000")
+    int rows;
+
+    CandidateBuilder.Rows staged;
+
+    @Setup
+    public void setup() {
+        staged = CandidateBuilder.rows(rows);
+    }
+
+    /** Spread over [0, 1) by a multiplicative hash. */
+    private static double score(long i) {
+        return ((i * 0x9E3779B97F4A7C15L) >>> 11) * 0x1.0p-53;
+    }
+
+    @Benchmark
+    public List<Candidate> heap() {
+        return filter(buildAll());
+    }
+
+    private List<Candidate> buildAll() {
+        List<Candidate> all = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            long id = i;
+            all.add(CandidateBuilder.build(b -> b.id(id).score(score(id)).timestamp(id * 1000L)
+                                           .region((int) (id & 15)).weight(id * 0.5f)));
+        }
+        return all;
+    }
+
+    private static List<Candidate> filter(List<Candidate> all) {
+        List<Candidate> survivors = new ArrayList<>();
+        for (Candidate candidate : all) {
+            if (candidate.score >= THRESHOLD) {
+                survivors.add(candidate);
+            }
+        }
+        return survivors;
+    }
+
+    @Benchmark
+    public List<Candidate> offHeap() {
+        return filter(stage(staged));
+    }
+
+    private CandidateBuilder.Rows stage(CandidateBuilder.Rows staged) {
+        staged.clear();
+        for (int i = 0; i < rows; i++) {
+            long id = i;
+            staged.add(b -> b.id(id).score(score(id)).timestamp(id * 1000L)
+                       .region((int) (id & 15)).weight(id * 0.5f));
+        }
+        return staged;
+    }
+
+    private static List<Candidate> filter(CandidateBuilder.Rows staged) {
+        List<Candidate> survivors = new ArrayList<>();
+        for (int i = 0; i < staged.size(); i++) {
+            if (staged.score(i) >= THRESHOLD) {
+                survivors.add(staged.build(i));
+            }
+        }
+        return survivors;
+    }
+}
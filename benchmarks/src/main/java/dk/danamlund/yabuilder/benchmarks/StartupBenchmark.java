@@ -0,0 +1,142 @@
+package dk.danamlund.yabuilder.benchmarks;
+
+import dk.danamlund.yabuilder.BuilderProcessor;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+import javax.tools.JavaFileObject;
+
+/**
+ * Class files, classes loaded and cold start of an application with thousands
+ * of builders.
+ * <p>
+ * For every mode, compiles {@code -Dbuilders} targets with
+ * {@link SyntheticSources#generateWithMain} and a {@code Main} that builds
+ * each target from {@code -DcallSites} call sites, then starts {@code Main} in
+ * fresh JVMs with {@code -Xlog:class+load}. Prints one CSV line per mode:
+ * <ul>
+ * <li>{@code classFiles}, {@code classKiB}: generated class files and their size.
+ * <li>{@code loaded}, {@code loadedGenerated}, {@code lambdaClasses}: classes
+ *     loaded in total, from the generated code, and spun up by
+ *     {@code LambdaMetafactory} for the call sites.
+ * <li>{@code jvm_ms}: median wall time of the whole JVM.
+ * <li>{@code firstBuild_ms}: median time from {@code main} until the first
+ *     build returned, including linking its call site.
+ * <li>{@code us/callSite}: median time of all builds divided by the number of
+ *     call sites, each call site runs once so this is mostly linkage.
+ * </ul>
+ * A mode is a list of {@code @Builder} attributes separated by {@code +},
+ * passed as {@code -Ayabuilder.defaults}, for example {@code compact+fluent},
+ * or {@code default} for none.
+ * <pre>
+ * java -cp target/benchmarks.jar dk.danamlund.yabuilder.benchmarks.StartupBenchmark [mode ...]
+ * </pre>
+ */
+public final class StartupBenchmark {
+    private static final String[] DEFAULT_MODES = {
+        "default", "compact", "staged", "fluent", "compact+fluent"
+    };
+    private static final int BUILDERS = Integer.getInteger("builders", 2000);
+    private static final int CALL_SITES = Integer.getInteger("callSites", 1);
+    private static final int ITERATIONS = Integer.getInteger("iterations", 5);
+
+    private StartupBenchmark() { }
+
+    public static void main(String[] args) throws Exception {
+        String[] modes = args.length == 0 ? DEFAULT_MODES : args;
+        System.out.println("mode,builders,callSites,classFiles,classKiB,loaded,loadedGenerated,"
+                           + "lambdaClasses,jvm_ms,firstBuild_ms,us/callSite");
+        for (String mode : modes) {
+            run(mode);
+        }
+    }
+
+    private static void run(String mode) throws Exception {
+        String defaults = mode.equals("default") ? "" : mode.replace('+', ',');
+        List<JavaFileObject> sources = SyntheticSources.generateWithMain(
+            BUILDERS, CALL_SITES, Arrays.asList(defaults.split(",")).contains("fluent"));
+        Path out = Files.createTempDirectory("yabuilder-startup-benchmark");
+        try {
+            CompileBenchmark.compile(sources, out,
+                                     "-A" + BuilderProcessor.DEFAULTS_OPTION + "=" + defaults);
+            long classFiles = 0;
+            long classBytes = 0;
+            try (Stream<Path> paths = Files.walk(out.resolve(SyntheticSources.PACKAGE))) {
+                for (Path path : (Iterable<Path>) paths::iterator) {
+                    if (path.toString().endsWith(".class")) {
+                        classFiles++;
+                        classBytes += Files.size(path);
+                    }
+                }
+            }
+
+            Path log = out.resolve("class-load.log");
+            long[] jvmNanos = new long[ITERATIONS];
+            long[] firstNanos = new long[ITERATIONS];
+            long[] allNanos = new long[ITERATIONS];
+            long loaded = 0;
+            long loadedGenerated = 0;
+            long lambdaClasses = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long start = System.nanoTime();
+                Process process = new ProcessBuilder(
+                    System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                    "-Xlog:class+load=info:file=" + log,
+                    "-cp", out + File.pathSeparator + System.getProperty("java.class.path"),
+                    SyntheticSources.PACKAGE + ".Main")
+                    .redirectErrorStream(true)
+                    .start();
+                String output = new String(readAll(process.getInputStream()),
+                                           StandardCharsets.UTF_8).trim();
+                if (process.waitFor() != 0) {
+                    throw new IllegalStateException(output);
+                }
+                jvmNanos[i] = System.nanoTime() - start;
+                String[] times = output.split(" ");
+                firstNanos[i] = Long.parseLong(times[0]);
+                allNanos[i] = Long.parseLong(times[1]);
+
+                List<String> lines = Files.readAllLines(log);
+                loaded = lines.size();
+                loadedGenerated = lines.stream()
+                    .filter(line -> line.contains(" " + SyntheticSources.PACKAGE + "."))
+                    .filter(line -> !line.contains("$$Lambda"))
+                    .count();
+                lambdaClasses = lines.stream()
+                    .filter(line -> line.contains(" " + SyntheticSources.PACKAGE + "."))
+                    .filter(line -> line.contains("$$Lambda"))
+                    .count();
+            }
+            Arrays.sort(jvmNanos);
+            Arrays.sort(firstNanos);
+            Arrays.sort(allNanos);
+            System.out.println(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%d,%d,%.1f,%.2f,%.2f",
+                                             mode, BUILDERS, CALL_SITES, classFiles,
+                                             classBytes / 1024, loaded, loadedGenerated,
+                                             lambdaClasses,
+                                             jvmNanos[ITERATIONS / 2] / 1e6,
+                                             firstNanos[ITERATIONS / 2] / 1e6,
+                                             allNanos[ITERATIONS / 2] / 1e3
+                                             / ((long) BUILDERS * CALL_SITES + 1)));
+        } finally {
+            CompileBenchmark.delete(out);
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        byte[] buffer = new byte[8192];
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,110 @@
+package dk.danamlund.yabuilder.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Turns a list of {@link Row}s into a list of {@code Medium}s.
+ * <ul>
+ * <li>{@code map}: {@code map(r {@literal ->} MediumBuilder.build(b {@literal ->} ...))},
+ *     a builder and a capturing lambda per row.
+ * <li>{@code stream}: {@code MediumBuilder.stream(rows, (b, r) {@literal ->} ...)},
+ *     a builder per split from {@code @Builder(streams = true)}.
+ * <li>{@code collector}: {@code collect(MediumBuilder.collector((b, r) {@literal ->} ...))},
+ *     a builder per collector container.
+ * </ul>
+ * Every variant runs on a sequential and on a parallel stream.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class StreamBenchmark {
+
+    /** A decoded record, for example a row of a result set. */
+    public static final class Row {
+        final int id;
+        final String name;
+        final double height;
+        final long weight;
+
+        Row(int id, String name, double height, long weight) {
+            this.id = id;
+            this.name = name;
+            this.height = height;
+            this.weight = weight;
+        }
+    }
+
+    @Param("10000")
+    int rows;
+
+    List<Row> list;
+
+    @Setup
+    public void setup() {
+        list = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            list.add(new Row(i, "name" + i, 1.0 + i % 100, 50_000L + i));
+        }
+    }
+
+    @Benchmark
+    public List<Medium> map() {
+        return list.stream()
+            .map(r -> MediumBuilder.build(b -> b.id(r.id).name(r.name)
+                                          .heightInFeet(r.height).weightInGrams(r.weight)))
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Medium> stream() {
+        return MediumBuilder.stream(list.stream(), (b, r) -> b.id(r.id).name(r.name)
+                                    .heightInFeet(r.height).weightInGrams(r.weight))
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Medium> collector() {
+        return list.stream()
+            .collect(MediumBuilder.collector((b, r) -> b.id(r.id).name(r.name)
+                                             .heightInFeet(r.height).weightInGrams(r.weight)));
+    }
+
+    @Benchmark
+    public List<Medium> parallelMap() {
+        return list.parallelStream()
+            .map(r -> MediumBuilder.build(b -> b.id(r.id).name(r.name)
+                                          .heightInFeet(r.height).weightInGrams(r.weight)))
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Medium> parallelStream() {
+        return MediumBuilder.stream(list.parallelStream(), (b, r) -> b.id(r.id).name(r.name)
+                                    .heightInFeet(r.height).weightInGrams(r.weight))
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Medium> parallelCollector() {
+        return list.parallelStream()
+            .collect(MediumBuilder.collector((b, r) -> b.id(r.id).name(r.name)
+                                             .heightInFeet(r.height).weightInGrams(r.weight)));
+    }
+}
@@ -0,0 +1,199 @@
+package dk.danamlund.yabuilder.benchmarks;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+
+/**
+ * In-memory {@code @Builder} targets for {@link CompileBenchmark},
+ * {@link CallSiteBenchmark} and {@link StartupBenchmark}.
+ * <p>
+ * Every target is a class with one {@code @Builder} static method. Static
+ * methods can take 255 parameters, constructors only 254. In {@link #generate}
+ * parameters alternate between {@code int} and {@code String} so each takes
+ * one slot; every 8th is {@code @Required} and every 8th, offset by 4, has a
+ * {@code @Default}.
+ */
+public final class SyntheticSources {
+    public static final String PACKAGE = "synthetic";
+
+    private SyntheticSources() { }
+
+    public static List<JavaFileObject> generate(int targets, int params) {
+        if (params < 1 || params > 255) {
+            throw new IllegalArgumentException("params must be in [1;255]: " + params);
+        }
+        List<JavaFileObject> sources = new ArrayList<>(targets);
+        for (int i = 0; i < targets; i++) {
+            String name = "Target" + i;
+            sources.add(new Source(PACKAGE + "." + name, source(name, params)));
+        }
+        return sources;
+    }
+
+    /**
+     * Targets with {@code required} {@code @Required} and {@code optional} optional
+     * parameters, and a caller class per target with {@code callSites} methods that
+     * build the target setting every parameter in declaration order. {@code mode}
+     * is {@code phantom} for the default builder or a boolean {@code @Builder}
+     * attribute to set, {@code staged} or {@code runtimeChecked}.
+     */
+    public static List<JavaFileObject> generateWithCallers(int targets, int required, int optional,
+                                                           String mode, int callSites) {
+        List<JavaFileObject> sources = new ArrayList<>(2 * targets);
+        for (int i = 0; i < targets; i++) {
+            String name = "Target" + i;
+            StringBuilder sb = new StringBuilder();
+            sb.append("package ").append(PACKAGE).append(";\n\n");
+            sb.append("import dk.danamlund.yabuilder.Builder;\n");
+            sb.append("import dk.danamlund.yabuilder.Required;\n\n");
+            sb.append("public class ").append(name).append(" {\n");
+            sb.append("    @Builder(value = \"").append(name).append("Builder\"")
+                .append(mode.equals("phantom") ? "" : ", " + mode + " = true").append(")\n");
+            sb.append("    public static ").append(name).append(" of(");
+            for (int p = 0; p < required + optional; p++) {
+                sb.append(p > 0 ? ",\n            " : "\n            ");
+                sb.append(p < required ? "@Required int p" : "int p").append(p);
+            }
+            sb.append(") {\n");
+            sb.append("        return new ").append(name).append("();\n");
+            sb.append("    }\n");
+            sb.append("}\n");
+            sources.add(new Source(PACKAGE + "." + name, sb.toString()));
+
+            String caller = name + "Caller";
+            sb = new StringBuilder();
+            sb.append("package ").append(PACKAGE).append(";\n\n");
+            sb.append("class ").append(caller).append(" {\n");
+            for (int c = 0; c < callSites; c++) {
+                sb.append("    static ").append(name).append(" call").append(c).append("(int v) {\n");
+                sb.append("        return ").append(name).append("Builder.build(b -> b");
+                for (int p = 0; p < required + optional; p++) {
+                    sb.append("\n            .p").append(p).append("(v)");
+                }
+                sb.append(");\n");
+                sb.append("    }\n");
+            }
+            sb.append("}\n");
+            sources.add(new Source(PACKAGE + "." + caller, sb.toString()));
+        }
+        return sources;
+    }
+
+    /**
+     * Targets with a {@code @Builder} of two {@code @Required}, one
+     * {@code @RequiredOneOf} group of two and two optional parameters, and a
+     * {@code synthetic.Main} that builds every target from {@code callSites} call
+     * sites. Main prints the nanoseconds until the first build of
+     * {@code Target0} returned and until all builds returned. {@code fluent}
+     * selects {@code build(start()...)} instead of {@code build(Function)} call
+     * sites.
+     */
+    public static List<JavaFileObject> generateWithMain(int targets, int callSites,
+                                                        boolean fluent) {
+        List<JavaFileObject> sources = new ArrayList<>(targets + 1);
+        StringBuilder calls = new StringBuilder();
+        int chunks = 0;
+        for (int i = 0; i < targets; i++) {
+            String name = "Target" + i;
+            StringBuilder sb = new StringBuilder();
+            sb.append("package ").append(PACKAGE).append(";\n\n");
+            sb.append("import dk.danamlund.yabuilder.*;\n\n");
+            sb.append("public class ").append(name).append(" {\n");
+            sb.append("    @Builder(\"").append(name).append("Builder\")\n");
+            sb.append("    public static ").append(name).append(" of(@Required int id,\n");
+            sb.append("            @Required String name,\n");
+            sb.append("            @RequiredOneOf(\"size\") int width,\n");
+            sb.append("            @RequiredOneOf(\"size\") int height,\n");
+            sb.append("            int x,\n");
+            sb.append("            String label) {\n");
+            sb.append("        return new ").append(name).append("();\n");
+            sb.append("    }\n");
+            sb.append("}\n");
+            sources.add(new Source(PACKAGE + "." + name, sb.toString()));
+
+            for (int c = 0; c < callSites; c++) {
+                int call = i * callSites + c;
+                if (call % 100 == 0) {
+                    if (call > 0) {
+                        calls.append("    }\n\n");
+                    }
+                    calls.append("    static void build").append(chunks++).append("(int v) {\n");
+                }
+                calls.append("        ").append(buildCall(name, fluent, "v")).append(";\n");
+            }
+        }
+        calls.append("    }\n");
+
+        StringBuilder main = new StringBuilder();
+        main.append("package ").append(PACKAGE).append(";\n\n");
+        main.append("public class Main {\n");
+        main.append("    public static void main(String[] args) {\n");
+        main.append("        long start = System.nanoTime();\n");
+        main.append("        ").append(buildCall("Target0", fluent, "args.length")).append(";\n");
+        main.append("        long first = System.nanoTime() - start;\n");
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            main.append("        build").append(chunk).append("(args.length);\n");
+        }
+        main.append("        System.out.println(first + \" \" + (System.nanoTime() - start));\n");
+        main.append("    }\n\n");
+        main.append(calls);
+        main.append("}\n");
+        sources.add(new Source(PACKAGE + ".Main", main.toString()));
+        return sources;
+    }
+
+    private static String buildCall(String name, boolean fluent, String v) {
+        String setters = ".id(" + v + ").name(\"n\").width(" + v + ").x(" + v + ")";
+        if (fluent) {
+            return name + "Builder.build(" + name + "Builder.start()" + setters + ")";
+        } else {
+            return name + "Builder.build(b -> b" + setters + ")";
+        }
+    }
+
+    static String source(String name, int params) {
+        StringBuilder sb = new StringBuilder(64 * params);
+        sb.append("package ").append(PACKAGE).append(";\n\n");
+        sb.append("import dk.danamlund.yabuilder.Builder;\n");
+        sb.append("import dk.danamlund.yabuilder.Default;\n");
+        sb.append("import dk.danamlund.yabuilder.Required;\n\n");
+        sb.append("public class ").append(name).append(" {\n");
+        sb.append("    @Builder(\"").append(name).append("Builder\")\n");
+        sb.append("    public static ").append(name).append(" of(");
+        for (int i = 0; i < params; i++) {
+            if (i > 0) {
+                sb.append(",");
+            }
+            sb.append("\n            ");
+            if (i % 8 == 0) {
+                sb.append("@Required ");
+            } else if (i % 8 == 4) {
+                sb.append("@Default(\"7\") ");
+            }
+            sb.append(i % 2 == 0 ? "int" : "String").append(" p").append(i);
+        }
+        sb.append(") {\n");
+        sb.append("        return new ").append(name).append("();\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static final class Source extends SimpleJavaFileObject {
+        private final String content;
+
+        Source(String qualifiedName, String content) {
+            super(URI.create("string:///" + qualifiedName.replace('.', '/')
+                             + Kind.SOURCE.extension), Kind.SOURCE);
+            this.content = content;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return content;
+        }
+    }
+}
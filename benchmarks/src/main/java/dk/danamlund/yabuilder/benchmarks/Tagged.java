@@ -0,0 +1,43 @@
+package dk.danamlund.yabuilder.benchmarks;
+
+import dk.danamlund.yabuilder.Builder;
+import dk.danamlund.yabuilder.Required;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Target with a list and a map, built with the element adders of
+ * {@code @Builder(adders = true)} or from collections it copies.
+ */
+public class Tagged {
+    final int id;
+    final List<String> tags;
+    final Map<String, String> attributes;
+
+    Tagged(int id, List<String> tags, Map<String, String> attributes) {
+        this.id = id;
+        this.tags = tags;
+        this.attributes = attributes;
+    }
+
+    /**
+     * The builder owns the collections, the target keeps its views.
+     */
+    @Builder(value = "TaggedBuilder", fluent = true, adders = true)
+    public static Tagged of(@Required int id, List<String> tags, Map<String, String> attributes) {
+        return new Tagged(id, tags, attributes);
+    }
+
+    /**
+     * The caller owns the collections, the target copies them.
+     */
+    @Builder(value = "TaggedCopyBuilder", fluent = true)
+    public static Tagged copying(@Required int id, List<String> tags,
+                                 Map<String, String> attributes) {
+        return new Tagged(id, Collections.unmodifiableList(new ArrayList<>(tags)),
+                          Collections.unmodifiableMap(new LinkedHashMap<>(attributes)));
+    }
+}
@@ -0,0 +1,57 @@
+package dk.danamlund.yabuilder.benchmarks;
+
+import dk.danamlund.yabuilder.BuilderProcessor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+
+/**
+ * Delegates to {@link BuilderProcessor} and records the wall time of every
+ * {@code process} round.
+ */
+public final class TimedProcessor extends AbstractProcessor {
+    private final Processor delegate = new BuilderProcessor();
+    private final List<Long> roundNanos = new ArrayList<>();
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        long start = System.nanoTime();
+        delegate.init(processingEnv);
+        roundNanos.add(System.nanoTime() - start);
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return delegate.getSupportedAnnotationTypes();
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return delegate.getSupportedOptions();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return delegate.getSupportedSourceVersion();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        long start = System.nanoTime();
+        boolean claimed = delegate.process(annotations, roundEnv);
+        roundNanos.add(System.nanoTime() - start);
+        return claimed;
+    }
+
+    /** Nanoseconds spent in {@code init} followed by one entry per round. */
+    public List<Long> getRoundNanos() {
+        return roundNanos;
+    }
+}
@@ -0,0 +1,1231 @@
+package dk.danamlund.yabuilder.benchmarks;
+
+import dk.danamlund.yabuilder.Builder;
+import dk.danamlund.yabuilder.Default;
+import dk.danamlund.yabuilder.Required;
+
+/**
+ * Wide target with 120 parameters, 10 of them {@code @Required}.
+ * <p>
+ * Generated once; parameter {@code pN} has type int, String, long, double for
+ * {@code N % 4} equal to 0, 1, 2, 3.
+ */
+public class Wide {
+    final int p0;
+    final String p1;
+    final long p2;
+    final double p3;
+    final int p4;
+    final String p5;
+    final long p6;
+    final double p7;
+    final int p8;
+    final String p9;
+    final long p10;
+    final double p11;
+    final int p12;
+    final String p13;
+    final long p14;
+    final double p15;
+    final int p16;
+    final String p17;
+    final long p18;
+    final double p19;
+    final int p20;
+    final String p21;
+    final long p22;
+    final double p23;
+    final int p24;
+    final String p25;
+    final long p26;
+    final double p27;
+    final int p28;
+    final String p29;
+    final long p30;
+    final double p31;
+    final int p32;
+    final String p33;
+    final long p34;
+    final double p35;
+    final int p36;
+    final String p37;
+    final long p38;
+    final double p39;
+    final int p40;
+    final String p41;
+    final long p42;
+    final double p43;
+    final int p44;
+    final String p45;
+    final long p46;
+    final double p47;
+    final int p48;
+    final String p49;
+    final long p50;
+    final double p51;
+    final int p52;
+    final String p53;
+    final long p54;
+    final double p55;
+    final int p56;
+    final String p57;
+    final long p58;
+    final double p59;
+    final int p60;
+    final String p61;
+    final long p62;
+    final double p63;
+    final int p64;
+    final String p65;
+    final long p66;
+    final double p67;
+    final int p68;
+    final String p69;
+    final long p70;
+    final double p71;
+    final int p72;
+    final String p73;
+    final long p74;
+    final double p75;
+    final int p76;
+    final String p77;
+    final long p78;
+    final double p79;
+    final int p80;
+    final String p81;
+    final long p82;
+    final double p83;
+    final int p84;
+    final String p85;
+    final long p86;
+    final double p87;
+    final int p88;
+    final String p89;
+    final long p90;
+    final double p91;
+    final int p92;
+    final String p93;
+    final long p94;
+    final double p95;
+    final int p96;
+    final String p97;
+    final long p98;
+    final double p99;
+    final int p100;
+    final String p101;
+    final long p102;
+    final double p103;
+    final int p104;
+    final String p105;
+    final long p106;
+    final double p107;
+    final int p108;
+    final String p109;
+    final long p110;
+    final double p111;
+    final int p112;
+    final String p113;
+    final long p114;
+    final double p115;
+    final int p116;
+    final String p117;
+    final long p118;
+    final double p119;
+
+    @Builder
+    public Wide(@Required int p0,
+                String p1,
+                long p2,
+                double p3,
+                int p4,
+                String p5,
+                @Default("7L") long p6,
+                double p7,
+                int p8,
+                String p9,
+                long p10,
+                double p11,
+                @Required int p12,
+                String p13,
+                long p14,
+                double p15,
+                int p16,
+                String p17,
+                @Default("7L") long p18,
+                double p19,
+                int p20,
+                String p21,
+                long p22,
+                double p23,
+                @Required int p24,
+                String p25,
+                long p26,
+                double p27,
+                int p28,
+                String p29,
+                @Default("7L") long p30,
+                double p31,
+                int p32,
+                String p33,
+                long p34,
+                double p35,
+                @Required int p36,
+                String p37,
+                long p38,
+                double p39,
+                int p40,
+                String p41,
+                @Default("7L") long p42,
+                double p43,
+                int p44,
+                String p45,
+                long p46,
+                double p47,
+                @Required int p48,
+                String p49,
+                long p50,
+                double p51,
+                int p52,
+                String p53,
+                @Default("7L") long p54,
+                double p55,
+                int p56,
+                String p57,
+                long p58,
+                double p59,
+                @Required int p60,
+                String p61,
+                long p62,
+                double p63,
+                int p64,
+                String p65,
+                @Default("7L") long p66,
+                double p67,
+                int p68,
+                String p69,
+                long p70,
+                double p71,
+                @Required int p72,
+                String p73,
+                long p74,
+                double p75,
+                int p76,
+                String p77,
+                @Default("7L") long p78,
+                double p79,
+                int p80,
+                String p81,
+                long p82,
+                double p83,
+                @Required int p84,
+                String p85,
+                long p86,
+                double p87,
+                int p88,
+                String p89,
+                @Default("7L") long p90,
+                double p91,
+                int p92,
+                String p93,
+                long p94,
+                double p95,
+                @Required int p96,
+                String p97,
+                long p98,
+                double p99,
+                int p100,
+                String p101,
+                @Default("7L") long p102,
+                double p103,
+                int p104,
+                String p105,
+                long p106,
+                double p107,
+                @Required int p108,
+                String p109,
+                long p110,
+                double p111,
+                int p112,
+                String p113,
+                @Default("7L") long p114,
+                double p115,
+                int p116,
+                String p117,
+                long p118,
+                double p119) {
+        this.p0 = p0;
+        this.p1 = p1;
+        this.p2 = p2;
+        this.p3 = p3;
+        this.p4 = p4;
+        this.p5 = p5;
+        this.p6 = p6;
+        this.p7 = p7;
+        this.p8 = p8;
+        this.p9 = p9;
+        this.p10 = p10;
+        this.p11 = p11;
+        this.p12 = p12;
+        this.p13 = p13;
+        this.p14 = p14;
+        this.p15 = p15;
+        this.p16 = p16;
+        this.p17 = p17;
+        this.p18 = p18;
+        this.p19 = p19;
+        this.p20 = p20;
+        this.p21 = p21;
+        this.p22 = p22;
+        this.p23 = p23;
+        this.p24 = p24;
+        this.p25 = p25;
+        this.p26 = p26;
+        this.p27 = p27;
+        this.p28 = p28;
+        this.p29 = p29;
+        this.p30 = p30;
+        this.p31 = p31;
+        this.p32 = p32;
+        this.p33 = p33;
+        this.p34 = p34;
+        this.p35 = p35;
+        this.p36 = p36;
+        this.p37 = p37;
+        this.p38 = p38;
+        this.p39 = p39;
+        this.p40 = p40;
+        this.p41 = p41;
+        this.p42 = p42;
+        this.p43 = p43;
+        this.p44 = p44;
+        this.p45 = p45;
+        this.p46 = p46;
+        this.p47 = p47;
+        this.p48 = p48;
+        this.p49 = p49;
+        this.p50 = p50;
+        this.p51 = p51;
+        this.p52 = p52;
+        this.p53 = p53;
+        this.p54 = p54;
+        this.p55 = p55;
+        this.p56 = p56;
+        this.p57 = p57;
+        this.p58 = p58;
+        this.p59 = p59;
+        this.p60 = p60;
+        this.p61 = p61;
+        this.p62 = p62;
+        this.p63 = p63;
+        this.p64 = p64;
+        this.p65 = p65;
+        this.p66 = p66;
+        this.p67 = p67;
+        this.p68 = p68;
+        this.p69 = p69;
+        this.p70 = p70;
+        this.p71 = p71;
+        this.p72 = p72;
+        this.p73 = p73;
+        this.p74 = p74;
+        this.p75 = p75;
+        this.p76 = p76;
+        this.p77 = p77;
+        this.p78 = p78;
+        this.p79 = p79;
+        this.p80 = p80;
+        this.p81 = p81;
+        this.p82 = p82;
+        this.p83 = p83;
+        this.p84 = p84;
+        this.p85 = p85;
+        this.p86 = p86;
+        this.p87 = p87;
+        this.p88 = p88;
+        this.p89 = p89;
+        this.p90 = p90;
+        this.p91 = p91;
+        this.p92 = p92;
+        this.p93 = p93;
+        this.p94 = p94;
+        this.p95 = p95;
+        this.p96 = p96;
+        this.p97 = p97;
+        this.p98 = p98;
+        this.p99 = p99;
+        this.p100 = p100;
+        this.p101 = p101;
+        this.p102 = p102;
+        this.p103 = p103;
+        this.p104 = p104;
+        this.p105 = p105;
+        this.p106 = p106;
+        this.p107 = p107;
+        this.p108 = p108;
+        this.p109 = p109;
+        this.p110 = p110;
+        this.p111 = p111;
+        this.p112 = p112;
+        this.p113 = p113;
+        this.p114 = p114;
+        this.p115 = p115;
+        this.p116 = p116;
+        this.p117 = p117;
+        this.p118 = p118;
+        this.p119 = p119;
+    }
+
+    @Builder(value = "WideFluentBuilder", fluent = true)
+    public static Wide of(@Required int p0,
+                           String p1,
+                           long p2,
+                           double p3,
+                           int p4,
+                           String p5,
+                           @Default("7L") long p6,
+                           double p7,
+                           int p8,
+                           String p9,
+                           long p10,
+                           double p11,
+                           @Required int p12,
+                           String p13,
+                           long p14,
+                           double p15,
+                           int p16,
+                           String p17,
+                           @Default("7L") long p18,
+                           double p19,
+                           int p20,
+                           String p21,
+                           long p22,
+                           double p23,
+                           @Required int p24,
+                           String p25,
+                           long p26,
+                           double p27,
+                           int p28,
+                           String p29,
+                           @Default("7L") long p30,
+                           double p31,
+                           int p32,
+                           String p33,
+                           long p34,
+                           double p35,
+                           @Required int p36,
+                           String p37,
+                           long p38,
+                           double p39,
+                           int p40,
+                           String p41,
+                           @Default("7L") long p42,
+                           double p43,
+                           int p44,
+                           String p45,
+                           long p46,
+                           double p47,
+                           @Required int p48,
+                           String p49,
+                           long p50,
+                           double p51,
+                           int p52,
+                           String p53,
+                           @Default("7L") long p54,
+                           double p55,
+                           int p56,
+                           String p57,
+                           long p58,
+                           double p59,
+                           @Required int p60,
+                           String p61,
+                           long p62,
+                           double p63,
+                           int p64,
+                           String p65,
+                           @Default("7L") long p66,
+                           double p67,
+                           int p68,
+                           String p69,
+                           long p70,
+                           double p71,
+                           @Required int p72,
+                           String p73,
+                           long p74,
+                           double p75,
+                           int p76,
+                           String p77,
+                           @Default("7L") long p78,
+                           double p79,
+                           int p80,
+                           String p81,
+                           long p82,
+                           double p83,
+                           @Required int p84,
+                           String p85,
+                           long p86,
+                           double p87,
+                           int p88,
+                           String p89,
+                           @Default("7L") long p90,
+                           double p91,
+                           int p92,
+                           String p93,
+                           long p94,
+                           double p95,
+                           @Required int p96,
+                           String p97,
+                           long p98,
+                           double p99,
+                           int p100,
+                           String p101,
+                           @Default("7L") long p102,
+                           double p103,
+                           int p104,
+                           String p105,
+                           long p106,
+                           double p107,
+                           @Required int p108,
+                           String p109,
+                           long p110,
+                           double p111,
+                           int p112,
+                           String p113,
+                           @Default("7L") long p114,
+                           double p115,
+                           int p116,
+                           String p117,
+                           long p118,
+                           double p119) {
+        return new Wide(p0, p1, p2, p3, p4, p5, p6, p7, p8, p9, p10, p11, p12, p13, p14, p15, p16, p17, p18, p19, p20, p21, p22, p23, p24, p25, p26, p27, p28, p29, p30, p31, p32, p33, p34, p35, p36, p37, p38, p39, p40, p41, p42, p43, p44, p45, p46, p47, p48, p49, p50, p51, p52, p53, p54, p55, p56, p57, p58, p59, p60, p61, p62, p63, p64, p65, p66, p67, p68, p69, p70, p71, p72, p73, p74, p75, p76, p77, p78, p79, p80, p81, p82, p83, p84, p85, p86, p87, p88, p89, p90, p91, p92, p93, p94, p95, p96, p97, p98, p99, p100, p101, p102, p103, p104, p105, p106, p107, p108, p109, p110, p111, p112, p113, p114, p115, p116, p117, p118, p119);
+    }
+
+    /**
+     * Hand-written equivalent of the generated {@code WideBuilder}.
+     */
+    public static final class HandBuilder {
+        private int p0;
+        private String p1;
+        private long p2;
+        private double p3;
+        private int p4;
+        private String p5;
+        private long p6 = 7L;
+        private double p7;
+        private int p8;
+        private String p9;
+        private long p10;
+        private double p11;
+        private int p12;
+        private String p13;
+        private long p14;
+        private double p15;
+        private int p16;
+        private String p17;
+        private long p18 = 7L;
+        private double p19;
+        private int p20;
+        private String p21;
+        private long p22;
+        private double p23;
+        private int p24;
+        private String p25;
+        private long p26;
+        private double p27;
+        private int p28;
+        private String p29;
+        private long p30 = 7L;
+        private double p31;
+        private int p32;
+        private String p33;
+        private long p34;
+        private double p35;
+        private int p36;
+        private String p37;
+        private long p38;
+        private double p39;
+        private int p40;
+        private String p41;
+        private long p42 = 7L;
+        private double p43;
+        private int p44;
+        private String p45;
+        private long p46;
+        private double p47;
+        private int p48;
+        private String p49;
+        private long p50;
+        private double p51;
+        private int p52;
+        private String p53;
+        private long p54 = 7L;
+        private double p55;
+        private int p56;
+        private String p57;
+        private long p58;
+        private double p59;
+        private int p60;
+        private String p61;
+        private long p62;
+        private double p63;
+        private int p64;
+        private String p65;
+        private long p66 = 7L;
+        private double p67;
+        private int p68;
+        private String p69;
+        private long p70;
+        private double p71;
+        private int p72;
+        private String p73;
+        private long p74;
+        private double p75;
+        private int p76;
+        private String p77;
+        private long p78 = 7L;
+        private double p79;
+        private int p80;
+        private String p81;
+        private long p82;
+        private double p83;
+        private int p84;
+        private String p85;
+        private long p86;
+        private double p87;
+        private int p88;
+        private String p89;
+        private long p90 = 7L;
+        private double p91;
+        private int p92;
+        private String p93;
+        private long p94;
+        private double p95;
+        private int p96;
+        private String p97;
+        private long p98;
+        private double p99;
+        private int p100;
+        private String p101;
+        private long p102 = 7L;
+        private double p103;
+        private int p104;
+        private String p105;
+        private long p106;
+        private double p107;
+        private int p108;
+        private String p109;
+        private long p110;
+        private double p111;
+        private int p112;
+        private String p113;
+        private long p114 = 7L;
+        private double p115;
+        private int p116;
+        private String p117;
+        private long p118;
+        private double p119;
+
+        public HandBuilder p0(int p0) {
+            this.p0 = p0;
+            return this;
+        }
+
+        public HandBuilder p1(String p1) {
+            this.p1 = p1;
+            return this;
+        }
+
+        public HandBuilder p2(long p2) {
+            this.p2 = p2;
+            return this;
+        }
+
+        public HandBuilder p3(double p3) {
+            this.p3 = p3;
+            return this;
+        }
+
+        public HandBuilder p4(int p4) {
+            this.p4 = p4;
+            return this;
+        }
+
+        public HandBuilder p5(String p5) {
+            this.p5 = p5;
+            return this;
+        }
+
+        public HandBuilder p6(long p6) {
+            this.p6 = p6;
+            return this;
+        }
+
+        public HandBuilder p7(double p7) {
+            this.p7 = p7;
+            return this;
+        }
+
+        public HandBuilder p8(int p8) {
+            this.p8 = p8;
+            return this;
+        }
+
+        public HandBuilder p9(String p9) {
+            this.p9 = p9;
+            return this;
+        }
+
+        public HandBuilder p10(long p10) {
+            this.p10 = p10;
+            return this;
+        }
+
+        public HandBuilder p11(double p11) {
+            this.p11 = p11;
+            return this;
+        }
+
+        public HandBuilder p12(int p12) {
+            this.p12 = p12;
+            return this;
+        }
+
+        public HandBuilder p13(String p13) {
+            this.p13 = p13;
+            return this;
+        }
+
+        public HandBuilder p14(long p14) {
+            this.p14 = p14;
+            return this;
+        }
+
+        public HandBuilder p15(double p15) {
+            this.p15 = p15;
+            return this;
+        }
+
+        public HandBuilder p16(int p16) {
+            this.p16 = p16;
+            return this;
+        }
+
+        public HandBuilder p17(String p17) {
+            this.p17 = p17;
+            return this;
+        }
+
+        public HandBuilder p18(long p18) {
+            this.p18 = p18;
+            return this;
+        }
+
+        public HandBuilder p19(double p19) {
+            this.p19 = p19;
+            return this;
+        }
+
+        public HandBuilder p20(int p20) {
+            this.p20 = p20;
+            return this;
+        }
+
+        public HandBuilder p21(String p21) {
+            this.p21 = p21;
+            return this;
+        }
+
+        public HandBuilder p22(long p22) {
+            this.p22 = p22;
+            return this;
+        }
+
+        public HandBuilder p23(double p23) {
+            this.p23 = p23;
+            return this;
+        }
+
+        public HandBuilder p24(int p24) {
+            this.p24 = p24;
+            return this;
+        }
+
+        public HandBuilder p25(String p25) {
+            this.p25 = p25;
+            return this;
+        }
+
+        public HandBuilder p26(long p26) {
+            this.p26 = p26;
+            return this;
+        }
+
+        public HandBuilder p27(double p27) {
+            this.p27 = p27;
+            return this;
+        }
+
+        public HandBuilder p28(int p28) {
+            this.p28 = p28;
+            return this;
+        }
+
+        public HandBuilder p29(String p29) {
+            this.p29 = p29;
+            return this;
+        }
+
+        public HandBuilder p30(long p30) {
+            this.p30 = p30;
+            return this;
+        }
+
+        public HandBuilder p31(double p31) {
+            this.p31 = p31;
+            return this;
+        }
+
+        public HandBuilder p32(int p32) {
+            this.p32 = p32;
+            return this;
+        }
+
+        public HandBuilder p33(String p33) {
+            this.p33 = p33;
+            return this;
+        }
+
+        public HandBuilder p34(long p34) {
+            this.p34 = p34;
+            return this;
+        }
+
+        public HandBuilder p35(double p35) {
+            this.p35 = p35;
+            return this;
+        }
+
+        public HandBuilder p36(int p36) {
+            this.p36 = p36;
+            return this;
+        }
+
+        public HandBuilder p37(String p37) {
+            this.p37 = p37;
+            return this;
+        }
+
+        public HandBuilder p38(long p38) {
+            this.p38 = p38;
+            return this;
+        }
+
+        public HandBuilder p39(double p39) {
+            this.p39 = p39;
+            return this;
+        }
+
+        public HandBuilder p40(int p40) {
+            this.p40 = p40;
+            return this;
+        }
+
+        public HandBuilder p41(String p41) {
+            this.p41 = p41;
+            return this;
+        }
+
+        public HandBuilder p42(long p42) {
+            this.p42 = p42;
+            return this;
+        }
+
+        public HandBuilder p43(double p43) {
+            this.p43 = p43;
+            return this;
+        }
+
+        public HandBuilder p44(int p44) {
+            this.p44 = p44;
+            return this;
+        }
+
+        public HandBuilder p45(String p45) {
+            this.p45 = p45;
+            return this;
+        }
+
+        public HandBuilder p46(long p46) {
+            this.p46 = p46;
+            return this;
+        }
+
+        public HandBuilder p47(double p47) {
+            this.p47 = p47;
+            return this;
+        }
+
+        public HandBuilder p48(int p48) {
+            this.p48 = p48;
+            return this;
+        }
+
+        public HandBuilder p49(String p49) {
+            this.p49 = p49;
+            return this;
+        }
+
+        public HandBuilder p50(long p50) {
+            this.p50 = p50;
+            return this;
+        }
+
+        public HandBuilder p51(double p51) {
+            this.p51 = p51;
+            return this;
+        }
+
+        public HandBuilder p52(int p52) {
+            this.p52 = p52;
+            return this;
+        }
+
+        public HandBuilder p53(String p53) {
+            this.p53 = p53;
+            return this;
+        }
+
+        public HandBuilder p54(long p54) {
+            this.p54 = p54;
+            return this;
+        }
+
+        public HandBuilder p55(double p55) {
+            this.p55 = p55;
+            return this;
+        }
+
+        public HandBuilder p56(int p56) {
+            this.p56 = p56;
+            return this;
+        }
+
+        public HandBuilder p57(String p57) {
+            this.p57 = p57;
+            return this;
+        }
+
+        public HandBuilder p58(long p58) {
+            this.p58 = p58;
+            return this;
+        }
+
+        public HandBuilder p59(double p59) {
+            this.p59 = p59;
+            return this;
+        }
+
+        public HandBuilder p60(int p60) {
+            this.p60 = p60;
+            return this;
+        }
+
+        public HandBuilder p61(String p61) {
+            this.p61 = p61;
+            return this;
+        }
+
+        public HandBuilder p62(long p62) {
+            this.p62 = p62;
+            return this;
+        }
+
+        public HandBuilder p63(double p63) {
+            this.p63 = p63;
+            return this;
+        }
+
+        public HandBuilder p64(int p64) {
+            this.p64 = p64;
+            return this;
+        }
+
+        public HandBuilder p65(String p65) {
+            this.p65 = p65;
+            return this;
+        }
+
+        public HandBuilder p66(long p66) {
+            this.p66 = p66;
+            return this;
+        }
+
+        public HandBuilder p67(double p67) {
+            this.p67 = p67;
+            return this;
+        }
+
+        public HandBuilder p68(int p68) {
+            this.p68 = p68;
+            return this;
+        }
+
+        public HandBuilder p69(String p69) {
+            this.p69 = p69;
+            return this;
+        }
+
+        public HandBuilder p70(long p70) {
+            this.p70 = p70;
+            return this;
+        }
+
+        public HandBuilder p71(double p71) {
+            this.p71 = p71;
+            return this;
+        }
+
+        public HandBuilder p72(int p72) {
+            this.p72 = p72;
+            return this;
+        }
+
+        public HandBuilder p73(String p73) {
+            this.p73 = p73;
+            return this;
+        }
+
+        public HandBuilder p74(long p74) {
+            this.p74 = p74;
+            return this;
+        }
+
+        public HandBuilder p75(double p75) {
+            this.p75 = p75;
+            return this;
+        }
+
+        public HandBuilder p76(int p76) {
+            this.p76 = p76;
+            return this;
+        }
+
+        public HandBuilder p77(String p77) {
+            this.p77 = p77;
+            return this;
+        }
+
+        public HandBuilder p78(long p78) {
+            this.p78 = p78;
+            return this;
+        }
+
+        public HandBuilder p79(double p79) {
+            this.p79 = p79;
+            return this;
+        }
+
+        public HandBuilder p80(int p80) {
+            this.p80 = p80;
+            return this;
+        }
+
+        public HandBuilder p81(String p81) {
+            this.p81 = p81;
+            return this;
+        }
+
+        public HandBuilder p82(long p82) {
+            this.p82 = p82;
+            return this;
+        }
+
+        public HandBuilder p83(double p83) {
+            this.p83 = p83;
+            return this;
+        }
+
+        public HandBuilder p84(int p84) {
+            this.p84 = p84;
+            return this;
+        }
+
+        public HandBuilder p85(String p85) {
+            this.p85 = p85;
+            return this;
+        }
+
+        public HandBuilder p86(long p86) {
+            this.p86 = p86;
+            return this;
+        }
+
+        public HandBuilder p87(double p87) {
+            this.p87 = p87;
+            return this;
+        }
+
+        public HandBuilder p88(int p88) {
+            this.p88 = p88;
+            return this;
+        }
+
+        public HandBuilder p89(String p89) {
+            this.p89 = p89;
+            return this;
+        }
+
+        public HandBuilder p90(long p90) {
+            this.p90 = p90;
+            return this;
+        }
+
+        public HandBuilder p91(double p91) {
+            this.p91 = p91;
+            return this;
+        }
+
+        public HandBuilder p92(int p92) {
+            this.p92 = p92;
+            return this;
+        }
+
+        public HandBuilder p93(String p93) {
+            this.p93 = p93;
+            return this;
+        }
+
+        public HandBuilder p94(long p94) {
+            this.p94 = p94;
+            return this;
+        }
+
+        public HandBuilder p95(double p95) {
+            this.p95 = p95;
+            return this;
+        }
+
+        public HandBuilder p96(int p96) {
+            this.p96 = p96;
+            return this;
+        }
+
+        public HandBuilder p97(String p97) {
+            this.p97 = p97;
+            return this;
+        }
+
+        public HandBuilder p98(long p98) {
+            this.p98 = p98;
+            return this;
+        }
+
+        public HandBuilder p99(double p99) {
+            this.p99 = p99;
+            return this;
+        }
+
+        public HandBuilder p100(int p100) {
+            this.p100 = p100;
+            return this;
+        }
+
+        public HandBuilder p101(String p101) {
+            this.p101 = p101;
+            return this;
+        }
+
+        public HandBuilder p102(long p102) {
+            this.p102 = p102;
+            return this;
+        }
+
+        public HandBuilder p103(double p103) {
+            this.p103 = p103;
+            return this;
+        }
+
+        public HandBuilder p104(int p104) {
+            this.p104 = p104;
+            return this;
+        }
+
+        public HandBuilder p105(String p105) {
+            this.p105 = p105;
+            return this;
+        }
+
+        public HandBuilder p106(long p106) {
+            this.p106 = p106;
+            return this;
+        }
+
+        public HandBuilder p107(double p107) {
+            this.p107 = p107;
+            return this;
+        }
+
+        public HandBuilder p108(int p108) {
+            this.p108 = p108;
+            return this;
+        }
+
+        public HandBuilder p109(String p109) {
+            this.p109 = p109;
+            return this;
+        }
+
+        public HandBuilder p110(long p110) {
+            this.p110 = p110;
+            return this;
+        }
+
+        public HandBuilder p111(double p111) {
+            this.p111 = p111;
+            return this;
+        }
+
+        public HandBuilder p112(int p112) {
+            this.p112 = p112;
+            return this;
+        }
+
+        public HandBuilder p113(String p113) {
+            this.p113 = p113;
+            return this;
+        }
+
+        public HandBuilder p114(long p114) {
+            this.p114 = p114;
+            return this;
+        }
+
+        public HandBuilder p115(double p115) {
+            this.p115 = p115;
+            return this;
+        }
+
+        public HandBuilder p116(int p116) {
+            this.p116 = p116;
+            return this;
+        }
+
+        public HandBuilder p117(String p117) {
+            this.p117 = p117;
+            return this;
+        }
+
+        public HandBuilder p118(long p118) {
+            this.p118 = p118;
+            return this;
+        }
+
+        public HandBuilder p119(double p119) {
+            this.p119 = p119;
+            return this;
+        }
+
+        public Wide build() {
+            return new Wide(p0, p1, p2, p3, p4, p5, p6, p7, p8, p9, p10, p11, p12, p13, p14, p15, p16, p17, p18, p19, p20, p21, p22, p23, p24, p25, p26, p27, p28, p29, p30, p31, p32, p33, p34, p35, p36, p37, p38, p39, p40, p41, p42, p43, p44, p45, p46, p47, p48, p49, p50, p51, p52, p53, p54, p55, p56, p57, p58, p59, p60, p61, p62, p63, p64, p65, p66, p67, p68, p69, p70, p71, p72, p73, p74, p75, p76, p77, p78, p79, p80, p81, p82, p83, p84, p85, p86, p87, p88, p89, p90, p91, p92, p93, p94, p95, p96, p97, p98, p99, p100, p101, p102, p103, p104, p105, p106, p107, p108, p109, p110, p111, p112, p113, p114, p115, p116, p117, p118, p119);
+        }
+    }
+}
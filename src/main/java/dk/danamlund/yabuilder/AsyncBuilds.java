@@ -0,0 +1,125 @@
+package dk.danamlund.yabuilder;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs builds of {@literal @}{@link Builder}{@code (async = true)} builders
+ * on an {@link Executor}, used by the generated {@code buildAsync} and
+ * {@code buildAll} methods.
+ */
+public final class AsyncBuilds {
+    private static final Executor DEFAULT_EXECUTOR = createDefaultExecutor();
+
+    private AsyncBuilds() { }
+
+    /**
+     * A new virtual thread per build on Java 21 and later, otherwise a cached
+     * pool of daemon threads. Builds that block on I/O should not run in the
+     * common fork-join pool.
+     *
+     * @return The executor of builds without an explicit executor.
+     */
+    public static Executor defaultExecutor() {
+        return DEFAULT_EXECUTOR;
+    }
+
+    private static Executor createDefaultExecutor() {
+        try {
+            Method virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtual.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "yabuilder-async");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Run every build with at most {@code maxConcurrency} of them at a time.
+     * The result completes with the results in the order of {@code builds},
+     * or exceptionally with the first failure, after which no more builds are
+     * started.
+     *
+     * @param <T> The target.
+     * @param builds The builds, each calls the target once.
+     * @param maxConcurrency The maximum number of builds running at a time.
+     * @param executor Runs the builds.
+     * @return The results in order.
+     */
+    public static <T> CompletableFuture<List<T>> all(List<? extends Supplier<? extends T>> builds,
+                                                     int maxConcurrency, Executor executor) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1: "
+                                               + maxConcurrency);
+        }
+        Batch<T> batch = new Batch<T>(builds, executor);
+        if (builds.isEmpty()) {
+            batch.result.complete(new ArrayList<T>());
+        }
+        for (int i = 0; i < Math.min(maxConcurrency, builds.size()); i++) {
+            batch.start();
+        }
+        return batch.result;
+    }
+
+    /**
+     * Each of at most maxConcurrency tasks runs unstarted builds one after
+     * another until none are left. A loop rather than a new task per build, so
+     * an executor that runs tasks in the calling thread does not recurse.
+     */
+    private static final class Batch<T> {
+        final List<? extends Supplier<? extends T>> builds;
+        final Executor executor;
+        final Object[] results;
+        final AtomicInteger started = new AtomicInteger();
+        final AtomicInteger completed = new AtomicInteger();
+        final CompletableFuture<List<T>> result = new CompletableFuture<>();
+
+        Batch(List<? extends Supplier<? extends T>> builds, Executor executor) {
+            this.builds = builds;
+            this.executor = executor;
+            this.results = new Object[builds.size()];
+        }
+
+        void start() {
+            if (result.isDone() || started.get() >= results.length) {
+                return;
+            }
+            try {
+                executor.execute(this::run);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void run() {
+            while (!result.isDone()) {
+                int index = started.getAndIncrement();
+                if (index >= results.length) {
+                    return;
+                }
+                try {
+                    results[index] = builds.get(index).get();
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                    return;
+                }
+                if (completed.incrementAndGet() == results.length) {
+                    result.complete((List<T>) Arrays.asList(results));
+                }
+            }
+        }
+    }
+}
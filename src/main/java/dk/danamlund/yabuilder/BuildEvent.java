@@ -0,0 +1,52 @@
+package dk.danamlund.yabuilder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A Java Flight Recorder event of a build of a builder generated with
+ * {@literal @}Builder(events = true).
+ * <p>
+ * The generated {@code build} begins the event before it calls the target and
+ * fills it in only if {@link #shouldCommit()}, so without a recording, or for
+ * builds shorter than the threshold, the event is an empty object that C2
+ * removes. Change the threshold with {@code dk.danamlund.yabuilder.Build#threshold}
+ * in the recording settings.
+ */
+@Name("dk.danamlund.yabuilder.Build")
+@Label("Build")
+@Category("yabuilder")
+@Description("A build of a generated builder, the constructor or static method it calls")
+@Threshold("10 ms")
+@StackTrace(true)
+public final class BuildEvent extends Event {
+    @Label("Builder")
+    @Description("Qualified name of the generated builder")
+    private String builder;
+
+    @Label("Target")
+    @Description("The constructor, as the qualified class name, or Class.method")
+    private String target;
+
+    @Label("Parameters Set")
+    @Description("The optional parameters that were set, separated by commas")
+    private String parametersSet;
+
+    /**
+     * Fill in the event before {@link #commit()}.
+     *
+     * @param builder Qualified name of the generated builder.
+     * @param target The qualified class name of a constructor, or {@code Class.method}.
+     * @param parametersSet The optional parameters that were set, separated by commas.
+     */
+    public void set(String builder, String target, String parametersSet) {
+        this.builder = builder;
+        this.target = target;
+        this.parametersSet = parametersSet;
+    }
+}
@@ -34,6 +34,11 @@ import java.lang.annotation.Target;
  * Parameters annotated with {@code @Default("java.time.LocalDate.of(2016, 3, 21)")} will 
  * have the argument as value if not set in the builder. <br>
  * <p>
+ * With {@code @Builder(fluent = true)} the builder is used without a lambda:
+ * <pre>
+ *     Usage a = UsageBuilder.build(UsageBuilder.start().id(42));
+ * </pre>
+ * <p>
  * Constructors annotated with @Builder must:
  * <ul>
  * <li>Not be {@code private}.
@@ -72,4 +77,318 @@ public @interface Builder {
      * @return The name of the generated Builder class.
      */
     String value() default "";
+
+    /**
+     * Generate a lambda-free {@code build(start()...)} chain instead of
+     * {@code build(Function)}.
+     * <p>
+     * {@code XBuilder.start()} returns a new builder and the static
+     * {@code XBuilder.build(builder)} creates the object. The generated class
+     * is final and only holds the parameter fields, so the JIT can
+     * scalar-replace the builder when the chain is inlined.
+     * <p>
+     * Forgetting a {@code @Required} parameter is still a compile-time error,
+     * {@code build} only accepts a builder whose type arguments are all
+     * {@code Good}:
+     * {@code incompatible types: XBuilder<MissingId> cannot be converted to XBuilder<Good>}.
+     *
+     * @return Whether to generate {@code start()} and {@code build(builder)}.
+     */
+    boolean fluent() default false;
+
+    /**
+     * Reuse one builder per thread instead of allocating a builder per build.
+     * <p>
+     * {@code build(Function)} takes the builder of the current thread and
+     * {@code reset()}s it, instead of creating a new builder. A {@code build}
+     * nested inside the function of another {@code build} of the same builder
+     * falls back to a new builder.
+     * <p>
+     * With {@link #fluent()}, {@code XBuilder.pooled()} returns the builder of
+     * the current thread directly, it is released again by
+     * {@code build(builder)}. A generation counter detects when it is handed
+     * out again before being built, for example when an earlier one was never
+     * built, and {@code pooled()} falls back to a new builder. The pooled
+     * builder has the fields {@code generation} and {@code releasedGeneration},
+     * so parameters cannot have those names.
+     * <p>
+     * Every generated builder, except {@link #staged()} ones, has
+     * {@code reset()}, which restores all parameters to their
+     * {@literal @}{@link Default} or zero values.
+     *
+     * @return Whether to generate {@code pooled()} and reuse builders.
+     */
+    boolean pooled() default false;
+
+    /**
+     * Generate {@code XBuilder.columns(Function)} for building many objects at once.
+     * <p>
+     * Every parameter can be set to a column, an array with one value per row,
+     * or to a single value used for all rows:
+     * <pre>
+     *     List&lt;Usage&gt; all = UsageBuilder.columns(c{@literal ->} c.id(ids).name("foo"))
+     *                                         .buildList();
+     * </pre>
+     * {@code buildArray()} and {@code buildList()} call the constructor or
+     * static method once per row, without creating a builder per row.
+     * {@code @Required} parameters are checked at compile-time like in the
+     * normal builder. All columns must have the same length, {@code rows(int)}
+     * sets the number of rows when no parameter is set to a column. A
+     * {@literal @}{@link Default} that is not a literal is evaluated for every
+     * row that does not set the parameter, so each row gets its own
+     * {@code new ArrayList<>()}.
+     *
+     * @return Whether to generate {@code columns(Function)}.
+     */
+    boolean columns() default false;
+
+    /**
+     * Generate a chain of staged interfaces instead of one type variable per
+     * {@code @Required} parameter or {@code @RequiredOneOf} group.
+     * <p>
+     * There is one interface per required parameter or group, in declaration
+     * order, whose setters return the next interface. The last interface,
+     * {@code BuildStage}, has the optional parameters and {@code build()}:
+     * <pre>
+     *     Usage a = UsageBuilder.build(b{@literal ->} b.id(42).name("foo"));
+     * </pre>
+     * Forgetting a required parameter is still a compile-time error, but the
+     * builder is not generic, so type-checking a call site grows linearly with
+     * the number of required parameters and errors name the missing stage:
+     * {@code UsageBuilder.IdStage cannot be converted to UsageBuilder.BuildStage}.
+     * Required parameters must be set in declaration order. Works with
+     * {@link #fluent()}, not with {@link #pooled()} or {@link #columns()}.
+     *
+     * @return Whether to generate staged interfaces.
+     */
+    boolean staged() default false;
+
+    /**
+     * Use the shared {@link Good} and {@link Missing} markers instead of
+     * generating a nested {@code Good} class and one nested {@code Missing*}
+     * class per {@code @Required} parameter or {@code @RequiredOneOf} group.
+     * <p>
+     * Saves those classes in the output and the jar. The markers are only type
+     * arguments and are never loaded at runtime, so startup and metaspace are
+     * the same in both modes.
+     * <p>
+     * Forgetting a required parameter is still a compile-time error, but it
+     * is positional:
+     * {@code UsageBuilder<Good, Missing> cannot be converted to UsageBuilder<Good, Good>}.
+     * The type variables of the builder, {@code UsageBuilder<MISSINGID, MISSINGNAME>},
+     * say which parameter each position belongs to.
+     *
+     * @return Whether to use the shared markers.
+     */
+    boolean compact() default false;
+
+    /**
+     * Generate {@code XBuilder.from(existing, Function)} for changing some
+     * parameters of an existing object:
+     * <pre>
+     *     Usage b = UsageBuilder.from(a, build{@literal ->} build.name("other"));
+     * </pre>
+     * The builder starts with every parameter read from {@code existing}, so
+     * all {@code @Required} parameters are already set and only the changes
+     * are given. For each parameter {@code name} the first accessible one of
+     * {@code name()}, {@code getName()}, {@code isName()} and the field
+     * {@code name} of the constructed or returned class is used, it is a
+     * compile error if there is none. With {@link #fluent()} it is
+     * {@code XBuilder.build(XBuilder.from(existing).name("other"))}.
+     * <p>
+     * Not with {@link #staged()}.
+     *
+     * @return Whether to generate {@code from}.
+     */
+    boolean from() default false;
+
+    /**
+     * Count builds, optional setter calls and adder calls separately in a
+     * {@link BuilderMetrics}, also available over JMX. A sample of the builds
+     * of a static method is also timed. Turn it on for every builder with
+     * {@code -Ayabuilder.defaults=metrics}.
+     * <p>
+     * {@code columns()} is not counted.
+     *
+     * @return Whether to count builds.
+     */
+    boolean metrics() default false;
+
+    /**
+     * Generate {@code XBuilder.dynamic()}, a {@link DynamicBuilder} that sets
+     * parameters by name or ordinal, for decoders:
+     * <pre>
+     *     XBuilder.Dynamic b = XBuilder.dynamic();
+     *     b.setInt(XBuilder.Dynamic.ID, 42).set("name", "foo");
+     *     X x = b.build();
+     * </pre>
+     * {@code XBuilder.Dynamic} has an {@code int} constant per parameter
+     * ordinal, {@code ID} for {@code id}, and the lists
+     * {@code PARAMETER_NAMES} and {@code PARAMETER_TYPES}. Required parameters
+     * are only checked by {@code build()}, which throws
+     * {@link IllegalStateException} naming every missing one. It does not use
+     * {@literal @}{@link Intern}.
+     *
+     * @return Whether to generate {@code dynamic()}.
+     */
+    boolean dynamic() default false;
+
+    /**
+     * Generate {@code XBuilder.stream(source, fill)} and
+     * {@code XBuilder.collector(fill)}, which turn records into targets with
+     * one builder per split of the stream instead of one builder and one
+     * lambda per record:
+     * <pre>
+     *     List&lt;Usage&gt; usages = rows.parallelStream()
+     *         .collect(UsageBuilder.collector((b, row){@literal ->} b.id(row.id).name(row.name)));
+     * </pre>
+     * {@code fill} gets the builder reset to its defaults for every record.
+     * {@code collector(fill, downstream)} collects the targets with another
+     * collector, never concurrently as each container has its own builder.
+     * Not with {@link #staged()} or void methods.
+     *
+     * @return Whether to generate {@code stream} and {@code collector}.
+     */
+    boolean streams() default false;
+
+    /**
+     * Generate {@code buildAsync} and {@code buildAll}, which call the target
+     * on an {@link java.util.concurrent.Executor} for targets that block, for
+     * example factories that do I/O:
+     * <pre>
+     *     CompletableFuture&lt;Connection&gt; c = ConnectBuilder.buildAsync(b{@literal ->} b.host(host));
+     *     CompletableFuture&lt;List&lt;Connection&gt;&gt; all = ConnectBuilder.buildAll(configs, 16);
+     * </pre>
+     * The parameters are read on the calling thread. {@code buildAll} calls
+     * the target with at most {@code maxConcurrency} builds at a time and
+     * completes with the results in order. Without an executor the builds
+     * run on {@link AsyncBuilds#defaultExecutor()}, virtual threads where the
+     * runtime has them. Not with {@link #staged()}.
+     *
+     * @return Whether to generate {@code buildAsync} and {@code buildAll}.
+     */
+    boolean async() default false;
+
+    /**
+     * Generate element adders for {@code List}, {@code Collection},
+     * {@code Set}, {@code Map} and array parameters:
+     * <pre>
+     *     UsageBuilder.build(b{@literal ->} b.id(1).tagsCapacity(2).addTag("a").addTag("b")
+     *                              .putAttribute("k", "v"));
+     * </pre>
+     * The builder owns the storage the elements are added to, and the target
+     * gets an unmodifiable view of it without a copy. The storage starts with
+     * the elements set before, none for a {@literal @}{@link Default} that is
+     * not a literal. Arrays, including primitive arrays and varargs, are
+     * growable arrays without boxing that also get {@code addIds(int...)},
+     * and are trimmed to their size unless they are full. {@code build()}
+     * hands the storage off, adding to the builder afterwards starts new
+     * storage with a copy of the elements. {@code tagsCapacity(n)} sizes the
+     * storage for {@code n} elements. Not with {@link #staged()} or
+     * {@link Intern}.
+     *
+     * @return Whether to generate adders.
+     */
+    boolean adders() default false;
+
+    /**
+     * Generate a builder without type variables for targets with many
+     * {@literal @}{@link Required} parameters. {@code build()} checks that every
+     * required parameter and {@literal @}{@link RequiredOneOf} group was set,
+     * with one compare per 64 of them, and throws an
+     * {@link IllegalStateException} naming all missing ones:
+     * <pre>
+     *     UsageBuilder: missing id, one of heightInCm, heightInFeet
+     * </pre>
+     * A missing parameter is no longer a compile-time error, but the setter
+     * signatures stay small no matter how many parameters are required, so
+     * the builder compiles faster and its class files are much smaller. Not
+     * with {@link #staged()} or {@link #columns()}.
+     *
+     * @return Whether to check the required parameters at runtime.
+     */
+    boolean runtimeChecked() default false;
+
+    /**
+     * Generate {@code XBuilder.template(b -> ...)}, or {@code template()} on
+     * fluent builders, which freezes the parameters set so far for building
+     * many similar targets:
+     * <pre>
+     *     UsageBuilder.Template template = UsageBuilder.template(b{@literal ->} b.name("x").tags(tags));
+     *     for (int i = 0; i &lt; n; i++) {
+     *         usages.add(template.build(b{@literal ->} b.id(i)));
+     *     }
+     * </pre>
+     * Defaults that are not literals are evaluated once by {@code template}.
+     * Every {@code build} copies the frozen parameters into a new builder,
+     * required parameters set by the template stay set. A template is
+     * immutable and can be shared between threads. Not with
+     * {@link #staged()}.
+     *
+     * @return Whether to generate {@code template}.
+     */
+    boolean templates() default false;
+
+    /**
+     * Record every build as a {@link BuildEvent} in Java Flight Recorder,
+     * with the builder, the target, the duration and the optional parameters
+     * that were set. Only builds longer than the threshold of the event are
+     * recorded, 10 ms unless the recording sets
+     * {@code dk.danamlund.yabuilder.Build#threshold}. With a threshold of
+     * {@code 0 ms} the stack traces of the events show where builders are
+     * used most. Turn it on for every builder with
+     * {@code -Ayabuilder.defaults=events}.
+     * <p>
+     * Without a recording the event is never filled in and C2 removes it.
+     * The builder needs {@code jdk.jfr}, Java 11 or later, at runtime.
+     * {@code columns()} is not recorded.
+     *
+     * @return Whether to record build events.
+     */
+    boolean events() default false;
+
+    /**
+     * Generate {@code XBuilder.rows(capacity)} and {@code XBuilder.rows(buffer)},
+     * which stage many rows of parameters outside the heap and build only the
+     * rows that are needed:
+     * <pre>
+     *     XBuilder.Rows rows = XBuilder.rows(1_000_000);
+     *     rows.add(b{@literal ->} b.id(1).score(0.5));
+     *     for (int i = 0; i &lt; rows.size(); i++) {
+     *         if (rows.score(i) &gt; 0.9) {
+     *             survivors.add(rows.build(i));
+     *         }
+     *     }
+     * </pre>
+     * Every row has the same layout in a {@link java.nio.ByteBuffer}, a direct
+     * buffer that is grown as needed or one given by the caller, such as a
+     * memory-mapped file. Primitive parameters are stored in place, sorted by
+     * size; references are stored as indexes into a side table on the heap.
+     * Each parameter has a reader, {@code rows.score(i)}, to filter rows
+     * without creating them. A {@code Rows} is used by one thread at a time.
+     * Its builds are not interned, counted by {@link #metrics()} or recorded by
+     * {@link #events()}. Not with {@link #staged()} or {@link #runtimeChecked()}.
+     *
+     * @return Whether to generate {@code rows}.
+     */
+    boolean offHeap() default false;
+
+    /**
+     * Generate {@code XBuilder.lazy(b -> ...)}, or {@code XBuilder.lazy(builder)}
+     * on fluent builders, which reads the parameters now and calls the target
+     * on the first {@code get()} of the returned {@link LazyBuild}:
+     * <pre>
+     *     Supplier&lt;Pool&gt; pool = PoolBuilder.lazy(b{@literal ->} b.url(url).size(32));
+     *     ...
+     *     pool.get().borrow();
+     * </pre>
+     * The target is called at most once, later calls return the same result,
+     * so expensive targets that a code path may not use cost nothing there.
+     * The supplier can be shared between threads. Defaults that are not
+     * literals are evaluated by the first {@code get()}. Not with
+     * {@link #staged()} or void methods.
+     *
+     * @return Whether to generate {@code lazy}.
+     */
+    boolean lazy() default false;
 }
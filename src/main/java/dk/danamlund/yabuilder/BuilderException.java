@@ -0,0 +1,17 @@
+package dk.danamlund.yabuilder;
+
+import javax.lang.model.element.Element;
+
+/**
+ * A {@literal @}Builder that cannot be generated, reported as a compile error on the element.
+ */
+class BuilderException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    final transient Element e;
+
+    BuilderException(Element e, String msg) {
+        super(msg);
+        this.e = e;
+    }
+}
@@ -0,0 +1,209 @@
+package dk.danamlund.yabuilder;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Build counters of a builder generated with {@literal @}Builder(metrics = true).
+ * <p>
+ * Every counter is a {@link LongAdder}, so builders used by many threads do not
+ * contend on a shared cache line. Each generated builder registers its metrics
+ * once, in a static initializer, here and as a {@link BuilderMetricsMXBean} with
+ * the platform MBean server.
+ * <p>
+ * {@code System.nanoTime()} can cost more than a whole build, so only one in
+ * {@value #TIMING_SAMPLE} builds of a static method is timed, chosen at random per
+ * thread.
+ */
+public final class BuilderMetrics implements BuilderMetricsMXBean {
+    /** One in this many builds is timed, a power of two. */
+    public static final int TIMING_SAMPLE = 64;
+
+    private static final ConcurrentMap<String, BuilderMetrics> REGISTRY =
+        new ConcurrentHashMap<>();
+
+    private final String builder;
+    private final String[] parameters;
+    private final LongAdder builds = new LongAdder();
+    private final LongAdder timedBuilds = new LongAdder();
+    private final LongAdder buildNanos = new LongAdder();
+    private final LongAdder[] sets;
+    private final LongAdder[] adds;
+
+    private BuilderMetrics(String builder, String[] parameters) {
+        this.builder = builder;
+        this.parameters = parameters.clone();
+        this.sets = new LongAdder[parameters.length];
+        this.adds = new LongAdder[parameters.length];
+        for (int i = 0; i < sets.length; i++) {
+            sets[i] = new LongAdder();
+            adds[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Register the metrics of a generated builder, replacing earlier metrics of a
+     * builder with the same name, for example from another class loader.
+     *
+     * @param builder Qualified name of the generated builder.
+     * @param parameters Names of the optional parameters, in the order of
+     *     {@link #set(int)} and {@link #add(int)}.
+     */
+    public static BuilderMetrics register(String builder, String... parameters) {
+        BuilderMetrics metrics = new BuilderMetrics(builder, parameters);
+        REGISTRY.put(builder, metrics);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("dk.danamlund.yabuilder:type=BuilderMetrics,name="
+                                             + ObjectName.quote(builder));
+            synchronized (BuilderMetrics.class) {
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+                server.registerMBean(metrics, name);
+            }
+        } catch (JMException | SecurityException ex) {
+            // Still available from of() and all()
+        }
+        return metrics;
+    }
+
+    /**
+     * The metrics of a builder, or null if it has not been loaded.
+     *
+     * @param builder Qualified name of the generated builder.
+     */
+    public static BuilderMetrics of(String builder) {
+        return REGISTRY.get(builder);
+    }
+
+    /** The metrics of every loaded builder, sorted by name. */
+    public static Collection<BuilderMetrics> all() {
+        List<BuilderMetrics> all = new ArrayList<>(REGISTRY.values());
+        all.sort((a, b) -> a.builder.compareTo(b.builder));
+        return Collections.unmodifiableList(all);
+    }
+
+    /** Count a build of a constructor. */
+    public void build() {
+        builds.increment();
+    }
+
+    /**
+     * The start of a build of a static method, {@code System.nanoTime()} if this
+     * build is timed, else 0.
+     */
+    public long startBuild() {
+        if ((ThreadLocalRandom.current().nextInt() & (TIMING_SAMPLE - 1)) == 0) {
+            return System.nanoTime();
+        }
+        return 0L;
+    }
+
+    /** Count a build of a static method that started at {@link #startBuild()}. */
+    public void build(long start) {
+        builds.increment();
+        if (start != 0L) {
+            buildNanos.add(System.nanoTime() - start);
+            timedBuilds.increment();
+        }
+    }
+
+    /** Count a call of the setter of optional parameter {@code parameter}. */
+    public void set(int parameter) {
+        sets[parameter].increment();
+    }
+
+    /**
+     * Count a call of an adder of optional parameter {@code parameter}, kept
+     * apart from the sets as a build may call it many times.
+     */
+    public void add(int parameter) {
+        adds[parameter].increment();
+    }
+
+    @Override
+    public String getBuilder() {
+        return builder;
+    }
+
+    @Override
+    public long getBuilds() {
+        return builds.sum();
+    }
+
+    @Override
+    public long getTimedBuilds() {
+        return timedBuilds.sum();
+    }
+
+    @Override
+    public long getBuildNanos() {
+        return buildNanos.sum();
+    }
+
+    @Override
+    public double getMeanBuildNanos() {
+        long timedBuilds = getTimedBuilds();
+        return timedBuilds == 0 ? 0.0 : (double) getBuildNanos() / timedBuilds;
+    }
+
+    @Override
+    public Map<String, Long> getParameterSets() {
+        Map<String, Long> parameterSets = new LinkedHashMap<>();
+        for (int i = 0; i < parameters.length; i++) {
+            parameterSets.put(parameters[i], sets[i].sum());
+        }
+        return parameterSets;
+    }
+
+    @Override
+    public Map<String, Long> getParameterAdds() {
+        Map<String, Long> parameterAdds = new LinkedHashMap<>();
+        for (int i = 0; i < parameters.length; i++) {
+            parameterAdds.put(parameters[i], adds[i].sum());
+        }
+        return parameterAdds;
+    }
+
+    @Override
+    public Map<String, Double> getParameterSetRates() {
+        long builds = getBuilds();
+        Map<String, Double> rates = new LinkedHashMap<>();
+        for (int i = 0; i < parameters.length; i++) {
+            rates.put(parameters[i], builds == 0 ? 0.0 : (double) sets[i].sum() / builds);
+        }
+        return rates;
+    }
+
+    @Override
+    public void reset() {
+        builds.reset();
+        timedBuilds.reset();
+        buildNanos.reset();
+        for (LongAdder set : sets) {
+            set.reset();
+        }
+        for (LongAdder add : adds) {
+            add.reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BuilderMetrics[" + builder + ", builds=" + getBuilds() + ", meanBuildNanos="
+            + getMeanBuildNanos() + ", parameterSets=" + getParameterSets() + "]";
+    }
+}
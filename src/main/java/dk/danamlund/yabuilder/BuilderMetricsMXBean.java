@@ -0,0 +1,44 @@
+package dk.danamlund.yabuilder;
+
+import java.util.Map;
+
+/**
+ * The JMX view of {@link BuilderMetrics}, registered as
+ * {@code dk.danamlund.yabuilder:type=BuilderMetrics,name=<builder>}.
+ */
+public interface BuilderMetricsMXBean {
+    /** Qualified name of the generated builder. */
+    String getBuilder();
+
+    /** Number of {@code build()} calls. */
+    long getBuilds();
+
+    /**
+     * Number of builds of the static method that were timed, one in
+     * {@link BuilderMetrics#TIMING_SAMPLE}, 0 for constructors.
+     */
+    long getTimedBuilds();
+
+    /** Total nanoseconds of the timed builds. */
+    long getBuildNanos();
+
+    /** Average nanoseconds per timed build of the static method, 0 for constructors. */
+    double getMeanBuildNanos();
+
+    /** Number of times each optional parameter was set, by name. */
+    Map<String, Long> getParameterSets();
+
+    /**
+     * Number of calls of the adders of each optional parameter, by name, with
+     * {@literal @}Builder(adders = true). Not counted as sets.
+     */
+    Map<String, Long> getParameterAdds();
+
+    /**
+     * Fraction of builds that set each optional parameter, by name. A parameter
+     * with a {@literal @}Default that is close to 1 is effectively always overridden.
+     */
+    Map<String, Double> getParameterSetRates();
+
+    void reset();
+}
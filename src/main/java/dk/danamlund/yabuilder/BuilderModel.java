@@ -0,0 +1,1013 @@
+package dk.danamlund.yabuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+
+/**
+ * Everything needed to generate one builder, extracted once from a {@literal @}{@link Builder}
+ * constructor or static method.
+ * <p>
+ * The model is immutable and only holds strings, enums and other models, never
+ * {@code javax.lang.model} objects. All the generics strings used by the generated
+ * signatures are computed once, so generating a builder is linear in the size of
+ * its output.
+ */
+final class BuilderModel {
+    /** The last staged interface, with the optional parameters and {@code build()}. */
+    static final String BUILD_STAGE = "BuildStage";
+    /** The parameter name and type lists of dynamic builders. */
+    static final String DYNAMIC_NAMES = "PARAMETER_NAMES";
+    static final String DYNAMIC_TYPES = "PARAMETER_TYPES";
+
+    final String packageName;
+    final String builderName;
+    final String builderQualifiedName;
+    /** Qualified name of the constructed class or of the static method. */
+    final String targetQualifiedName;
+    /** Type of the constructed object, or return type of the static method. */
+    final String returnType;
+    final TypeKind returnKind;
+    /** Boxed return type for generics, same as returnType when not primitive. */
+    final String boxedReturnType;
+    /** Whether {@code new returnType[n]} compiles. */
+    final boolean canCreateArray;
+    final boolean constructor;
+
+    final boolean fluent;
+    final boolean pooled;
+    final boolean columns;
+    final boolean staged;
+    final boolean compact;
+    final boolean from;
+    final boolean metrics;
+    final boolean dynamic;
+    final boolean streams;
+    final boolean async;
+    final boolean adders;
+    /**
+     * {@literal @}Builder(runtimeChecked = true), no type variables, the markers are
+     * bits of {@code requiredSet0, requiredSet1, ...} checked by {@code build()}.
+     */
+    final boolean runtimeChecked;
+    final boolean templates;
+    /**
+     * {@literal @}Builder(events = true), the set optional parameters are bits of
+     * {@code optionalSet0, optionalSet1, ...} by their metrics index.
+     */
+    final boolean events;
+    /**
+     * {@literal @}Builder(offHeap = true), each row is {@code rowBytes} in a
+     * {@code ByteBuffer}, the parameters at their {@code offset}.
+     */
+    final boolean offHeap;
+    final int rowBytes;
+    /**
+     * {@literal @}Builder(lazy = true), not to be confused with {@link Param#lazy},
+     * a default that is not a literal.
+     */
+    final boolean lazyBuild;
+    /** Whether there is an {@literal @}{@link Intern}, and its attributes. */
+    final boolean intern;
+    final int internMaxSize;
+    final boolean internWeakValues;
+    /** The set marker, nested {@code Good} or the shared {@link dk.danamlund.yabuilder.Good}. */
+    final String goodMarker;
+
+    final List<Param> params;
+    /** The parameters of each {@literal @}RequiredOneOf group, by group name. */
+    private final Map<String, List<Param>> groups;
+    /** The parameters of each marker, by marker index. */
+    final List<List<Param>> markerParams;
+    /** Number of optional parameters, the metrics indexes are below it. */
+    final int optionals;
+    /** Names of the Missing* marker classes, one per required parameter or group. */
+    final List<String> markers;
+    /** Names of the staged interfaces, one per marker, {@code IdStage, OneOfNameStage}. */
+    final List<String> stages;
+
+    /** The builders type variables, {@code <MISSINGID, MISSINGNAME>}. */
+    final String classGenerics;
+    /**
+     * Every type variable is missing, {@code <MissingId, MissingName>}, or
+     * {@code <Missing, Missing>} with the shared markers of compact builders.
+     */
+    final String notSetGenerics;
+    /** Every type variable is set, {@code <Good, Good>}. */
+    final String isSetGenerics;
+    /** {@code <?, ?>}. */
+    final String wildcardGenerics;
+
+    /** The backing storage of the element adders of a parameter. */
+    enum Adder {
+        LIST("java.util.ArrayList", "unmodifiableList"),
+        SET("java.util.LinkedHashSet", "unmodifiableSet"),
+        MAP("java.util.LinkedHashMap", "unmodifiableMap"),
+        ARRAY(null, null);
+
+        /** The class of the buffer, null for arrays. */
+        final String buffer;
+        /** The {@code java.util.Collections} method of the view of the buffer. */
+        final String view;
+
+        Adder(String buffer, String view) {
+            this.buffer = buffer;
+            this.view = view;
+        }
+    }
+
+    static final class Param {
+        /** Position in {@link BuilderModel#params}. */
+        final int index;
+        final String name;
+        final String type;
+        final TypeKind kind;
+        /** The erased type, for {@code type.class}. */
+        final String erasure;
+        /** The {@literal @}Default value as written, null if none. */
+        final String defaultValue;
+        /** The {@literal @}Default value as a java expression, null if none. */
+        final String initialValue;
+        /** {@literal @}Default(constant = true), evaluated once into {@link #constantName}. */
+        final boolean constant;
+        /**
+         * A {@literal @}Default that is neither a literal nor constant, evaluated by
+         * {@code build()} unless {@code nameSet}.
+         */
+        final boolean lazy;
+        /** The value of an unset field, {@code 0}, {@code false} or {@code null}. */
+        final String zeroValue;
+        final boolean required;
+        /** The {@literal @}RequiredOneOf group, null if none. */
+        final String group;
+        /** Index into {@link BuilderModel#markers}, -1 if optional. */
+        final int marker;
+        /** The builders type after calling this setter. */
+        final String setterGenerics;
+        /**
+         * How {@code from(existing)} reads this parameter from the target,
+         * {@code name()}, {@code getName()} or {@code name}, null without from.
+         */
+        final String accessor;
+        /**
+         * Index of an optional parameter into the setter counters of metrics and the
+         * set bits of events, else -1.
+         */
+        final int metricsIndex;
+        /** With {@literal @}Builder(offHeap = true), the offset in a row, else -1. */
+        final int offset;
+        /** With {@literal @}Builder(adders = true), the storage of the adders, else null. */
+        final Adder adder;
+        /** The elements or map keys or array components, with an adder. */
+        final String elementType;
+        /** The map values, with a MAP adder. */
+        final String valueType;
+        /** {@code addTag} or {@code putAttribute}, with an adder. */
+        final String adderName;
+        /** {@code addIds(int...)} of array adders, null if it would overload {@link #adderName}. */
+        final String arrayAdderName;
+
+        /**
+         * Without the setter generics and the offset, which need every parameter,
+         * see {@link #Param(Param, String, int)}.
+         */
+        Param(int index, String name, String type, TypeKind kind, String erasure, String defaultValue,
+              boolean constant, boolean required, String group, int marker, String accessor,
+              int metricsIndex, Adder adder, String elementType, String valueType) {
+            this.index = index;
+            this.name = name;
+            this.type = type;
+            this.kind = kind;
+            this.erasure = erasure;
+            this.defaultValue = defaultValue;
+            if (defaultValue != null && type.equals("java.lang.String")) {
+                this.initialValue = '"' + defaultValue + '"';
+            } else {
+                this.initialValue = defaultValue;
+            }
+            this.zeroValue = zeroValue(kind);
+            this.constant = constant && defaultValue != null;
+            this.lazy = defaultValue != null && !constant && !isLiteral(initialValue);
+            this.required = required;
+            this.group = group;
+            this.marker = marker;
+            this.accessor = accessor;
+            this.metricsIndex = metricsIndex;
+            this.adder = adder;
+            this.elementType = adder == null ? null : elementType;
+            this.valueType = adder == Adder.MAP ? valueType : null;
+            this.adderName = adder == null
+                ? null : (adder == Adder.MAP ? "put" : "add") + upcaseWord(singular(name));
+            this.arrayAdderName = adder == Adder.ARRAY && !adderName.equals("add" + upcaseWord(name))
+                ? "add" + upcaseWord(name) : null;
+            this.setterGenerics = null;
+            this.offset = -1;
+        }
+
+        /** A copy of {@code from} with its setter generics and off-heap offset. */
+        Param(Param from, String setterGenerics, int offset) {
+            this.index = from.index;
+            this.name = from.name;
+            this.type = from.type;
+            this.kind = from.kind;
+            this.erasure = from.erasure;
+            this.defaultValue = from.defaultValue;
+            this.initialValue = from.initialValue;
+            this.constant = from.constant;
+            this.lazy = from.lazy;
+            this.zeroValue = from.zeroValue;
+            this.required = from.required;
+            this.group = from.group;
+            this.marker = from.marker;
+            this.accessor = from.accessor;
+            this.metricsIndex = from.metricsIndex;
+            this.adder = from.adder;
+            this.elementType = from.elementType;
+            this.valueType = from.valueType;
+            this.adderName = from.adderName;
+            this.arrayAdderName = from.arrayAdderName;
+            this.setterGenerics = setterGenerics;
+            this.offset = offset;
+        }
+
+        boolean hasDefault() {
+            return defaultValue != null;
+        }
+
+        boolean hasAdder() {
+            return adder != null;
+        }
+
+        boolean isMandatory() {
+            return marker >= 0;
+        }
+
+        boolean isRequiredOneOf() {
+            return group != null;
+        }
+
+        /** {@code DEFAULT_NAME}, the static field of a constant default. */
+        String getConstantName() {
+            return "DEFAULT_" + getOrdinalName();
+        }
+
+        /** {@code NAME_OFFSET}, the offset constant of off-heap rows. */
+        String getOffsetName() {
+            return getOrdinalName() + "_OFFSET";
+        }
+
+        /** {@code NAME}, the ordinal constant of dynamic builders. */
+        String getOrdinalName() {
+            return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+        }
+
+        /** The value of the field after {@code reset()}, lazy defaults are not evaluated. */
+        String getResetValue() {
+            if (constant) {
+                return getConstantName();
+            }
+            return hasDefault() && !lazy ? initialValue : zeroValue;
+        }
+
+        /**
+         * The field as an argument of the target, a lazy default is evaluated
+         * here if the field was not set.
+         */
+        String getArgument(String prefix) {
+            if (lazy) {
+                return "(" + prefix + name + "Set ? " + prefix + name + " : " + initialValue + ")";
+            }
+            return prefix + name;
+        }
+    }
+
+    private BuilderModel(ExecutableElement ee, ProcessingEnvironment env, Set<String> defaults)
+        throws BuilderException {
+        packageName = getPackage(ee);
+        String className = getClassName(ee);
+        String eeName;
+        if (ee.getKind().equals(ElementKind.CONSTRUCTOR)) {
+            constructor = true;
+            eeName = String.valueOf(ee.getEnclosingElement().getSimpleName());
+            // Outer.Inner for nested classes, the builder is a top-level class
+            returnType = className;
+            returnKind = TypeKind.DECLARED;
+            targetQualifiedName = (packageName.isEmpty() ? "" : packageName + ".") + className;
+        } else {
+            constructor = false;
+            eeName = className + "." + ee.getSimpleName();
+            returnType = String.valueOf(ee.getReturnType());
+            returnKind = ee.getReturnType().getKind();
+            targetQualifiedName = (packageName.isEmpty() ? "" : packageName + ".") + eeName;
+        }
+        TypeMirror eeReturnType = ee.getReturnType();
+        if (!constructor && returnKind.isPrimitive()) {
+            boxedReturnType = String.valueOf(env.getTypeUtils()
+                                             .boxedClass((PrimitiveType) eeReturnType)
+                                             .getQualifiedName());
+        } else {
+            boxedReturnType = returnType;
+        }
+        // Generic array creation is not allowed
+        canCreateArray = constructor
+            || (returnKind != TypeKind.TYPEVAR && returnKind != TypeKind.VOID
+                && !returnType.contains("<"));
+
+        AnnotationMirror builderAnno = getAnnotation(ee, Builder.class);
+        String name = getString(builderAnno, "value", "");
+        builderName = name.isEmpty() ? eeName.replace(".", "_") + "Builder" : name;
+        builderQualifiedName = (packageName.isEmpty() ? "" : packageName + ".") + builderName;
+        fluent = getBoolean(builderAnno, "fluent", defaults);
+        pooled = getBoolean(builderAnno, "pooled", defaults);
+        columns = getBoolean(builderAnno, "columns", defaults);
+        staged = getBoolean(builderAnno, "staged", defaults);
+        compact = getBoolean(builderAnno, "compact", defaults);
+        from = getBoolean(builderAnno, "from", defaults);
+        metrics = getBoolean(builderAnno, "metrics", defaults);
+        dynamic = getBoolean(builderAnno, "dynamic", defaults);
+        streams = getBoolean(builderAnno, "streams", defaults);
+        if (streams && (staged || returnKind == TypeKind.VOID || returnKind == TypeKind.TYPEVAR)) {
+            throw new BuilderException(ee, "@Builder(streams = true) requires a non-staged builder "
+                                       + "of a constructor or a method returning a class");
+        }
+        async = getBoolean(builderAnno, "async", defaults);
+        if (async && (staged || returnKind == TypeKind.TYPEVAR)) {
+            throw new BuilderException(ee, "@Builder(async = true) requires a non-staged builder "
+                                       + "of a constructor or a method not returning a type variable");
+        }
+        adders = getBoolean(builderAnno, "adders", defaults);
+        if (adders && staged) {
+            throw new BuilderException(ee, "@Builder(adders = true) cannot be combined with staged");
+        }
+        if (from && staged) {
+            throw new BuilderException(ee, "@Builder(from = true) cannot be combined with staged");
+        }
+        AnnotationMirror internAnno = getAnnotation(ee, Intern.class);
+        intern = internAnno != null;
+        internMaxSize = intern ? getInt(internAnno, "maxSize", 10_000) : 0;
+        internWeakValues = intern && getBoolean(internAnno, "weakValues", Collections.<String>emptySet());
+        if (intern) {
+            if (returnKind == TypeKind.VOID) {
+                throw new BuilderException(ee, "@Intern requires a constructor or a static method "
+                                           + "returning a value");
+            }
+            if (returnKind == TypeKind.TYPEVAR) {
+                throw new BuilderException(ee, "@Intern cannot cache a type variable return type");
+            }
+            if (staged) {
+                throw new BuilderException(ee, "@Intern cannot be combined with @Builder(staged = true)");
+            }
+            if (adders) {
+                throw new BuilderException(ee, "@Intern cannot be combined with "
+                                           + "@Builder(adders = true)");
+            }
+            if (internMaxSize < 1) {
+                throw new BuilderException(ee, "@Intern(maxSize) must be at least 1");
+            }
+        }
+        DeclaredType fromType = null;
+        if (from) {
+            if (constructor) {
+                fromType = (DeclaredType) ee.getEnclosingElement().asType();
+            } else if (returnKind == TypeKind.DECLARED) {
+                fromType = (DeclaredType) ee.getReturnType();
+            } else {
+                throw new BuilderException(ee, "@Builder(from = true) requires a constructor or "
+                                           + "a static method returning a class");
+            }
+        }
+        goodMarker = compact ? Good.class.getName() : "Good";
+        if (staged && (pooled || columns)) {
+            throw new BuilderException(ee, "@Builder(staged = true) cannot be combined "
+                                       + "with pooled or columns");
+        }
+        templates = getBoolean(builderAnno, "templates", defaults);
+        events = getBoolean(builderAnno, "events", defaults);
+        if (templates && staged) {
+            throw new BuilderException(ee, "@Builder(templates = true) cannot be combined with staged");
+        }
+        runtimeChecked = getBoolean(builderAnno, "runtimeChecked", defaults);
+        if (runtimeChecked && (staged || columns)) {
+            throw new BuilderException(ee, "@Builder(runtimeChecked = true) cannot be combined "
+                                       + "with staged or columns");
+        }
+        offHeap = getBoolean(builderAnno, "offHeap", defaults);
+        if (offHeap && (staged || runtimeChecked || returnKind == TypeKind.VOID
+                        || returnKind == TypeKind.TYPEVAR)) {
+            throw new BuilderException(ee, "@Builder(offHeap = true) requires a non-staged, "
+                                       + "non-runtimeChecked builder of a constructor or a "
+                                       + "method returning a class");
+        }
+        lazyBuild = getBoolean(builderAnno, "lazy", defaults);
+        if (lazyBuild && (staged || returnKind == TypeKind.VOID || returnKind == TypeKind.TYPEVAR)) {
+            throw new BuilderException(ee, "@Builder(lazy = true) requires a non-staged builder "
+                                       + "of a constructor or a method returning a class");
+        }
+
+        // Parameters, markers and groups in declaration order
+        List<Param> params = new ArrayList<>();
+        List<String> markers = new ArrayList<>();
+        Map<String, Integer> groupMarkers = new LinkedHashMap<>();
+        Map<String, Integer> groupSizes = new LinkedHashMap<>();
+        int optionals = 0;
+        for (VariableElement parameter : ee.getParameters()) {
+            String pName = String.valueOf(parameter.getSimpleName());
+            TypeMirror pType = parameter.asType();
+            AnnotationMirror defaultAnno = getAnnotation(parameter, Default.class);
+            AnnotationMirror oneOfAnno = getAnnotation(parameter, RequiredOneOf.class);
+            boolean required = getAnnotation(parameter, Required.class) != null;
+            String group = oneOfAnno == null ? null : getString(oneOfAnno, "value", "");
+            int marker = -1;
+            if (required) {
+                marker = markers.size();
+                markers.add("Missing" + upcaseWord(pName));
+            } else if (group != null) {
+                Integer groupMarker = groupMarkers.get(group);
+                if (groupMarker == null) {
+                    groupMarker = markers.size();
+                    groupMarkers.put(group, groupMarker);
+                    markers.add("MissingOneOf" + upcaseWord(group));
+                }
+                marker = groupMarker;
+            }
+            String defaultValue = (required || group != null || defaultAnno == null)
+                ? null : getString(defaultAnno, "value", null);
+            boolean constant = defaultValue != null
+                && getBoolean(defaultAnno, "constant", Collections.<String>emptySet());
+            if (constant && pType.getKind() == TypeKind.TYPEVAR) {
+                throw new BuilderException(parameter, "@Default(constant = true) cannot be "
+                                           + "used on a type variable");
+            }
+            String accessor = null;
+            if (fromType != null) {
+                accessor = findAccessor(env, fromType, pName, pType);
+                if (accessor == null) {
+                    throw new BuilderException(parameter, "@Builder(from = true) found no accessible "
+                                               + pName + "(), get" + upcaseWord(pName) + "(), is"
+                                               + upcaseWord(pName) + "() or field " + pName
+                                               + " of type " + pType + " in " + fromType);
+                }
+            }
+            String erasure = String.valueOf(env.getTypeUtils().erasure(pType));
+            Adder adder = adders ? getAdder(pType, erasure) : null;
+            params.add(new Param(params.size(), pName, String.valueOf(pType), pType.getKind(),
+                                 erasure, defaultValue, constant, required, group, marker, accessor,
+                                 marker < 0 ? optionals++ : -1, adder,
+                                 adder == null ? null : getElementType(pType),
+                                 adder == Adder.MAP ? getValueType(pType) : null));
+            if (group != null) {
+                Integer size = groupSizes.get(group);
+                groupSizes.put(group, size == null ? 1 : size + 1);
+            }
+        }
+
+        for (Map.Entry<String, Integer> entry : groupSizes.entrySet()) {
+            if (entry.getValue() <= 1) {
+                throw new BuilderException(ee, "@RequiredOneOf(\"" + entry.getKey() +
+                                           "\") must be on at least two parameters.");
+            }
+        }
+
+        if (params.isEmpty()) {
+            throw new BuilderException(ee, "@Builder method must have parameters");
+        }
+        if (adders) {
+            Set<String> names = new HashSet<>();
+            for (Param param : params) {
+                names.add(param.name);
+            }
+            for (Param param : params) {
+                if (param.hasAdder() && (names.contains(param.adderName)
+                                         || names.contains(param.arrayAdderName)
+                                         || names.contains(param.name + "Capacity"))) {
+                    throw new BuilderException(ee, "@Builder(adders = true) cannot name the adders of "
+                                               + param.name + " " + param.adderName + " and "
+                                               + param.name + "Capacity, a parameter has the name");
+                }
+            }
+        }
+        if (intern) {
+            for (Param param : params) {
+                // The builder and the Key keep the hash of the parameters in a field hash
+                if (param.name.equals("hash")) {
+                    throw new BuilderException(ee, "@Intern cannot have a parameter named hash");
+                }
+            }
+        }
+        if (pooled) {
+            for (Param param : params) {
+                if (param.name.equals("generation") || param.name.equals("releasedGeneration")) {
+                    throw new BuilderException(ee, "@Builder(pooled = true) cannot have a "
+                                               + "parameter named " + param.name);
+                }
+            }
+        }
+        if (dynamic) {
+            Set<String> ordinalNames = new HashSet<>(Arrays.asList(DYNAMIC_NAMES, DYNAMIC_TYPES));
+            for (Param param : params) {
+                if (!ordinalNames.add(param.getOrdinalName())) {
+                    throw new BuilderException(ee, "@Builder(dynamic = true) cannot name the "
+                                               + "ordinal of " + param.name + " "
+                                               + param.getOrdinalName() + ", it is taken");
+                }
+            }
+        }
+
+        this.optionals = optionals;
+        int[] offsets = new int[params.size()];
+        Arrays.fill(offsets, -1);
+        this.rowBytes = offHeap ? layoutRow(ee, params, offsets) : 0;
+        this.markers = Collections.unmodifiableList(markers);
+        List<String> stages = new ArrayList<>(markers.size());
+        for (String marker : markers) {
+            stages.add(marker.substring("Missing".length()) + "Stage");
+        }
+        this.stages = Collections.unmodifiableList(stages);
+        if (staged && stages.contains(BUILD_STAGE)) {
+            throw new BuilderException(ee, "@Builder(staged = true) cannot have a required "
+                                       + "parameter named build");
+        }
+
+        String[] typeVariables = new String[runtimeChecked ? 0 : markers.size()];
+        for (int i = 0; i < typeVariables.length; i++) {
+            typeVariables[i] = markers.get(i).toUpperCase();
+        }
+        classGenerics = generics(typeVariables, null, null);
+        notSetGenerics = compact || runtimeChecked
+            ? generics(typeVariables, Missing.class.getName(), null)
+            : generics(markers.toArray(new String[0]), null, null);
+        isSetGenerics = generics(typeVariables, goodMarker, null);
+        wildcardGenerics = generics(typeVariables, "?", null);
+        String[] setterGenerics = new String[markers.size()];
+        List<Param> completed = new ArrayList<>(params.size());
+        Map<String, List<Param>> groups = new LinkedHashMap<>();
+        List<List<Param>> markerParams = new ArrayList<>(markers.size());
+        for (int i = 0; i < markers.size(); i++) {
+            markerParams.add(new ArrayList<Param>());
+        }
+        for (Param param : params) {
+            String generics = classGenerics;
+            if (param.isMandatory()) {
+                if (setterGenerics[param.marker] == null) {
+                    setterGenerics[param.marker] = generics(typeVariables, null, param.marker);
+                }
+                generics = setterGenerics[param.marker];
+            }
+            Param complete = new Param(param, generics, offsets[param.index]);
+            completed.add(complete);
+            if (param.isMandatory()) {
+                markerParams.get(param.marker).add(complete);
+            }
+            if (param.group != null) {
+                List<Param> group = groups.get(param.group);
+                if (group == null) {
+                    group = new ArrayList<>();
+                    groups.put(param.group, group);
+                }
+                group.add(complete);
+            }
+        }
+        this.params = Collections.unmodifiableList(completed);
+        for (Map.Entry<String, List<Param>> entry : groups.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        this.groups = Collections.unmodifiableMap(groups);
+        for (int i = 0; i < markerParams.size(); i++) {
+            markerParams.set(i, Collections.unmodifiableList(markerParams.get(i)));
+        }
+        this.markerParams = Collections.unmodifiableList(markerParams);
+    }
+
+    /** The parameters in the same {@literal @}RequiredOneOf group as {@code param}, including it. */
+    List<Param> getGroupParams(Param param) {
+        return param.group == null ? Collections.<Param>emptyList() : groups.get(param.group);
+    }
+
+    /**
+     * Validate and extract the builder of a {@literal @}Builder constructor or static method.
+     *
+     * @param defaults The boolean {@literal @}Builder attributes that are true unless
+     *     set explicitly, see {@link BuilderProcessor#DEFAULTS_OPTION}.
+     */
+    static BuilderModel of(ExecutableElement ee, ProcessingEnvironment env, Set<String> defaults)
+        throws BuilderException {
+        if (ee.getKind().equals(ElementKind.METHOD)) {
+            if (ee.getModifiers().contains(Modifier.PRIVATE)
+                || !ee.getModifiers().contains(Modifier.STATIC)) {
+                throw new BuilderException(ee, "@Builder method must be static non-private");
+            }
+        }
+
+        for (Element p = ee; p != null; p = p.getEnclosingElement()) {
+            if (p.getKind() == ElementKind.CLASS
+                && p.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new BuilderException(ee, "@Builder methods parent classes " +
+                                           "must not be private");
+            }
+        }
+
+        return new BuilderModel(ee, env, defaults);
+    }
+
+    boolean hasMandatorys() {
+        return !markers.isEmpty();
+    }
+
+    /** {@code a, b}. */
+    static String getNames(List<Param> params) {
+        StringBuilder sb = new StringBuilder();
+        for (Param param : params) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(param.name);
+        }
+        return sb.toString();
+    }
+
+    /** Whether the builder has type variables, one per marker. */
+    boolean hasPhantomTypes() {
+        return hasMandatorys() && !runtimeChecked;
+    }
+
+    /** The required parameter or {@code one of a, b} of each marker, for error messages. */
+    List<String> getMarkerNames() {
+        List<String> names = new ArrayList<>(markers.size());
+        for (List<Param> marked : markerParams) {
+            names.add(marked.get(0).isRequiredOneOf()
+                      ? "one of " + getNames(marked) : marked.get(0).name);
+        }
+        return names;
+    }
+
+    /** The staged interface returned by {@code start()} or given to {@code build(Function)}. */
+    String firstStage() {
+        return stages.isEmpty() ? BUILD_STAGE : stages.get(0);
+    }
+
+    /** The staged interface after setting a parameter of {@code marker}. */
+    String nextStage(int marker) {
+        return marker + 1 < stages.size() ? stages.get(marker + 1) : BUILD_STAGE;
+    }
+
+    /**
+     * The fields of the builder as arguments of the target: {@code prefix.id, prefix.name}.
+     */
+    String getArguments(String prefix) {
+        StringBuilder sb = new StringBuilder();
+        for (Param param : params) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(param.getArgument(prefix));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Estimated bytes of a builder instance on a 64-bit JVM with compressed
+     * references: a 12 byte header, the fields, and padding to 8 bytes.
+     * Not the buffers of the adders, only the references to them.
+     */
+    int estimateInstanceSize() {
+        int size = 12;
+        for (Param param : params) {
+            size += fieldSize(param.kind);
+            if (param.lazy) {
+                size += 1;
+            }
+            if (param.adder == Adder.ARRAY) {
+                // The buffer and its size
+                size += 4 + 4;
+            } else if (param.adder != null) {
+                size += 4;
+            }
+        }
+        if (runtimeChecked) {
+            size += 8 * ((markers.size() + 63) / 64);
+        }
+        if (events) {
+            size += 8 * ((optionals + 63) / 64);
+        }
+        if (pooled) {
+            size += 8;
+        }
+        if (intern) {
+            size += 4;
+        }
+        return (size + 7) & ~7;
+    }
+
+    /**
+     * The offsets of the parameters in an off-heap row, largest first so every
+     * value is aligned, references as int indexes into a side table.
+     *
+     * @return The bytes of a row, a multiple of the largest value.
+     */
+    private static int layoutRow(ExecutableElement ee, List<Param> params, int[] offsets)
+        throws BuilderException {
+        // The reader of each parameter is name(int row), next to build(int row)
+        // and the private methods of Rows and Row, and a setter rows would clash
+        // with the static rows of the builder. Fields are read through this.
+        List<String> methods = Arrays.asList("base", "build", "index", "object", "rows", "start");
+        for (Param param : params) {
+            if (methods.contains(param.name)) {
+                throw new BuilderException(ee, "@Builder(offHeap = true) cannot have a "
+                                           + "parameter named " + param.name);
+            }
+        }
+        Set<String> offsetNames = new HashSet<>();
+        int offset = 0;
+        int largest = 1;
+        for (int size = 8; size >= 1; size /= 2) {
+            for (Param param : params) {
+                if (fieldSize(param.kind) == size) {
+                    if (!offsetNames.add(param.getOffsetName())) {
+                        throw new BuilderException(ee, "@Builder(offHeap = true) cannot name the "
+                                                   + "offset of " + param.name + " "
+                                                   + param.getOffsetName() + ", it is taken");
+                    }
+                    offsets[param.index] = offset;
+                    offset += size;
+                    largest = Math.max(largest, size);
+                }
+            }
+        }
+        return (offset + largest - 1) / largest * largest;
+    }
+
+    private static int fieldSize(TypeKind kind) {
+        switch (kind) {
+        case BOOLEAN:
+        case BYTE: return 1;
+        case CHAR:
+        case SHORT: return 2;
+        case LONG:
+        case DOUBLE: return 8;
+        default: return 4;
+        }
+    }
+
+    boolean hasConstants() {
+        for (Param param : params) {
+            if (param.constant) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@code <A, B, C>} with all replaced by {@code replaceAll} or only the one at
+     * {@code good} replaced by the good marker.
+     */
+    private String generics(String[] names, String replaceAll, Integer good) {
+        if (names.length == 0) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(names.length * (names[0].length() + 2));
+        sb.append("<");
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            if (replaceAll != null) {
+                sb.append(replaceAll);
+            } else if (good != null && good == i) {
+                sb.append(goodMarker);
+            } else {
+                sb.append(names[i]);
+            }
+        }
+        sb.append(">");
+        return sb.toString();
+    }
+
+    /**
+     * The first of {@code name()}, {@code getName()}, {@code isName()} and field
+     * {@code name} of {@code type}, including inherited ones, that is not static,
+     * is accessible from the builder and is assignable to the parameter.
+     */
+    private String findAccessor(ProcessingEnvironment env, DeclaredType type, String name,
+                                TypeMirror paramType) {
+        TypeElement typeElement = (TypeElement) type.asElement();
+        List<? extends Element> members = env.getElementUtils().getAllMembers(typeElement);
+        for (String method : Arrays.asList(name, "get" + upcaseWord(name), "is" + upcaseWord(name))) {
+            for (Element member : members) {
+                if (member.getKind() == ElementKind.METHOD
+                    && member.getSimpleName().contentEquals(method)
+                    && ((ExecutableElement) member).getParameters().isEmpty()
+                    && isAccessible(env, member)
+                    && env.getTypeUtils().isAssignable(
+                           ((ExecutableType) env.getTypeUtils().asMemberOf(type, member))
+                           .getReturnType(), paramType)) {
+                    return method + "()";
+                }
+            }
+        }
+        for (Element member : members) {
+            if (member.getKind() == ElementKind.FIELD
+                && member.getSimpleName().contentEquals(name)
+                && isAccessible(env, member)
+                && env.getTypeUtils().isAssignable(env.getTypeUtils().asMemberOf(type, member),
+                                                   paramType)) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    private boolean isAccessible(ProcessingEnvironment env, Element member) {
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        // Also requires the class to be accessible, as for the target itself
+        return modifiers.contains(Modifier.PUBLIC) || getPackage(member).equals(packageName);
+    }
+
+    /**
+     * Adders for {@code List}, {@code Collection}, {@code Set} and {@code Map}
+     * parameters and for arrays that can be created, {@code new T[n]}, which
+     * includes every primitive array.
+     */
+    private static Adder getAdder(TypeMirror type, String erasure) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            TypeMirror component = ((ArrayType) type).getComponentType();
+            if (component.getKind().isPrimitive()
+                || (component.getKind() == TypeKind.DECLARED
+                    && ((DeclaredType) component).getTypeArguments().isEmpty())) {
+                return Adder.ARRAY;
+            }
+        } else if (type.getKind() == TypeKind.DECLARED) {
+            Adder adder = null;
+            if (erasure.equals("java.util.List") || erasure.equals("java.util.Collection")) {
+                adder = Adder.LIST;
+            } else if (erasure.equals("java.util.Set")) {
+                adder = Adder.SET;
+            } else if (erasure.equals("java.util.Map")) {
+                adder = Adder.MAP;
+                if (getValueType(type) == null) {
+                    return null;
+                }
+            }
+            if (adder != null && getElementType(type) != null) {
+                return adder;
+            }
+        }
+        return null;
+    }
+
+    /** The components of an array or the elements or keys of a collection or map, as adders. */
+    private static String getElementType(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return String.valueOf(((ArrayType) type).getComponentType());
+        }
+        List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+        return arguments.isEmpty() ? "java.lang.Object" : bound(arguments.get(0));
+    }
+
+    /** The values of a map, as adders. */
+    private static String getValueType(TypeMirror type) {
+        List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+        return arguments.isEmpty() ? "java.lang.Object" : bound(arguments.get(1));
+    }
+
+    /**
+     * The elements of a buffer that can be viewed as a collection of {@code type},
+     * null for {@code ? super} since the existing elements cannot be copied in.
+     */
+    private static String bound(TypeMirror type) {
+        if (type.getKind() == TypeKind.WILDCARD) {
+            WildcardType wildcard = (WildcardType) type;
+            if (wildcard.getExtendsBound() != null) {
+                return String.valueOf(wildcard.getExtendsBound());
+            }
+            return wildcard.getSuperBound() != null ? null : "java.lang.Object";
+        }
+        return String.valueOf(type);
+    }
+
+    /** {@code tags} to {@code tag}, {@code entries} to {@code entry}, {@code data} stays. */
+    static String singular(String name) {
+        if (name.endsWith("ies") && name.length() > 3) {
+            return name.substring(0, name.length() - 3) + "y";
+        } else if (name.matches(".*(ss|x|ch|sh)es")) {
+            return name.substring(0, name.length() - 2);
+        } else if (name.endsWith("s") && !name.endsWith("ss") && name.length() > 1) {
+            return name.substring(0, name.length() - 1);
+        }
+        return name;
+    }
+
+    /**
+     * Whether a default is cheap enough to be a field initializer: a number, char,
+     * string, boolean or null literal.
+     */
+    private static boolean isLiteral(String expression) {
+        String e = expression.trim();
+        return e.matches("-?[0-9][0-9a-fA-FxXbBlLfFdD_.+-]*")
+            || e.matches("'(\\\\.|[^'\\\\])+'")
+            || e.matches("\"(\\\\.|[^\"\\\\])*\"")
+            || e.equals("true") || e.equals("false") || e.equals("null");
+    }
+
+    private static String zeroValue(TypeKind kind) {
+        switch (kind) {
+        case BOOLEAN: return "false";
+        case BYTE: return "(byte) 0";
+        case CHAR: return "(char) 0";
+        case DOUBLE: return "0.0";
+        case FLOAT: return "0.0f";
+        case INT: return "0";
+        case LONG: return "0L";
+        case SHORT: return "(short) 0";
+        default: return "null";
+        }
+    }
+
+    private static String upcaseWord(String s) {
+        return s.substring(0, 1).toUpperCase() + s.substring(1);
+    }
+
+    static AnnotationMirror getAnnotation(Element e, Class<?> annotation) {
+        for (AnnotationMirror anno : e.getAnnotationMirrors()) {
+            TypeElement annoElement = (TypeElement) anno.getAnnotationType().asElement();
+            if (annoElement.getQualifiedName().contentEquals(annotation.getName())) {
+                return anno;
+            }
+        }
+        return null;
+    }
+
+    static String getString(AnnotationMirror anno, String name, String defaultValue) {
+        AnnotationValue value = getValue(anno, name);
+        return value == null ? defaultValue : String.valueOf(value.getValue());
+    }
+
+    /**
+     * The value of a boolean attribute, or whether {@code defaults} contains it when
+     * it is not set explicitly.
+     */
+    static boolean getBoolean(AnnotationMirror anno, String name, Set<String> defaults) {
+        AnnotationValue value = getValue(anno, name);
+        return value == null ? defaults.contains(name) : Boolean.TRUE.equals(value.getValue());
+    }
+
+    static int getInt(AnnotationMirror anno, String name, int defaultValue) {
+        AnnotationValue value = getValue(anno, name);
+        return value == null ? defaultValue : ((Number) value.getValue()).intValue();
+    }
+
+    private static AnnotationValue getValue(AnnotationMirror anno, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                 : anno.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String getPackage(Element e) {
+        while (!(e instanceof PackageElement)) {
+            e = e.getEnclosingElement();
+        }
+        return String.valueOf(((PackageElement) e).getQualifiedName());
+    }
+
+    private static String getClassName(Element e) {
+        while (!(e instanceof TypeElement)) {
+            e = e.getEnclosingElement();
+        }
+        String qName = String.valueOf(((TypeElement) e).getQualifiedName());
+        String pName = getPackage(e);
+        if (!pName.isEmpty()) {
+            return qName.substring(pName.length() + 1);
+        } else {
+            return qName;
+        }
+    }
+}
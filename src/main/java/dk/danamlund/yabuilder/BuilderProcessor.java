@@ -1,33 +1,38 @@
 package dk.danamlund.yabuilder;
 
+import dk.danamlund.yabuilder.BuilderModel.Param;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.function.Function;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.Completion;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.RoundEnvironment;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.Element;
-import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
-import javax.lang.model.element.Modifier;
-import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
-import javax.lang.model.type.TypeKind;
-import javax.lang.model.type.TypeMirror;
 import javax.tools.Diagnostic;
 import javax.tools.JavaFileObject;
 
@@ -37,6 +42,42 @@ import javax.tools.JavaFileObject;
  * @see dk.danamlund.yabuilder.Builder
  */
 public final class BuilderProcessor extends AbstractProcessor {
+    // Classes whose bytes are part of every fingerprint, so a new processor version
+    // regenerates all builders.
+    private static final List<Class<?>> GENERATOR_CLASSES = 
+        Arrays.asList(BuilderProcessor.class, BuilderModel.class, Param.class,
+                      BuilderRenderer.class);
+
+    /**
+     * Number of threads rendering builder sources in a round, defaults to the number of
+     * processors. {@code -Ayabuilder.parallelism=1} renders on the javac thread.
+     */
+    public static final String PARALLELISM_OPTION = "yabuilder.parallelism";
+
+    /**
+     * Comma separated boolean {@literal @}Builder attributes that are true for every
+     * builder that does not set them explicitly, for example
+     * {@code -Ayabuilder.defaults=fluent,compact}.
+     */
+    public static final String DEFAULTS_OPTION = "yabuilder.defaults";
+
+    /**
+     * File to write the time spent per round and per builder to, as JSON lines, for
+     * example {@code -Ayabuilder.stats=target/yabuilder-stats.jsonl}. It is
+     * overwritten by every compilation.
+     */
+    public static final String STATS_OPTION = "yabuilder.stats";
+
+    private static final List<String> DEFAULTABLE_ATTRIBUTES =
+        Arrays.asList("fluent", "pooled", "columns", "staged", "compact", "metrics",
+                      "dynamic", "streams", "async",
+                      "adders", "runtimeChecked", "templates", "events", "offHeap", "lazy");
+
+    private String generatorFingerprint;
+    private int parallelism;
+    private Set<String> defaults = Collections.emptySet();
+    private Path statsFile;
+    private int round;
 
     @Override
     public Iterable<? extends Completion> getCompletions(Element element, 
@@ -50,12 +91,14 @@ public final class BuilderProcessor extends AbstractProcessor {
     public Set<String> getSupportedAnnotationTypes() {
         return new HashSet<>(Arrays.asList(Builder.class.getName(), 
                                            Required.class.getName(),
-                                           Default.class.getName()));
+                                           RequiredOneOf.class.getName(),
+                                           Default.class.getName(),
+                                           Intern.class.getName()));
     }
 
     @Override
     public Set<String> getSupportedOptions() {
-        return Collections.emptySet();
+        return new HashSet<>(Arrays.asList(PARALLELISM_OPTION, DEFAULTS_OPTION, STATS_OPTION));
     }
 
     @Override
@@ -66,6 +109,65 @@ public final class BuilderProcessor extends AbstractProcessor {
     @Override
     public void init(ProcessingEnvironment processingEnv) {
         super.init(processingEnv);
+        MessageDigest digest = newDigest();
+        for (Class<?> c : GENERATOR_CLASSES) {
+            String classFile = c.getName().substring(c.getName().lastIndexOf('.') + 1) + ".class";
+            try (InputStream in = c.getResourceAsStream(classFile)) {
+                if (in != null) {
+                    byte[] buffer = new byte[8192];
+                    for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                        digest.update(buffer, 0, read);
+                    }
+                }
+            } catch (IOException ex) {
+                // Only makes the fingerprint weaker
+            }
+        }
+        generatorFingerprint = toHex(digest.digest());
+
+        parallelism = Runtime.getRuntime().availableProcessors();
+        String parallelismOption = processingEnv.getOptions().get(PARALLELISM_OPTION);
+        if (parallelismOption != null) {
+            try {
+                parallelism = Integer.parseInt(parallelismOption.trim());
+            } catch (NumberFormatException ex) {
+                parallelism = 0;
+            }
+            if (parallelism < 1) {
+                error("-A" + PARALLELISM_OPTION + " must be a positive integer: "
+                      + parallelismOption, null);
+                parallelism = 1;
+            }
+        }
+
+        String defaultsOption = processingEnv.getOptions().get(DEFAULTS_OPTION);
+        if (defaultsOption != null && !defaultsOption.trim().isEmpty()) {
+            // Sorted, the defaults are part of every fingerprint
+            defaults = new TreeSet<>();
+            for (String attribute : defaultsOption.split(",")) {
+                if (DEFAULTABLE_ATTRIBUTES.contains(attribute.trim())) {
+                    defaults.add(attribute.trim());
+                } else {
+                    error("-A" + DEFAULTS_OPTION + " can only contain "
+                          + DEFAULTABLE_ATTRIBUTES + ": " + attribute.trim(), null);
+                }
+            }
+        }
+
+        String statsOption = processingEnv.getOptions().get(STATS_OPTION);
+        if (statsOption != null && !statsOption.trim().isEmpty()) {
+            statsFile = Paths.get(statsOption.trim());
+            try {
+                Files.write(statsFile, new byte[0]);
+            } catch (IOException ex) {
+                warning("-A" + STATS_OPTION + " cannot write " + statsFile + ": " + ex);
+                statsFile = null;
+            }
+        }
+    }
+
+    private void warning(String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, message);
     }
 
     private void error(String message, Element element) {
@@ -77,13 +179,13 @@ public final class BuilderProcessor extends AbstractProcessor {
                                   Class<? extends Annotation> hasAnnotation,
                                   Class<? extends Annotation> parentHasAnnotation,
                                   List<Class<? extends Annotation>> hasNotAnnotations) {
-        if (element.getEnclosingElement().getAnnotation(parentHasAnnotation) == null) {
+        if (BuilderModel.getAnnotation(element.getEnclosingElement(), parentHasAnnotation) == null) {
             error("@" + hasAnnotation.getSimpleName() + " require that its method have @"
                   + parentHasAnnotation.getSimpleName(), element);
         }
         if (!hasNotAnnotations.isEmpty()) {
             for (Class<? extends Annotation> hasNotAnnotation : hasNotAnnotations) {
-                if (element.getAnnotation(hasNotAnnotation) != null) {
+                if (BuilderModel.getAnnotation(element, hasNotAnnotation) != null) {
                     error("@" + hasAnnotation.getSimpleName() + " and @"
                           + hasNotAnnotation.getSimpleName()
                           + " cannot both be on the same parameter", element);
@@ -93,6 +195,7 @@ public final class BuilderProcessor extends AbstractProcessor {
     }
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        long scanStart = System.nanoTime();
         for (Element e : roundEnv.getElementsAnnotatedWith(Default.class)) {
             checkAnnotations(e, Default.class, Builder.class,
                              Arrays.asList(Required.class, RequiredOneOf.class));
@@ -105,404 +208,221 @@ public final class BuilderProcessor extends AbstractProcessor {
             checkAnnotations(e, RequiredOneOf.class, Builder.class,
                              Arrays.asList(Default.class, Required.class));
         }
+        for (Element e : roundEnv.getElementsAnnotatedWith(Intern.class)) {
+            if (BuilderModel.getAnnotation(e, Builder.class) == null) {
+                error("@Intern requires @Builder on the same constructor or method", e);
+            }
+        }
 
-        try {
-            for (Element e : roundEnv.getElementsAnnotatedWith(Builder.class)) {
-                if (e.getKind().equals(ElementKind.METHOD)) {
-                    if (e.getModifiers().contains(Modifier.PRIVATE)
-                        || !e.getModifiers().contains(Modifier.STATIC)) {
-                        throw new BuilderException(e, "@Builder method must be static non-private");
-                    }
-                }
-
-                for (Element p = e; p != null; p = p.getEnclosingElement()) {
-                    if (p.getKind() == ElementKind.CLASS
-                        && p.getModifiers().contains(Modifier.PRIVATE)) {
-                        throw new BuilderException(e, "@Builder methods parent classes " +
-                                                   "must not be private");
-                    }
-                }
+        Set<? extends Element> builders = roundEnv.getElementsAnnotatedWith(Builder.class);
+        long scanNanos = System.nanoTime() - scanStart;
 
+        // Extract models on the javac thread, javax.lang.model is not thread-safe
+        List<Job> jobs = new ArrayList<>();
+        int skipped = 0;
+        try {
+            for (Element e : builders) {
+                long modelStart = System.nanoTime();
                 ExecutableElement ee = (ExecutableElement) e;
-
-                final String eeName;
-                final String eeReturnType;
-                if (ee.getKind().equals(ElementKind.CONSTRUCTOR)) {
-                    eeName = String.valueOf(ee.getEnclosingElement().getSimpleName());
-                    eeReturnType = eeName;
+                BuilderModel model = BuilderModel.of(ee, processingEnv, defaults);
+                String fingerprint = getFingerprint(ee, model);
+                if (!isAlreadyGenerated(model.builderQualifiedName, fingerprint)) {
+                    Job job = new Job(ee, model, fingerprint);
+                    job.modelNanos = System.nanoTime() - modelStart;
+                    jobs.add(job);
                 } else {
-                    eeName = getClassName(ee) + "." + String.valueOf(ee.getSimpleName());
-                    eeReturnType = String.valueOf(ee.getReturnType());
-                }
-
-
-                // Find parameters and default values
-                BuilderParametersHelper param = new BuilderParametersHelper(e);
-            
-                for (Element parameter : ee.getParameters()) {
-                    if (ElementKind.PARAMETER.equals(parameter.getKind())) {
-                        String pName = String.valueOf(parameter.getSimpleName());
-                        TypeMirror pType = parameter.asType();
-                        if (parameter.getAnnotation(Required.class) != null) {
-                            param.addParameter(pName, pType);
-                        } else if (parameter.getAnnotation(RequiredOneOf.class) != null) {
-                            RequiredOneOf requiredOneOff = parameter.getAnnotation(RequiredOneOf.class);
-                            param.addParameter(pName, pType, requiredOneOff);
-                        } else {
-                            Default defaultAnno = parameter.getAnnotation(Default.class);
-                            param.addParameter(pName, pType, defaultAnno);
-                        }
-                    }
-                }
-
-                param.finishedAddingParameters();
-            
-                // Construct Builder class
-                try {
-                    String packageName = getPackage(ee);
-                    String className = getClassName(ee);
-
-                    Builder builderAnno = ee.getAnnotation(Builder.class);
-                    String builderName = builderAnno.value();
-                    if (builderName.isEmpty()) {
-                        builderName = eeName.replace(".", "_") + "Builder";
-                    }
-                    String builderQualifiedName = (packageName.isEmpty() ? "" : packageName + ".") 
-                        + builderName;
-                    JavaFileObject builderJava = processingEnv.getFiler()
-                        .createSourceFile(builderQualifiedName);
-                    try (PrintWriter writer = new PrintWriter(builderJava.openWriter())) {
-                        if (!packageName.isEmpty()) {
-                            writer.println("package " + packageName + ";");
-                        }
-                        writer.println("");
-                        writer.println("public class " + builderName
-                                       + param.getSetterGenerics() + " {");
-
-                        // Fields
-                        for (String pName : param.getParams()) {
-                            String pType = param.getType(pName);
-
-                            if (param.hasDefault(pName)) {
-                                String defaultValue = param.getDefault(pName);
-                                if (pType.equals("java.lang.String")) {
-                                    defaultValue = '"' + defaultValue + '"';
-                                }
-                                writer.println("  private " + pType + " " 
-                                               + pName + " = " + defaultValue +";");
-                            } else {
-                                writer.println("  private " + pType + " " 
-                                               + pName + ";");
-                            }
-                        }
-                        writer.println("");
-
-                        // .build() method
-                        writer.println("  public static " + eeReturnType +
-                                       " build(java.util.function.Function<" +
-                                       builderName + param.getNotSetGenerics() +
-                                       ", " +
-                                       builderName + param.getIsSetGenerics() +
-                                       "> builder) {");
-                        writer.println("    " + builderName + param.getIsSetGenerics() +
-                                       " built = ");
-                        writer.println("      builder.apply(" +
-                                       "new " + builderName + param.getNotSetGenerics() +
-                                       "());");
-                        String eeQualifiedName = (packageName.isEmpty() ? "" : packageName + ".") 
-                            + eeName;
-                        if (ee.getKind().equals(ElementKind.CONSTRUCTOR)) {
-                            writer.print("    return new " + eeQualifiedName + "(");
-                        } else {
-                            if (eeReturnType.equals("void")) {
-                                writer.print("    " + eeQualifiedName + "(");
-                            } else {
-                                writer.print("    return " + eeQualifiedName + "(");
-                            }
-                        }
-                        boolean first = true;
-                        for (String pName : param.getParams()) {
-                            if (first) {
-                                first = false;
-                            } else {
-                                writer.print(", ");
-                            }
-                            writer.print("built." + pName);
-                        }
-                        writer.println(");");
-                        writer.println("  }");
-                        writer.println("");
-
-                        // Setter methods
-                        for (String pName : param.getParams()) {
-                            String pType = param.getType(pName);
-
-                            // javadoc
-                            writer.println("  /**");
-                            if (param.isMandatory(pName)) {
-                                if (param.isRequiredOneOf(pName)) {
-                                    writer.println("   *  Requires one of: " +
-                                                   String.join(", ",
-                                                               param.getParamsInSameGroupAs(pName))
-                                                   + ".");
-                                } else {
-                                    writer.println("   *  Required.");
-                                }
-                            } else {
-                                if (param.hasDefault(pName)) {
-                                    String defaultValue = param.getDefault(pName);
-                                    writer.println("   *  Optional (default: " + defaultValue + ").");
-                                } else {
-                                    writer.println("   *  Optional.");
-                                }
-                            }
-                            writer.println("   */");
-
-
-                            // method
-                            if (param.isMandatory(pName)) {
-                                writer.println("  @SuppressWarnings(\"unchecked\")");
-                            }
-                            writer.println("  public " + builderName
-                                           + param.getSetterGenerics(pName)
-                                           + " " + pName + "(" 
-                                           + pType + " " + pName + ") {");
-                            writer.println("    this." + pName + " = " + pName + ";");
-                            if (param.isRequiredOneOf(pName)) {
-                                for (String groupParam : param.getParamsInSameGroupAs(pName)) {
-                                    if (!groupParam.equals(pName)) {
-                                        writer.println("    this." + groupParam + " = "
-                                                       + param.getDefaultValue(groupParam) + ";");
-                                    }
-                                }
-                            }
-                            if (param.isMandatory(pName)) {
-                                writer.println("    return ("
-                                               + builderName 
-                                               + param.getSetterGenerics(pName)
-                                               + ") this;");
-                            } else {
-                                writer.println("    return this;");
-                            }
-                            writer.println("  }");
-                            writer.println("");
-                        }
-
-                        // Define helper classes
-                        if (param.hasMandatorys()) {
-                            writer.println("  public static class Good { }");
-                            for (String missingGeneric : param.getNotSetGenericsNames()) {
-                                writer.println("  public static class "
-                                               + missingGeneric + " { }");
-                            }
-                        }
-
-                        writer.println("}");
-                    }
-                }
-                catch (IOException ex) {
-                    error(ex.getMessage(), null);
+                    skipped++;
                 }
             }
         } catch (BuilderException e) {
             error(e.getMessage(), e.e);
         }
 
-        return true;
-    }
+        long renderStart = System.nanoTime();
+        render(jobs);
+        long renderNanos = System.nanoTime() - renderStart;
 
-    private static String getPackage(Element e) {
-        while (!(e instanceof PackageElement)) {
-            e = e.getEnclosingElement();
+        // Write in element order, so the output does not depend on the threads
+        for (Job job : jobs) {
+            long writeStart = System.nanoTime();
+            try {
+                JavaFileObject builderJava = processingEnv.getFiler()
+                    .createSourceFile(job.model.builderQualifiedName, job.element);
+                try (Writer writer = builderJava.openWriter()) {
+                    writer.write(job.source);
+                }
+            }
+            catch (IOException ex) {
+                error(ex.getMessage(), null);
+            }
+            job.writeNanos = System.nanoTime() - writeStart;
         }
-        return String.valueOf(((PackageElement) e).getQualifiedName());
-    }
 
-    private static String getClassName(Element e) {
-        while (!(e instanceof TypeElement)) {
-            e = e.getEnclosingElement();
-        }
-        String qName = String.valueOf(((TypeElement) e).getQualifiedName());
-        String pName = getPackage(e);
-        if (!pName.isEmpty()) {
-            return qName.substring(pName.length());
-        } else {
-            return qName;
+        if (statsFile != null) {
+            writeStats(jobs, skipped, scanNanos, renderNanos);
         }
+        round++;
+        return true;
     }
 
-    private static class BuilderParametersHelper {
-        final Element e;
-        Map<String, TypeMirror> namesToType = new LinkedHashMap<>();
-        Map<String, String> namesToDefault = new HashMap<>();
-        Map<String, String> namesToGroup = new HashMap<>();
-        Map<String, List<String>> groupToNames = new HashMap<>();
-        Set<String> mandatorys = new HashSet<>();
-
-        public BuilderParametersHelper(Element e) {
-            this.e = e;
+    /**
+     * Append one JSON line per generated builder and one for the round to the stats file.
+     */
+    private void writeStats(List<Job> jobs, int skipped, long scanNanos, long renderNanos) {
+        StringBuilder sb = new StringBuilder();
+        long modelNanos = 0;
+        long writeNanos = 0;
+        long bytes = 0;
+        for (Job job : jobs) {
+            int jobBytes = job.source.getBytes(StandardCharsets.UTF_8).length;
+            sb.append("{\"type\":\"builder\",\"round\":").append(round)
+                .append(",\"builder\":\"").append(job.model.builderQualifiedName)
+                .append("\",\"params\":").append(job.model.params.size())
+                .append(",\"typeParameters\":")
+                .append(job.model.staged || job.model.runtimeChecked ? 0 : job.model.markers.size())
+                .append(",\"instanceBytes\":").append(job.model.estimateInstanceSize())
+                .append(",\"modelNanos\":").append(job.modelNanos)
+                .append(",\"renderNanos\":").append(job.renderNanos)
+                .append(",\"writeNanos\":").append(job.writeNanos)
+                .append(",\"bytes\":").append(jobBytes)
+                .append("}\n");
+            modelNanos += job.modelNanos;
+            writeNanos += job.writeNanos;
+            bytes += jobBytes;
+        }
+        sb.append("{\"type\":\"round\",\"round\":").append(round)
+            .append(",\"builders\":").append(jobs.size())
+            .append(",\"skipped\":").append(skipped)
+            .append(",\"threads\":").append(Math.max(1, Math.min(parallelism, jobs.size())))
+            .append(",\"scanNanos\":").append(scanNanos)
+            .append(",\"modelNanos\":").append(modelNanos)
+            .append(",\"renderNanos\":").append(renderNanos)
+            .append(",\"writeNanos\":").append(writeNanos)
+            .append(",\"bytes\":").append(bytes)
+            .append("}\n");
+        try {
+            Files.write(statsFile, sb.toString().getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.APPEND);
+        } catch (IOException ex) {
+            warning("-A" + STATS_OPTION + " cannot write " + statsFile + ": " + ex);
+            statsFile = null;
         }
+    }
 
-        void addParameter(String name, TypeMirror type) {
-            namesToType.put(name, type);
-            mandatorys.add(name);
-        }
-        void addParameter(String name, TypeMirror type, RequiredOneOf requiredOneOfAnno) {
-            namesToType.put(name, type);
-            namesToGroup.put(name, requiredOneOfAnno.value());
-        }
-        void addParameter(String name, TypeMirror type, Default defaultAnno) {
-            namesToType.put(name, type);
-            if (defaultAnno != null && defaultAnno.value() != null) {
-                namesToDefault.put(name, defaultAnno.value());
+    /**
+     * Render the source of every job, on up to {@code yabuilder.parallelism} threads.
+     */
+    private void render(List<Job> jobs) {
+        int threads = Math.min(parallelism, jobs.size());
+        if (threads <= 1) {
+            for (Job job : jobs) {
+                job.render();
             }
+            return;
         }
-        void finishedAddingParameters() throws BuilderException {
-            for (Map.Entry<String, String> entry : namesToGroup.entrySet()) {
-                String name = entry.getKey();
-                String group = entry.getValue();
-                List<String> groupNames = groupToNames.get(group);
-                if (groupNames == null) {
-                    groupNames = new ArrayList<>();
-                    groupToNames.put(group, groupNames);
-                }
-                groupNames.add(name);
-            }
-            
-            for (Map.Entry<String, List<String>> entry : groupToNames.entrySet()) {
-                String group = entry.getKey();
-                List<String> groupNames = entry.getValue();
-                if (groupNames.size() <= 1) {
-                    throw new BuilderException(e, "@RequiredOneOf(\""  + group +
-                                               "\") must be on at least two parameters.");
-                }
-            }
-            
-
-            if (namesToType.isEmpty()) {
-                throw new BuilderException(e, "@Builder method must have parameters");
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(jobs.size());
+            for (Job job : jobs) {
+                tasks.add(pool.submit(job::render));
             }
-        }
-        
-        
-        List<String> getParams() {
-            return new ArrayList<>(namesToType.keySet());
-        }
-
-        String getType(String name) {
-            return namesToType.get(name).toString();
-        }
-
-        String getDefaultValue(String name) {
-            TypeMirror type = namesToType.get(name);
-            switch (type.getKind()) {
-            case BOOLEAN: return "false";
-            case BYTE: return "(byte) 0";
-            case CHAR: return "(char) 0";
-            case DOUBLE: return "0.0";
-            case FLOAT: return "0.0f";
-            case INT: return "0";
-            case LONG: return "0L";
-            case SHORT: return "(short) 0";
-            default: return "null";
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
             }
+        } finally {
+            pool.shutdown();
         }
+    }
 
-        boolean isRequiredOneOf(String name) {
-            return namesToGroup.containsKey(name);
-        }
-
-        List<String> getParamsInSameGroupAs(String name) {
-            return groupToNames.get(namesToGroup.get(name));
-        }
-
-        String getSetterGenerics() {
-            return getSetterGenerics(null);
-        }
-        
-        String getSetterGenerics(String paramSetter) {
-            String notSetGenericSetter = paramSetter == null ? null : getNotSetGeneric(paramSetter);
-            return getGenerics(notSetGeneric -> (notSetGeneric.equals(notSetGenericSetter)
-                                                 ? "Good" : notSetGeneric.toUpperCase()));
-        }
-
-        String getNotSetGenerics() {
-            return getGenerics(Function.identity());
-        }
-
-        String getIsSetGenerics() {
-            return getGenerics(name -> "Good");
-        }
+    private static final class Job {
+        final ExecutableElement element;
+        final BuilderModel model;
+        final String fingerprint;
+        String source;
+        // Nanoseconds spent on this builder, for -Ayabuilder.stats
+        long modelNanos;
+        long renderNanos;
+        long writeNanos;
 
-        boolean hasDefault(String name) {
-            return namesToDefault.containsKey(name);
+        Job(ExecutableElement element, BuilderModel model, String fingerprint) {
+            this.element = element;
+            this.model = model;
+            this.fingerprint = fingerprint;
         }
 
-        String getDefault(String name) {
-            return namesToDefault.get(name);
+        void render() {
+            long start = System.nanoTime();
+            source = BuilderRenderer.render(model, fingerprint);
+            renderNanos = System.nanoTime() - start;
         }
+    }
 
-        boolean isMandatory(String name) {
-            return mandatorys.contains(name) || namesToGroup.containsKey(name);
+    /**
+     * Hash of everything the generated builder depends on, in declaration order.
+     */
+    private String getFingerprint(ExecutableElement ee, BuilderModel model) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(generatorFingerprint).append('\n');
+        sb.append(model.builderQualifiedName).append('\n');
+        sb.append(defaults).append('\n');
+        sb.append(ee.getEnclosingElement()).append(' ').append(ee.getReturnType())
+            .append(' ').append(ee).append('\n');
+        for (AnnotationMirror anno : ee.getAnnotationMirrors()) {
+            sb.append(anno).append('\n');
+        }
+        for (VariableElement parameter : ee.getParameters()) {
+            sb.append(parameter.asType()).append(' ').append(parameter.getSimpleName());
+            for (AnnotationMirror anno : parameter.getAnnotationMirrors()) {
+                sb.append(' ').append(anno);
+            }
+            sb.append('\n');
         }
-
-        boolean hasMandatorys() {
-            return !mandatorys.isEmpty() || !groupToNames.isEmpty();
+        // from(existing) also depends on the accessors of the target
+        for (Param param : model.params) {
+            if (param.accessor != null) {
+                sb.append(param.accessor).append('\n');
+            }
         }
+        return toHex(newDigest().digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+    }
 
-        List<String> getNotSetGenericsNames() {
-            List<String> notSetGenerics = new ArrayList<>();
-            Set<String> seenGroups = new HashSet<>();
-            for (String name : getParams()) {
-                if (isMandatory(name)) {
-                    if (isRequiredOneOf(name)) {
-                        if (!seenGroups.contains(namesToGroup.get(name))) {
-                            notSetGenerics.add(getNotSetGeneric(name));
-                            seenGroups.add(namesToGroup.get(name));
-                        }
-                    } else if (isMandatory(name)) {
-                        notSetGenerics.add(getNotSetGeneric(name));
+    /**
+     * Whether the compiler can already see the builder with this fingerprint, then
+     * there is no need to generate and compile it again. A lookup of a type other
+     * than the annotated one, so the processor is aggregating for Gradle.
+     */
+    private boolean isAlreadyGenerated(String builderQualifiedName, String fingerprint) {
+        TypeElement existing = processingEnv.getElementUtils().getTypeElement(builderQualifiedName);
+        if (existing == null) {
+            return false;
+        }
+        for (AnnotationMirror anno : existing.getAnnotationMirrors()) {
+            if (String.valueOf(anno.getAnnotationType()).equals(Generated.class.getName())) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                         : anno.getElementValues().entrySet()) {
+                    if (entry.getKey().getSimpleName().contentEquals("fingerprint")) {
+                        return fingerprint.equals(entry.getValue().getValue());
                     }
                 }
             }
-            return notSetGenerics;
-        }
-
-        private String getNotSetGeneric(String name) {
-            if (isRequiredOneOf(name)) {
-                return "MissingOneOf" + upcaseWord(namesToGroup.get(name));
-            } else {
-                return "Missing" + upcaseWord(name);
-            }
-        }
-
-        private static String upcaseWord(String s) {
-            return s.substring(0, 1).toUpperCase() + s.substring(1);
         }
+        return false;
+    }
 
-        private String getGenerics(Function<String, String> mapper) {
-            List<String> notSetGenerics = getNotSetGenericsNames();
-            if (notSetGenerics.isEmpty()) {
-                return "";
-            }
-            StringBuilder sb = new StringBuilder();
-            sb.append("<");
-            for (String notSetGeneric : notSetGenerics) {
-                if (sb.length() > 1) {
-                    sb.append(", ");
-                }
-                sb.append(mapper.apply(notSetGeneric));
-            }
-            sb.append(">");
-            return sb.toString();
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
         }
     }
 
-    private static class BuilderException extends Exception {
-        final Element e;
-        BuilderException(Element e, String msg) {
-            super(msg);
-            this.e = e;
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+            sb.append(Character.forDigit(b & 0xf, 16));
         }
+        return sb.toString();
     }
 }
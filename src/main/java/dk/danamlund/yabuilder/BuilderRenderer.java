@@ -0,0 +1,2151 @@
+package dk.danamlund.yabuilder;
+
+import dk.danamlund.yabuilder.BuilderModel.Adder;
+import dk.danamlund.yabuilder.BuilderModel.Param;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.lang.model.type.TypeKind;
+
+/**
+ * Renders the source of a builder from its {@link BuilderModel}.
+ * <p>
+ * Only reads the immutable model and never touches {@code javax.lang.model}, so
+ * {@link BuilderProcessor} can render many builders on different threads.
+ */
+final class BuilderRenderer {
+    private final BuilderModel model;
+    private final StringBuilder out;
+
+    private BuilderRenderer(BuilderModel model) {
+        this.model = model;
+        this.out = new StringBuilder(estimateLength(model));
+    }
+
+    /**
+     * The source of the builder, annotated with
+     * {@code @dk.danamlund.yabuilder.Generated(fingerprint)}.
+     */
+    static String render(BuilderModel model, String fingerprint) {
+        BuilderRenderer renderer = new BuilderRenderer(model);
+        if (model.staged) {
+            renderer.renderStagedBuilder(fingerprint);
+        } else {
+            renderer.renderBuilder(fingerprint);
+        }
+        return renderer.out.toString();
+    }
+
+    /**
+     * Roughly the length of the source, every setter repeats the type variables.
+     */
+    private static int estimateLength(BuilderModel model) {
+        int perParam = 200 + 2 * model.classGenerics.length();
+        int length = 1024 + 4 * model.classGenerics.length() + model.params.size() * perParam;
+        return model.columns ? 3 * length : length;
+    }
+
+    private void println() {
+        out.append('\n');
+    }
+
+    private void println(String line) {
+        out.append(line).append('\n');
+    }
+
+    private void renderBuilder(String fingerprint) {
+        String builderName = model.builderName;
+
+        if (!model.packageName.isEmpty()) {
+            println("package " + model.packageName + ";");
+        }
+        println();
+        println("@dk.danamlund.yabuilder.Generated(fingerprint = \""
+                + fingerprint + "\")");
+        println("public " + (model.fluent ? "final " : "") + "class " + builderName
+                + model.classGenerics + " {");
+
+        renderFields();
+
+        if (model.pooled) {
+            println("  private static final ThreadLocal<" + builderName
+                    + model.wildcardGenerics + "> POOL = new ThreadLocal<"
+                    + builderName + model.wildcardGenerics + ">();");
+            println("  private int generation;");
+            println("  private int releasedGeneration;");
+            println();
+        }
+
+        if (model.fluent) {
+            // start() and build() methods
+            println("  private " + builderName + "() {");
+            println("  }");
+            println();
+            println("  public static " + builderName + model.notSetGenerics
+                    + " start() {");
+            println("    return new " + builderName + model.notSetGenerics
+                    + "();");
+            println("  }");
+            println();
+            // Static, so only a builder whose type arguments are all Good
+            // converts, which no throws clause of the caller can bypass
+            println("  public static " + model.returnType + " build("
+                    + builderName + model.isSetGenerics + " builder) {");
+            if (model.pooled) {
+                println("    try {");
+                renderCreate("      ", "builder");
+                println("    } finally {");
+                println("      builder.releasedGeneration = builder.generation;");
+                println("    }");
+            } else {
+                renderCreate("    ", "builder");
+            }
+            println("  }");
+            println();
+        } else {
+            // .build() method
+            println("  public static " + model.returnType +
+                    " build(java.util.function.Function<" +
+                    builderName + model.notSetGenerics +
+                    ", " +
+                    builderName + model.isSetGenerics +
+                    "> builder) {");
+            if (model.pooled) {
+                println("    " + builderName + model.notSetGenerics
+                        + " pooled = acquire();");
+                println("    try {");
+                println("      " + builderName + model.isSetGenerics +
+                        " built = ");
+                println("        builder.apply(pooled != null ? pooled : " +
+                        "new " + builderName + model.notSetGenerics +
+                        "());");
+                renderCreate("      ", "built");
+                println("    } finally {");
+                println("      if (pooled != null) {");
+                println("        pooled.releasedGeneration = pooled.generation;");
+                println("      }");
+                println("    }");
+            } else {
+                println("    " + builderName + model.isSetGenerics +
+                        " built = ");
+                println("      builder.apply(" +
+                        "new " + builderName + model.notSetGenerics +
+                        "());");
+                renderCreate("    ", "built");
+            }
+            println("  }");
+            println();
+        }
+
+        if (model.from) {
+            renderFrom();
+        }
+
+        if (model.pooled && model.fluent) {
+            // Only the static build(builder) of fluent builders releases it
+            println("  /**");
+            println("   *  The builder of the current thread, reset to default values, or");
+            println("   *  a new builder if it was handed out before and not built since.");
+            println("   */");
+            println("  public static " + builderName + model.notSetGenerics
+                    + " pooled() {");
+            println("    " + builderName + model.notSetGenerics
+                    + " pooled = acquire();");
+            println("    return pooled != null ? pooled : new " + builderName
+                    + model.notSetGenerics + "();");
+            println("  }");
+            println();
+        }
+
+        if (model.pooled) {
+            println("  private static " + builderName + model.notSetGenerics
+                    + " acquire() {");
+            println("    " + builderName + model.wildcardGenerics
+                    + " pooled = POOL.get();");
+            println("    if (pooled == null) {");
+            println("      pooled = new " + builderName
+                    + model.notSetGenerics + "();");
+            println("      POOL.set(pooled);");
+            println("    } else if (pooled.generation != pooled.releasedGeneration) {");
+            println("      return null;");
+            println("    }");
+            println("    pooled.generation++;");
+            println("    return pooled.reset();");
+            println("  }");
+            println();
+        }
+
+        // reset() method
+        println("  /**");
+        println("   *  Restore every parameter to its default value.");
+        println("   */");
+        if (model.hasPhantomTypes()) {
+            println("  @SuppressWarnings(\"unchecked\")");
+        }
+        println("  public " + builderName + model.notSetGenerics
+                + " reset() {");
+        for (Param p : model.params) {
+            println("    this." + p.name + " = " + p.getResetValue() + ";");
+            if (p.lazy) {
+                println("    this." + p.name + "Set = false;");
+            }
+            if (p.hasAdder()) {
+                println("    this." + p.name + "Added = null;");
+            }
+        }
+        if (model.intern) {
+            println("    this.hash = computeHash();");
+        }
+        if (model.runtimeChecked) {
+            for (int chunk = 0; chunk * 64 < model.markers.size(); chunk++) {
+                println("    this.requiredSet" + chunk + " = 0L;");
+            }
+        }
+        if (model.events) {
+            for (int chunk = 0; chunk * 64 < model.optionals; chunk++) {
+                println("    this.optionalSet" + chunk + " = 0L;");
+            }
+        }
+        if (model.hasPhantomTypes()) {
+            println("    return (" + builderName + model.notSetGenerics
+                    + ") this;");
+        } else {
+            println("    return this;");
+        }
+        println("  }");
+        println();
+
+        // Setter methods
+        for (Param p : model.params) {
+
+            renderSetterDoc(p, "  ");
+
+            // method
+            if (isPhantom(p)) {
+                println("  @SuppressWarnings(\"unchecked\")");
+            }
+            println("  public " + builderName
+                    + p.setterGenerics
+                    + " " + p.name + "(" 
+                    + p.type + " " + p.name + ") {");
+            renderHashUpdate(p, p.name);
+            println("    this." + p.name + " = " + p.name + ";");
+            if (p.hasAdder()) {
+                println("    this." + p.name + "Added = null;");
+            }
+            renderSetterEnd(p, false);
+            println("  }");
+            println();
+
+            if (p.hasAdder()) {
+                renderAdders(p);
+            }
+        }
+
+        if (model.columns) {
+            renderColumns();
+        }
+
+        if (model.offHeap) {
+            renderOffHeap();
+        }
+
+        if (model.intern) {
+            renderIntern();
+        }
+
+        if (model.dynamic) {
+            renderDynamic();
+        }
+
+        if (model.streams) {
+            renderStreams();
+        }
+
+        if (model.async) {
+            renderAsync();
+        }
+
+        if (model.lazyBuild) {
+            renderLazy();
+        }
+
+        if (model.fluent && (model.async || model.lazyBuild)) {
+            renderCopy();
+        }
+
+        if (model.runtimeChecked && model.hasMandatorys()) {
+            renderMissing();
+        }
+
+        if (model.events) {
+            renderParametersSet("  ", false);
+            println();
+        }
+
+        if (model.templates) {
+            renderTemplate();
+        }
+
+        if (model.streams || model.async || model.lazyBuild) {
+            println("  private static " + model.returnType + " create(" + builderName
+                    + model.isSetGenerics + " built) {");
+            renderCreate("    ", "built");
+            println("  }");
+            println();
+        }
+
+        // Define helper classes, compact builders use the shared Good and Missing
+        if (model.hasPhantomTypes() && !model.compact) {
+            println("  public static class Good { }");
+            for (String missingGeneric : model.markers) {
+                println("  public static class "
+                        + missingGeneric + " { }");
+            }
+        }
+
+        println("}");
+    }
+
+    /**
+     * from(existing) copies every parameter from the target, so the builder starts out Good.
+     */
+    private void renderFrom() {
+        String builder = model.builderName + model.isSetGenerics;
+        println("  /**");
+        println("   *  Every parameter read from existing, to change some of them.");
+        println("   */");
+        if (model.fluent) {
+            println("  public static " + builder + " from(" + model.returnType + " existing) {");
+        } else {
+            println("  public static " + model.returnType + " from(" + model.returnType
+                    + " existing, java.util.function.Function<" + builder + ", " + builder
+                    + "> builder) {");
+        }
+        println("    " + builder + " from = new " + builder + "();");
+        for (Param p : model.params) {
+            println("    from." + p.name + " = existing." + p.accessor + ";");
+            if (p.lazy) {
+                println("    from." + p.name + "Set = true;");
+            }
+        }
+        if (model.intern) {
+            println("    from.hash = from.computeHash();");
+        }
+        if (model.runtimeChecked) {
+            for (int chunk = 0; chunk * 64 < model.markers.size(); chunk++) {
+                println("    from.requiredSet" + chunk + " = " + requiredMask(chunk) + ";");
+            }
+        }
+        if (model.events) {
+            for (int chunk = 0; chunk * 64 < model.optionals; chunk++) {
+                println("    from.optionalSet" + chunk + " = " + optionalMask(chunk) + ";");
+            }
+        }
+        if (model.fluent) {
+            println("    return from;");
+        } else {
+            println("    " + builder + " built = builder.apply(from);");
+            renderCreate("    ", "built");
+        }
+        println("  }");
+        println();
+    }
+
+    /**
+     * One interface per required parameter or group, each setter returns the next
+     * interface, and the last one, BuildStage, has the optional parameters and build().
+     * The builder itself is not generic.
+     */
+    private void renderStagedBuilder(String fingerprint) {
+        String builderName = model.builderName;
+        String buildStage = BuilderModel.BUILD_STAGE;
+
+        if (!model.packageName.isEmpty()) {
+            println("package " + model.packageName + ";");
+        }
+        println();
+        println("@dk.danamlund.yabuilder.Generated(fingerprint = \""
+                + fingerprint + "\")");
+        println("public final class " + builderName + " {");
+        renderMetricsField();
+        renderConstants();
+        println("  private " + builderName + "() {");
+        println("  }");
+        println();
+        if (model.fluent) {
+            println("  public static " + model.firstStage() + " start() {");
+            println("    return new Impl();");
+            println("  }");
+        } else {
+            println("  public static " + model.returnType
+                    + " build(java.util.function.Function<" + model.firstStage()
+                    + ", " + buildStage + "> builder) {");
+            println("    " + (model.returnType.equals("void") ? "" : "return ")
+                    + "builder.apply(new Impl()).build();");
+            println("  }");
+        }
+        println();
+
+        // Staged interfaces
+        for (int marker = 0; marker <= model.stages.size(); marker++) {
+            boolean last = marker == model.stages.size();
+            println("  public interface " + (last ? buildStage : model.stages.get(marker)) + " {");
+            boolean first = true;
+            for (Param p : last ? model.params : model.markerParams.get(marker)) {
+                if (last && p.isMandatory()) {
+                    continue;
+                }
+                if (!first) {
+                    println();
+                }
+                first = false;
+                renderSetterDoc(p, "    ");
+                println("    " + getStagedSetterType(p) + " " + p.name + "("
+                        + p.type + " " + p.name + ");");
+            }
+            if (last) {
+                if (!first) {
+                    println();
+                }
+                println("    " + model.returnType + " build();");
+            }
+            println("  }");
+            println();
+        }
+
+        // The builder implements every stage, a class cannot implement its own
+        // nested interfaces
+        StringBuilder stages = new StringBuilder();
+        for (String stage : model.stages) {
+            stages.append(stage).append(", ");
+        }
+        stages.append(buildStage);
+        println("  private static final class Impl implements " + stages + " {");
+        for (Param p : model.params) {
+            renderField(p, "    ");
+        }
+        renderOptionalSetFields("    ");
+        println();
+        for (Param p : model.params) {
+            println("    @Override");
+            println("    public " + getStagedSetterType(p) + " " + p.name + "("
+                    + p.type + " " + p.name + ") {");
+            // Only one setter of a RequiredOneOf group can be called, no need to clear
+            println("      this." + p.name + " = " + p.name + ";");
+            if (p.lazy) {
+                println("      this." + p.name + "Set = true;");
+            }
+            renderMetricsSet(p, "      ");
+            renderOptionalSet(p, "      ");
+            println("      return this;");
+            println("    }");
+            println();
+        }
+        println("    @Override");
+        println("    public " + model.returnType + " build() {");
+        renderCreate("      ", "this");
+        println("    }");
+        if (model.events) {
+            println();
+            renderParametersSet("    ", false);
+        }
+        println("  }");
+        if (model.dynamic) {
+            println();
+            renderDynamic();
+        }
+        println("}");
+    }
+
+    /**
+     * Create the target, or with {@literal @}Intern look it up first, from the fields of
+     * {@code builder} and return it. With metrics count it, and sample the time of
+     * static methods. With events record it as a BuildEvent.
+     */
+    private void renderCreate(String indent, String builder) {
+        renderCreate(indent, builder, null);
+    }
+
+    /**
+     * @param arguments The arguments of the target instead of the fields of
+     *     {@code builder}, without interning, or null.
+     */
+    private void renderCreate(String indent, String builder, String arguments) {
+        if (arguments == null) {
+            renderHandOff(indent, builder);
+            renderRequiredCheck(indent, builder);
+        }
+        if (model.events) {
+            println(indent + "dk.danamlund.yabuilder.BuildEvent event = "
+                    + "new dk.danamlund.yabuilder.BuildEvent();");
+            println(indent + "event.begin();");
+            println(indent + "try {");
+            renderCreateMetrics(indent + "  ", builder, arguments);
+            println(indent + "} finally {");
+            println(indent + "  event.end();");
+            // Only filled in when recorded, so a disabled event is never used
+            println(indent + "  if (event.shouldCommit()) {");
+            println(indent + "    event.set(\"" + model.builderQualifiedName + "\", \""
+                    + model.targetQualifiedName + "\", parametersSet("
+                    + getSetBits(builder + ".", arguments != null) + "));");
+            println(indent + "    event.commit();");
+            println(indent + "  }");
+            println(indent + "}");
+        } else {
+            renderCreateMetrics(indent, builder, arguments);
+        }
+    }
+
+    private void renderCreateMetrics(String indent, String builder, String arguments) {
+        if (!model.metrics) {
+            renderCreateTarget(indent, builder, arguments);
+        } else if (model.constructor) {
+            println(indent + "METRICS.build();");
+            renderCreateTarget(indent, builder, arguments);
+        } else {
+            println(indent + "long start = METRICS.startBuild();");
+            println(indent + "try {");
+            renderCreateTarget(indent + "  ", builder, arguments);
+            println(indent + "} finally {");
+            println(indent + "  METRICS.build(start);");
+            println(indent + "}");
+        }
+    }
+
+    private void renderCreateTarget(String indent, String builder, String arguments) {
+        if (arguments != null || !model.intern) {
+            println(indent + getReturnPrefix() + model.targetQualifiedName + "("
+                    + (arguments != null ? arguments : model.getArguments(builder + ".")) + ");");
+            return;
+        }
+        // From the key, which has already evaluated the lazy defaults
+        StringBuilder keyArguments = new StringBuilder();
+        for (Param p : model.params) {
+            if (keyArguments.length() > 0) {
+                keyArguments.append(", ");
+            }
+            keyArguments.append("key.").append(p.name);
+        }
+        String create = (model.constructor ? "new " : "") + model.targetQualifiedName + "("
+            + keyArguments + ")";
+        println(indent + "Key key = new Key(" + builder + ");");
+        println(indent + model.boxedReturnType + " interned = INTERNED.get(key);");
+        println(indent + "if (interned == null) {");
+        println(indent + "  interned = INTERNED.putIfAbsent(key, " + create + ");");
+        println(indent + "}");
+        println(indent + "return interned;");
+    }
+
+    /**
+     * Replace the hash of the current value of {@code p} with the hash of {@code value}.
+     */
+    private void renderHashUpdate(Param p, String value) {
+        if (model.intern) {
+            println("    this.hash += (" + hashOf(p, value) + " - " + hashOf(p, "this." + p.name)
+                    + ") * " + hashMultiplier(p) + ";");
+        }
+    }
+
+    private void renderIntern() {
+        String cache = "dk.danamlund.yabuilder.InternCache<Key, " + model.boxedReturnType + ">";
+        println("  private static final " + cache + " INTERNED =");
+        println("    new " + cache + "(" + model.internMaxSize + ", "
+                + model.internWeakValues + ");");
+        println();
+        println("  /**");
+        println("   *  The canonical instances, with hit rate and size.");
+        println("   */");
+        println("  public static dk.danamlund.yabuilder.InternCache<?, " + model.boxedReturnType
+                + "> interned() {");
+        println("    return INTERNED;");
+        println("  }");
+        println();
+        println("  private int computeHash() {");
+        println("    int hash = 0;");
+        for (Param p : model.params) {
+            println("    hash += " + hashOf(p, "this." + p.name) + " * " + hashMultiplier(p) + ";");
+        }
+        println("    return hash;");
+        println("  }");
+        println();
+
+        println("  private static final class Key {");
+        for (Param p : model.params) {
+            println("    private final " + p.type + " " + p.name + ";");
+        }
+        println("    private final int hash;");
+        println();
+        println("    Key(" + model.builderName + model.wildcardGenerics + " builder) {");
+        println("      int hash = builder.hash;");
+        for (Param p : model.params) {
+            println("      this." + p.name + " = " + p.getArgument("builder.") + ";");
+            if (p.lazy) {
+                // The builder hashed the unset field, the key the evaluated default
+                println("      if (!builder." + p.name + "Set) {");
+                println("        hash += (" + hashOf(p, "this." + p.name) + " - "
+                        + hashOf(p, "builder." + p.name) + ") * " + hashMultiplier(p) + ";");
+                println("      }");
+            }
+        }
+        println("      this.hash = hash;");
+        println("    }");
+        println();
+        println("    @Override");
+        println("    public int hashCode() {");
+        println("      return hash;");
+        println("    }");
+        println();
+        println("    @Override");
+        println("    public boolean equals(Object o) {");
+        println("      if (!(o instanceof Key)) {");
+        println("        return false;");
+        println("      }");
+        println("      Key other = (Key) o;");
+        println("      return hash == other.hash");
+        for (int i = 0; i < model.params.size(); i++) {
+            Param p = model.params.get(i);
+            println("        && " + equalsOf(p, "this." + p.name, "other." + p.name)
+                    + (i == model.params.size() - 1 ? ";" : ""));
+        }
+        println("    }");
+        println("  }");
+        println();
+    }
+
+    private static String hashOf(Param p, String value) {
+        switch (p.kind) {
+        case BOOLEAN: return "Boolean.hashCode(" + value + ")";
+        case BYTE:
+        case CHAR:
+        case SHORT: return "(int) " + value;
+        case INT: return value;
+        case LONG: return "Long.hashCode(" + value + ")";
+        case FLOAT: return "Float.hashCode(" + value + ")";
+        case DOUBLE: return "Double.hashCode(" + value + ")";
+        default: return "dk.danamlund.yabuilder.InternCache.hash(" + value + ")";
+        }
+    }
+
+    private static String equalsOf(Param p, String a, String b) {
+        switch (p.kind) {
+        case BOOLEAN:
+        case BYTE:
+        case CHAR:
+        case SHORT:
+        case INT:
+        case LONG: return a + " == " + b;
+        case FLOAT: return "Float.floatToIntBits(" + a + ") == Float.floatToIntBits(" + b + ")";
+        case DOUBLE: return "Double.doubleToLongBits(" + a + ") == Double.doubleToLongBits(" + b + ")";
+        default: return "dk.danamlund.yabuilder.InternCache.equal(" + a + ", " + b + ")";
+        }
+    }
+
+    /**
+     * An odd multiplier per parameter, the hash is the sum of the parameter hashes
+     * times their multiplier, so a setter can replace one term.
+     */
+    private static int hashMultiplier(Param p) {
+        return 0x9E3779B9 * (2 * p.index + 1);
+    }
+
+    private static final List<TypeKind> DYNAMIC_KINDS =
+        Arrays.asList(TypeKind.BOOLEAN, TypeKind.BYTE, TypeKind.CHAR, TypeKind.SHORT,
+                      TypeKind.INT, TypeKind.LONG, TypeKind.FLOAT, TypeKind.DOUBLE,
+                      TypeKind.DECLARED);
+
+    /**
+     * The nested Dynamic class, set by ordinal or name with one bit per parameter
+     * in {@code set0, set1, ...} and the required parameters checked by build().
+     */
+    private void renderDynamic() {
+        String dynamic = "Dynamic";
+        String error = model.builderName + "." + dynamic;
+        String builtType = model.returnType.equals("void") ? "java.lang.Void" : model.boxedReturnType;
+        println("  /**");
+        println("   *  A builder set by parameter name or ordinal, required parameters are");
+        println("   *  checked by build().");
+        println("   */");
+        println("  public static " + dynamic + " dynamic() {");
+        println("    return new " + dynamic + "();");
+        println("  }");
+        println();
+        println("  public static final class " + dynamic
+                + " implements dk.danamlund.yabuilder.DynamicBuilder<" + builtType + "> {");
+        StringBuilder names = new StringBuilder();
+        StringBuilder types = new StringBuilder();
+        for (Param p : model.params) {
+            println("    public static final int " + p.getOrdinalName() + " = " + p.index + ";");
+            names.append(p.index == 0 ? "" : ", ").append('"').append(p.name).append('"');
+            types.append(p.index == 0 ? "" : ", ").append(p.erasure).append(".class");
+        }
+        println("    public static final java.util.List<String> " + BuilderModel.DYNAMIC_NAMES
+                + " =");
+        println("      java.util.Collections.unmodifiableList(java.util.Arrays.asList("
+                + names + "));");
+        println("    public static final java.util.List<Class<?>> " + BuilderModel.DYNAMIC_TYPES
+                + " =");
+        println("      java.util.Collections.unmodifiableList(java.util.Arrays.<Class<?>>asList("
+                + types + "));");
+        println();
+        for (Param p : model.params) {
+            if (p.hasDefault() && !p.lazy) {
+                println("    private " + p.type + " " + p.name + " = " + p.getResetValue() + ";");
+            } else {
+                println("    private " + p.type + " " + p.name + ";");
+            }
+        }
+        for (int chunk = 0; chunk * 64 < model.params.size(); chunk++) {
+            println("    private long set" + chunk + ";");
+        }
+        println();
+        println("    private " + dynamic + "() {");
+        println("    }");
+        println();
+
+        println("    @Override");
+        println("    public java.util.List<String> getNames() {");
+        println("      return " + BuilderModel.DYNAMIC_NAMES + ";");
+        println("    }");
+        println();
+        println("    @Override");
+        println("    public java.util.List<Class<?>> getTypes() {");
+        println("      return " + BuilderModel.DYNAMIC_TYPES + ";");
+        println("    }");
+        println();
+
+        // Switch on the length, then compare the chars, so any CharSequence works
+        // without allocating a String
+        Map<Integer, List<Param>> byLength = new TreeMap<>();
+        for (Param p : model.params) {
+            byLength.computeIfAbsent(p.name.length(), length -> new ArrayList<>()).add(p);
+        }
+        println("    @Override");
+        println("    public int ordinal(CharSequence name) {");
+        println("      switch (name.length()) {");
+        for (Map.Entry<Integer, List<Param>> entry : byLength.entrySet()) {
+            println("      case " + entry.getKey() + ":");
+            for (Param p : entry.getValue()) {
+                println("        if (is(name, \"" + p.name + "\")) {");
+                println("          return " + p.getOrdinalName() + ";");
+                println("        }");
+            }
+            println("        break;");
+        }
+        println("      }");
+        println("      return -1;");
+        println("    }");
+        println();
+        println("    private static boolean is(CharSequence name, String parameter) {");
+        println("      for (int i = 0; i < parameter.length(); i++) {");
+        println("        if (name.charAt(i) != parameter.charAt(i)) {");
+        println("          return false;");
+        println("        }");
+        println("      }");
+        println("      return true;");
+        println("    }");
+        println();
+
+        for (TypeKind kind : DYNAMIC_KINDS) {
+            boolean object = kind == TypeKind.DECLARED;
+            String kindName = object ? "Object" : upcase(kind.name().toLowerCase());
+            String valueType = object ? "Object" : kind.name().toLowerCase();
+            boolean unchecked = false;
+            List<Param> params = new ArrayList<>();
+            for (Param p : model.params) {
+                if (object || p.kind == kind) {
+                    params.add(p);
+                    unchecked |= object && !p.kind.isPrimitive() && !p.type.equals(p.erasure);
+                }
+            }
+            println("    @Override");
+            if (unchecked) {
+                println("    @SuppressWarnings(\"unchecked\")");
+            }
+            println("    public " + dynamic + " set" + kindName + "(int ordinal, " + valueType
+                    + " value) {");
+            if (params.isEmpty()) {
+                println("      throw wrongType(ordinal, \"" + valueType + "\");");
+                println("    }");
+                println();
+                continue;
+            }
+            println("      switch (ordinal) {");
+            for (Param p : params) {
+                println("      case " + p.getOrdinalName() + ":");
+                String value = "value";
+                if (object && p.kind.isPrimitive()) {
+                    // Not a NullPointerException or ClassCastException from unboxing
+                    println("        if (!(value instanceof " + boxed(p.kind) + ")) {");
+                    println("          throw wrongType(ordinal, value == null ? \"null\" "
+                            + ": value.getClass().getName());");
+                    println("        }");
+                    value = "(" + boxed(p.kind) + ") value";
+                } else if (object && !p.type.equals("java.lang.Object")) {
+                    value = "(" + p.type + ") value";
+                }
+                println("        this." + p.name + " = " + value + ";");
+                println("        " + bit(p) + " |= " + mask(p) + ";");
+                if (p.isRequiredOneOf()) {
+                    for (Param groupParam : model.getGroupParams(p)) {
+                        if (groupParam != p) {
+                            println("        this." + groupParam.name + " = "
+                                    + groupParam.zeroValue + ";");
+                            println("        " + bit(groupParam) + " &= ~" + mask(groupParam) + ";");
+                        }
+                    }
+                }
+                renderMetricsSet(p, "        ");
+                println("        return this;");
+            }
+            println("      default:");
+            println("        throw wrongType(ordinal, \"" + valueType + "\");");
+            println("      }");
+            println("    }");
+            println();
+        }
+
+        println("    private static IllegalArgumentException wrongType(int ordinal, String type) {");
+        println("      if (ordinal < 0 || ordinal >= " + BuilderModel.DYNAMIC_NAMES + ".size()) {");
+        println("        return new IllegalArgumentException(\"" + error
+                + " has no parameter \" + ordinal);");
+        println("      }");
+        println("      return new IllegalArgumentException(\"" + error + ": \" + "
+                + BuilderModel.DYNAMIC_NAMES + ".get(ordinal) + \" is \"");
+        println("        + " + BuilderModel.DYNAMIC_TYPES
+                + ".get(ordinal).getName() + \", not \" + type);");
+        println("    }");
+        println();
+
+        println("    @Override");
+        println("    public " + dynamic + " reset() {");
+        for (Param p : model.params) {
+            println("      this." + p.name + " = " + p.getResetValue() + ";");
+        }
+        for (int chunk = 0; chunk * 64 < model.params.size(); chunk++) {
+            println("      this.set" + chunk + " = 0L;");
+        }
+        println("      return this;");
+        println("    }");
+        println();
+
+        // One check per required parameter or group, the message names all of them
+        List<String> missingChecks = new ArrayList<>();
+        List<String> missingNames = model.getMarkerNames();
+        for (List<Param> markerParams : model.markerParams) {
+            StringBuilder check = new StringBuilder();
+            for (Param p : markerParams) {
+                check.append(check.length() == 0 ? "" : " | ")
+                    .append("(").append(bit(p)).append(" & ").append(mask(p)).append(")");
+            }
+            missingChecks.add((markerParams.size() == 1 ? check : "(" + check + ")") + " == 0");
+        }
+        println("    @Override");
+        println("    public " + builtType + " build() {");
+        if (!missingChecks.isEmpty()) {
+            for (int i = 0; i < missingChecks.size(); i++) {
+                println((i == 0 ? "      if (" : "          || ") + missingChecks.get(i)
+                        + (i == missingChecks.size() - 1 ? ") {" : ""));
+            }
+            println("        throw missing();");
+            println("      }");
+        }
+        StringBuilder arguments = new StringBuilder();
+        for (Param p : model.params) {
+            arguments.append(p.index == 0 ? "" : ", ");
+            if (p.lazy) {
+                arguments.append("((" + bit(p) + " & " + mask(p) + ") != 0 ? this." + p.name
+                                 + " : " + p.initialValue + ")");
+            } else {
+                arguments.append("this." + p.name);
+            }
+        }
+        renderCreate("      ", "this", arguments.toString());
+        if (model.returnType.equals("void")) {
+            println("      return null;");
+        }
+        println("    }");
+
+        if (!missingChecks.isEmpty()) {
+            println();
+            println("    private IllegalStateException missing() {");
+            println("      StringBuilder missing = new StringBuilder();");
+            for (int i = 0; i < missingChecks.size(); i++) {
+                println("      if (" + missingChecks.get(i) + ") {");
+                println("        missing.append(\", " + missingNames.get(i) + "\");");
+                println("      }");
+            }
+            println("      return new IllegalStateException(\"" + error
+                    + ": missing \" + missing.substring(2));");
+            println("    }");
+        }
+        if (model.events) {
+            println();
+            renderParametersSet("    ", true);
+        }
+        println("  }");
+        println();
+    }
+
+    /** The field with the set bit of {@code p}, {@code set0} for the first 64. */
+    private static String bit(Param p) {
+        return "set" + (p.index / 64);
+    }
+
+    private static String mask(Param p) {
+        return "(1L << " + (p.index % 64) + ")";
+    }
+
+    private static String boxed(TypeKind kind) {
+        switch (kind) {
+        case BOOLEAN: return "java.lang.Boolean";
+        case BYTE: return "java.lang.Byte";
+        case CHAR: return "java.lang.Character";
+        case SHORT: return "java.lang.Short";
+        case INT: return "java.lang.Integer";
+        case LONG: return "java.lang.Long";
+        case FLOAT: return "java.lang.Float";
+        default: return "java.lang.Double";
+        }
+    }
+
+    private static String upcase(String s) {
+        return s.substring(0, 1).toUpperCase() + s.substring(1);
+    }
+
+    /**
+     * stream() and collector() reuse one builder per split, so a parallel stream
+     * allocates a builder per fork-join leaf instead of per element.
+     */
+    private void renderStreams() {
+        String builderName = model.builderName;
+        String notSet = builderName + model.notSetGenerics;
+        String isSet = builderName + model.isSetGenerics;
+        String target = model.boxedReturnType;
+        String fill = "java.util.function.BiFunction<" + notSet + ", ? super R, " + isSet + ">";
+
+        println("  /**");
+        println("   *  Build a target from every element of {@code source}, {@code fill}");
+        println("   *  gets a builder reset to its defaults per element and one builder");
+        println("   *  per split of the stream.");
+        println("   */");
+        println("  public static <R> java.util.stream.Stream<" + target + "> stream(");
+        println("      java.util.stream.Stream<R> source, " + fill + " fill) {");
+        println("    return java.util.stream.StreamSupport.stream(");
+        println("        new StreamSpliterator<R>(source.spliterator(), fill), source.isParallel())");
+        println("        .onClose(source::close);");
+        println("  }");
+        println();
+        println("  /**");
+        println("   *  Collect every element into a list of targets, with one builder per");
+        println("   *  container of the collector.");
+        println("   */");
+        println("  public static <R> java.util.stream.Collector<R, ?, java.util.List<" + target
+                + ">> collector(");
+        println("      " + fill + " fill) {");
+        println("    return collector(fill, java.util.stream.Collectors.<" + target + ">toList());");
+        println("  }");
+        println();
+        println("  /**");
+        println("   *  Collect every element into {@code downstream} as a target, with one");
+        println("   *  builder per container of the collector. Never concurrent, as the");
+        println("   *  builder of a container is not, the containers are combined instead.");
+        println("   */");
+        println("  public static <R, A, D> java.util.stream.Collector<R, ?, D> collector(");
+        println("      " + fill + " fill,");
+        println("      java.util.stream.Collector<? super " + target + ", A, D> downstream) {");
+        println("    java.util.function.Supplier<A> supplier = downstream.supplier();");
+        println("    java.util.function.BiConsumer<A, ? super " + target
+                + "> accumulator = downstream.accumulator();");
+        println("    java.util.function.BinaryOperator<A> combiner = downstream.combiner();");
+        println("    java.util.function.Function<A, D> finisher = downstream.finisher();");
+        println("    java.util.Set<java.util.stream.Collector.Characteristics> characteristics =");
+        println("        java.util.EnumSet.noneOf(java.util.stream.Collector.Characteristics.class);");
+        println("    characteristics.addAll(downstream.characteristics());");
+        println("    characteristics.remove(java.util.stream.Collector.Characteristics.IDENTITY_FINISH);");
+        println("    characteristics.remove(java.util.stream.Collector.Characteristics.CONCURRENT);");
+        println("    return java.util.stream.Collector.<R, CollectorState<A>, D>of(");
+        println("        () -> new CollectorState<A>(supplier.get()),");
+        println("        (state, row) -> accumulator.accept(state.container,");
+        println("            create(fill.apply(state.builder.reset(), row))),");
+        println("        (left, right) -> {");
+        println("          left.container = combiner.apply(left.container, right.container);");
+        println("          return left;");
+        println("        },");
+        println("        state -> finisher.apply(state.container),");
+        println("        characteristics.toArray(new java.util.stream.Collector.Characteristics[0]));");
+        println("  }");
+        println();
+        println("  private static final class StreamSpliterator<R>");
+        println("      implements java.util.Spliterator<" + target
+                + ">, java.util.function.Consumer<R> {");
+        println("    private final java.util.Spliterator<R> source;");
+        println("    private final " + fill + " fill;");
+        println("    private final " + notSet + " builder = new " + notSet + "();");
+        println("    private R row;");
+        println();
+        println("    StreamSpliterator(java.util.Spliterator<R> source, " + fill + " fill) {");
+        println("      this.source = source;");
+        println("      this.fill = fill;");
+        println("    }");
+        println();
+        println("    @Override");
+        println("    public void accept(R row) {");
+        println("      this.row = row;");
+        println("    }");
+        println();
+        println("    @Override");
+        println("    public boolean tryAdvance(java.util.function.Consumer<? super " + target
+                + "> action) {");
+        println("      if (!source.tryAdvance(this)) {");
+        println("        return false;");
+        println("      }");
+        println("      R row = this.row;");
+        println("      this.row = null;");
+        println("      action.accept(create(fill.apply(builder.reset(), row)));");
+        println("      return true;");
+        println("    }");
+        println();
+        println("    @Override");
+        println("    public void forEachRemaining(java.util.function.Consumer<? super " + target
+                + "> action) {");
+        println("      source.forEachRemaining(row -> action.accept(create(fill.apply(builder.reset(), row))));");
+        println("    }");
+        println();
+        println("    @Override");
+        println("    public java.util.Spliterator<" + target + "> trySplit() {");
+        println("      java.util.Spliterator<R> split = source.trySplit();");
+        println("      return split == null ? null : new StreamSpliterator<R>(split, fill);");
+        println("    }");
+        println();
+        println("    @Override");
+        println("    public long estimateSize() {");
+        println("      return source.estimateSize();");
+        println("    }");
+        println();
+        println("    @Override");
+        println("    public int characteristics() {");
+        println("      return source.characteristics() & (ORDERED | SIZED | SUBSIZED);");
+        println("    }");
+        println("  }");
+        println();
+        println("  private static final class CollectorState<A> {");
+        println("    final " + notSet + " builder = new " + notSet + "();");
+        println("    A container;");
+        println();
+        println("    CollectorState(A container) {");
+        println("      this.container = container;");
+        println("    }");
+        println("  }");
+        println();
+    }
+
+    /**
+     * buildAsync() reads the parameters on the calling thread and calls the
+     * target on the executor. buildAll() does the same for a batch, with
+     * AsyncBuilds bounding the concurrency.
+     */
+    private void renderAsync() {
+        String builderName = model.builderName;
+        String notSet = builderName + model.notSetGenerics;
+        String isSet = builderName + model.isSetGenerics;
+        boolean isVoid = model.returnType.equals("void");
+        String target = isVoid ? "Void" : model.boxedReturnType;
+        String future = "java.util.concurrent.CompletableFuture<" + target + ">";
+        String futureList = "java.util.concurrent.CompletableFuture<java.util.List<" + target + ">>";
+        String executor = "java.util.concurrent.Executor";
+        String defaultExecutor = "dk.danamlund.yabuilder.AsyncBuilds.defaultExecutor()";
+        String submit = "java.util.concurrent.CompletableFuture."
+            + (isVoid ? "runAsync" : "supplyAsync") + "(() -> create(built), executor)";
+        String batchElement = model.fluent
+            ? builderName + model.isSetGenerics
+            : "java.util.function.Function<" + notSet + ", " + isSet + ">";
+
+        println("  /**");
+        println("   *  Build on {@code executor}, the parameters are read now.");
+        println("   */");
+        if (model.fluent) {
+            println("  public static " + future + " buildAsync(" + executor + " executor, "
+                    + isSet + " builder) {");
+            println("    " + isSet + " built = builder.copy();");
+        } else {
+            println("  public static " + future + " buildAsync(" + executor + " executor,");
+            println("      java.util.function.Function<" + notSet + ", " + isSet + "> builder) {");
+            println("    " + isSet + " built = builder.apply(new " + notSet + "());");
+        }
+        println("    return " + submit + ";");
+        println("  }");
+        println();
+        println("  /**");
+        println("   *  Build on the default executor of AsyncBuilds.");
+        println("   */");
+        if (model.fluent) {
+            println("  public static " + future + " buildAsync(" + isSet + " builder) {");
+            println("    return buildAsync(" + defaultExecutor + ", builder);");
+        } else {
+            println("  public static " + future + " buildAsync(");
+            println("      java.util.function.Function<" + notSet + ", " + isSet + "> builder) {");
+            println("    return buildAsync(" + defaultExecutor + ", builder);");
+        }
+        println("  }");
+        println();
+        println("  /**");
+        println("   *  Build every builder on {@code executor} with at most");
+        println("   *  {@code maxConcurrency} builds at a time, the results are in order.");
+        println("   */");
+        println("  public static " + futureList + " buildAll(");
+        println("      java.util.Collection<? extends " + batchElement + "> builders,");
+        println("      int maxConcurrency, " + executor + " executor) {");
+        println("    java.util.List<java.util.function.Supplier<" + target + ">> builds =");
+        println("        new java.util.ArrayList<>(builders.size());");
+        println("    for (" + batchElement + " builder : builders) {");
+        if (model.fluent) {
+            println("      " + isSet + " built = builder.copy();");
+        } else {
+            println("      " + isSet + " built = builder.apply(new " + notSet + "());");
+        }
+        if (isVoid) {
+            println("      builds.add(() -> {");
+            println("        create(built);");
+            println("        return null;");
+            println("      });");
+        } else {
+            println("      builds.add(() -> create(built));");
+        }
+        println("    }");
+        println("    return dk.danamlund.yabuilder.AsyncBuilds.all(builds, maxConcurrency, executor);");
+        println("  }");
+        println();
+        println("  /**");
+        println("   *  Build every builder on the default executor of AsyncBuilds.");
+        println("   */");
+        println("  public static " + futureList + " buildAll(");
+        println("      java.util.Collection<? extends " + batchElement + "> builders,");
+        println("      int maxConcurrency) {");
+        println("    return buildAll(builders, maxConcurrency, " + defaultExecutor + ");");
+        println("  }");
+        println();
+    }
+
+    /**
+     * lazy() reads the parameters now and leaves calling the target to the
+     * first get() of a LazyBuild, which releases the builder afterwards.
+     */
+    private void renderLazy() {
+        String builderName = model.builderName;
+        String notSet = builderName + model.notSetGenerics;
+        String isSet = builderName + model.isSetGenerics;
+        String lazy = "dk.danamlund.yabuilder.LazyBuild<" + model.boxedReturnType + ">";
+
+        println("  /**");
+        println("   *  Build on the first get(), the parameters are read now.");
+        println("   */");
+        if (model.fluent) {
+            println("  public static " + lazy + " lazy(" + isSet + " builder) {");
+            println("    " + isSet + " built = builder.copy();");
+        } else {
+            println("  public static " + lazy + " lazy(");
+            println("      java.util.function.Function<" + notSet + ", " + isSet + "> builder) {");
+            println("    " + isSet + " built = builder.apply(new " + notSet + "());");
+        }
+        println("    return new " + lazy + "(() -> create(built));");
+        println("  }");
+        println();
+    }
+
+    /**
+     * copy() of fluent builders for buildAsync() and lazy(), the caller may
+     * change or reuse the builder before the target is called.
+     */
+    private void renderCopy() {
+        String isSet = model.builderName + model.isSetGenerics;
+        println("  private " + isSet + " copy() {");
+        renderHandOff("    ", "this");
+        println("    " + isSet + " copy = new " + isSet + "();");
+        for (Param p : model.params) {
+            println("    copy." + p.name + " = " + p.name + ";");
+            if (p.lazy) {
+                println("    copy." + p.name + "Set = " + p.name + "Set;");
+            }
+        }
+        if (model.intern) {
+            println("    copy.hash = hash;");
+        }
+        if (model.runtimeChecked) {
+            for (int chunk = 0; chunk * 64 < model.markers.size(); chunk++) {
+                println("    copy.requiredSet" + chunk + " = requiredSet" + chunk + ";");
+            }
+        }
+        if (model.events) {
+            for (int chunk = 0; chunk * 64 < model.optionals; chunk++) {
+                println("    copy.optionalSet" + chunk + " = optionalSet" + chunk + ";");
+            }
+        }
+        if (model.pooled) {
+            println("    releasedGeneration = generation;");
+        }
+        println("    return copy;");
+        println("  }");
+        println();
+    }
+
+    /**
+     * After the value is set: the lazy default flag, metrics, clearing the rest
+     * of a RequiredOneOf group, and returning the builder with the parameter set.
+     */
+    private void renderSetterEnd(Param p, boolean adder) {
+        if (p.lazy) {
+            println("    this." + p.name + "Set = true;");
+        }
+        if (model.runtimeChecked && p.isMandatory()) {
+            println("    this.requiredSet" + (p.marker / 64) + " |= 0x"
+                    + Long.toHexString(1L << (p.marker % 64)) + "L;");
+        }
+        if (adder) {
+            renderMetricsAdd(p, "    ");
+        } else {
+            renderMetricsSet(p, "    ");
+        }
+        renderOptionalSet(p, "    ");
+        if (p.isRequiredOneOf()) {
+            for (Param groupParam : model.getGroupParams(p)) {
+                if (groupParam != p) {
+                    renderHashUpdate(groupParam, groupParam.zeroValue);
+                    println("    this." + groupParam.name + " = "
+                            + groupParam.zeroValue + ";");
+                    if (groupParam.hasAdder()) {
+                        println("    this." + groupParam.name + "Added = null;");
+                    }
+                }
+            }
+        }
+        if (isPhantom(p)) {
+            println("    return ("
+                    + model.builderName
+                    + p.setterGenerics
+                    + ") this;");
+        } else {
+            println("    return this;");
+        }
+    }
+
+    /**
+     * Template holds a prototype builder that is never changed after the
+     * constructor, so the final field publishes it safely. build() copies it
+     * into a new builder, which C2 can scalar-replace like any other.
+     */
+    private void renderTemplate() {
+        String builderName = model.builderName;
+        String generics = model.classGenerics;
+        String templateType = "Template" + model.classGenerics;
+        String builderType = builderName + model.classGenerics;
+
+        println("  /**");
+        println("   *  Freeze the parameters set by {@code template} for building");
+        println("   *  many similar targets, see Template.");
+        println("   */");
+        if (model.fluent) {
+            println("  public " + templateType + " template() {");
+            println("    return new " + templateType + "(this);");
+        } else {
+            println("  public static " + (generics.isEmpty() ? "" : generics + " ") + templateType
+                    + " template(");
+            println("      java.util.function.Function<" + builderName + model.notSetGenerics
+                    + ", " + builderType + "> template) {");
+            println("    return new " + templateType + "(template.apply(new " + builderName
+                    + model.notSetGenerics + "()));");
+        }
+        println("  }");
+        println();
+
+        println("  private void copyFrom(" + builderName + model.wildcardGenerics + " from) {");
+        for (Param p : model.params) {
+            println("    this." + p.name + " = from." + p.name + ";");
+            if (p.lazy) {
+                println("    this." + p.name + "Set = from." + p.name + "Set;");
+            }
+        }
+        if (model.intern) {
+            println("    this.hash = from.hash;");
+        }
+        if (model.runtimeChecked) {
+            for (int chunk = 0; chunk * 64 < model.markers.size(); chunk++) {
+                println("    this.requiredSet" + chunk + " = from.requiredSet" + chunk + ";");
+            }
+        }
+        if (model.events) {
+            for (int chunk = 0; chunk * 64 < model.optionals; chunk++) {
+                println("    this.optionalSet" + chunk + " = from.optionalSet" + chunk + ";");
+            }
+        }
+        println("  }");
+        println();
+
+        println("  /**");
+        println("   *  Immutable parameters shared by many builds, safe to use from any thread.");
+        println("   */");
+        println("  public static final class Template" + generics + " {");
+        println("    private final " + builderType + " prototype;");
+        println();
+        println("    private Template(" + builderType + " from) {");
+        renderHandOff("      ", "from");
+        println("      " + builderType + " prototype = new " + builderType + "();");
+        println("      prototype.copyFrom(from);");
+        for (Param p : model.params) {
+            if (p.lazy) {
+                println("      if (!prototype." + p.name + "Set) {");
+                println("        prototype." + p.name + " = " + p.initialValue + ";");
+                println("        prototype." + p.name + "Set = true;");
+                println("      }");
+            }
+        }
+        if (model.intern) {
+            println("      prototype.hash = prototype.computeHash();");
+        }
+        println("      this.prototype = prototype;");
+        println("    }");
+        println();
+        if (model.fluent) {
+            println("    /**");
+            println("     *  A new builder with the parameters of the template.");
+            println("     */");
+            println("    public " + builderType + " start() {");
+            println("      " + builderType + " builder = new " + builderType + "();");
+            println("      builder.copyFrom(prototype);");
+            println("      return builder;");
+            println("    }");
+            println();
+        }
+        println("    /**");
+        println("     *  Build with the parameters of the template and those set by {@code builder}.");
+        println("     */");
+        println("    public " + model.returnType + " build(java.util.function.Function<"
+                + builderType + ", " + builderName + model.isSetGenerics + "> builder) {");
+        println("      " + builderType + " copy = new " + builderType + "();");
+        println("      copy.copyFrom(prototype);");
+        println("      " + builderName + model.isSetGenerics + " built = builder.apply(copy);");
+        renderCreate("      ", "built");
+        println("    }");
+        println("  }");
+        println();
+    }
+
+    private boolean isPhantom(Param p) {
+        return p.isMandatory() && !model.runtimeChecked;
+    }
+
+    /** All markers of a chunk of requiredSet set. */
+    private String requiredMask(int chunk) {
+        int bits = Math.min(64, model.markers.size() - chunk * 64);
+        return "0x" + Long.toHexString(bits == 64 ? -1L : (1L << bits) - 1) + "L";
+    }
+
+    /**
+     * build() of runtime-checked builders, one compare per 64 required parameters
+     * and groups.
+     */
+    private void renderRequiredCheck(String indent, String builder) {
+        if (!model.runtimeChecked || !model.hasMandatorys()) {
+            return;
+        }
+        StringBuilder check = new StringBuilder();
+        for (int chunk = 0; chunk * 64 < model.markers.size(); chunk++) {
+            check.append(chunk == 0 ? "" : " || ").append(builder).append(".requiredSet")
+                .append(chunk).append(" != ").append(requiredMask(chunk));
+        }
+        println(indent + "if (" + check + ") {");
+        println(indent + "  throw " + builder + ".missing();");
+        println(indent + "}");
+    }
+
+    private void renderMissing() {
+        List<String> names = model.getMarkerNames();
+        println("  private IllegalStateException missing() {");
+        println("    StringBuilder missing = new StringBuilder();");
+        for (int marker = 0; marker < names.size(); marker++) {
+            println("    if ((this.requiredSet" + (marker / 64) + " & 0x"
+                    + Long.toHexString(1L << (marker % 64)) + "L) == 0) {");
+            println("      missing.append(\", " + names.get(marker) + "\");");
+            println("    }");
+        }
+        println("    return new IllegalStateException(\"" + model.builderName
+                + ": missing \" + missing.substring(2));");
+        println("  }");
+        println();
+    }
+
+    /**
+     * The adder appends to nameAdded, which the builder owns. Collections are
+     * handed to the target as an unmodifiable view of the buffer, which is the
+     * value of the field as soon as the buffer exists. The existing value of
+     * the field is copied into a new buffer.
+     */
+    private void renderAdders(Param p) {
+        String builderName = model.builderName;
+        String field = "this." + p.name;
+        String buffer = field + "Added";
+        String size = field + "Size";
+        String element = p.adder == Adder.MAP ? "value" : "element";
+        String key = "key";
+
+        println("  /**");
+        if (p.adder == Adder.MAP) {
+            println("   *  Put into " + p.name + ", the builder owns the map.");
+        } else {
+            println("   *  Add to " + p.name + ", the builder owns the "
+                    + (p.adder == Adder.ARRAY ? "array" : "collection") + ".");
+        }
+        println("   */");
+        if (isPhantom(p)) {
+            println("  @SuppressWarnings(\"unchecked\")");
+        }
+        if (p.adder == Adder.MAP) {
+            println("  public " + builderName + p.setterGenerics + " " + p.adderName + "("
+                    + p.elementType + " " + key + ", " + p.valueType + " " + element + ") {");
+            println("    " + p.name + "Buffer(0).put(" + key + ", " + element + ");");
+        } else if (p.adder == Adder.ARRAY) {
+            println("  public " + builderName + p.setterGenerics + " " + p.adderName + "("
+                    + p.elementType + " " + element + ") {");
+            println("    " + p.name + "Buffer(1);");
+            println("    " + buffer + "[" + size + "++] = " + element + ";");
+        } else {
+            println("  public " + builderName + p.setterGenerics + " " + p.adderName + "("
+                    + p.elementType + " " + element + ") {");
+            println("    " + p.name + "Buffer(0).add(" + element + ");");
+        }
+        renderSetterEnd(p, true);
+        println("  }");
+        println();
+
+        if (p.arrayAdderName != null) {
+            println("  /**");
+            println("   *  Add every element to " + p.name + ", the builder owns the array.");
+            println("   */");
+            if (isPhantom(p)) {
+                println("  @SuppressWarnings(\"unchecked\")");
+            }
+            println("  public " + builderName + p.setterGenerics + " " + p.arrayAdderName + "("
+                    + p.elementType + "... elements) {");
+            println("    " + p.name + "Buffer(elements.length);");
+            println("    System.arraycopy(elements, 0, " + buffer + ", " + size
+                    + ", elements.length);");
+            println("    " + size + " += elements.length;");
+            renderSetterEnd(p, true);
+            println("  }");
+            println();
+        }
+
+        println("  /**");
+        println("   *  Room for {@code capacity} elements in " + p.name + ".");
+        println("   */");
+        println("  public " + builderName + model.classGenerics + " " + p.name
+                + "Capacity(int capacity) {");
+        if (p.adder == Adder.ARRAY) {
+            println("    " + p.name + "Buffer(0);");
+            println("    " + p.name + "Buffer(capacity - " + size + ");");
+        } else if (p.adder == Adder.LIST) {
+            println("    " + p.name + "Buffer(capacity).ensureCapacity(capacity);");
+        } else {
+            println("    " + p.name + "Buffer(capacity);");
+        }
+        println("    return this;");
+        println("  }");
+        println();
+
+        // Creating a buffer does not set the parameter, the adders and setters do,
+        // so a capacity alone keeps a lazy default
+        if (p.adder == Adder.ARRAY) {
+            // Room for extra more elements
+            println("  private void " + p.name + "Buffer(int extra) {");
+            println("    if (" + buffer + " == null) {");
+            println("      " + size + " = " + field + " == null ? 0 : " + field + ".length;");
+            println("      " + buffer + " = new " + p.elementType + "[Math.max(10, " + size
+                    + " + extra)];");
+            println("      if (" + field + " != null) {");
+            println("        System.arraycopy(" + field + ", 0, " + buffer + ", 0, " + size + ");");
+            println("      }");
+            println("    } else if (" + size + " + extra > " + buffer + ".length) {");
+            println("      " + buffer + " = java.util.Arrays.copyOf(" + buffer + ", Math.max("
+                    + size + " + extra, 2 * " + buffer + ".length));");
+            println("    }");
+            println("  }");
+        } else {
+            String bufferType = getBufferType(p);
+            String initialCapacity = p.adder == Adder.LIST
+                ? "Math.max(10, capacity)"
+                : "Math.max(16, (int) (capacity / 0.75f) + 1)";
+            println("  private " + bufferType + " " + p.name + "Buffer(int capacity) {");
+            println("    if (" + buffer + " == null) {");
+            println("      " + buffer + " = new " + bufferType + "(" + initialCapacity + ");");
+            println("      if (" + field + " != null) {");
+            println("        " + buffer + "." + (p.adder == Adder.MAP ? "putAll" : "addAll")
+                    + "(" + field + ");");
+            println("      }");
+            println("      " + field + " = java.util.Collections." + p.adder.view + "(" + buffer + ");");
+            println("    }");
+            println("    return " + buffer + ";");
+            println("  }");
+        }
+        println();
+    }
+
+    private static String getBufferType(Param p) {
+        if (p.adder == Adder.MAP) {
+            return p.adder.buffer + "<" + p.elementType + ", " + p.valueType + ">";
+        }
+        return p.adder.buffer + "<" + p.elementType + ">";
+    }
+
+    /**
+     * Give the buffers of the adders to the target, the next adder call on the
+     * builder starts a new buffer. Arrays are trimmed unless they are full.
+     */
+    private void renderHandOff(String indent, String builder) {
+        for (Param p : model.params) {
+            if (!p.hasAdder()) {
+                continue;
+            }
+            String buffer = builder + "." + p.name + "Added";
+            if (p.adder == Adder.ARRAY) {
+                println(indent + "if (" + buffer + " != null) {");
+                println(indent + "  " + builder + "." + p.name + " = " + builder + "." + p.name
+                        + "Size == " + buffer + ".length ? " + buffer + " : java.util.Arrays.copyOf("
+                        + buffer + ", " + builder + "." + p.name + "Size);");
+                println(indent + "  " + buffer + " = null;");
+                println(indent + "}");
+            } else {
+                println(indent + buffer + " = null;");
+            }
+        }
+    }
+
+    private String getStagedSetterType(Param p) {
+        return p.isMandatory() ? model.nextStage(p.marker) : BuilderModel.BUILD_STAGE;
+    }
+
+    private String getReturnPrefix() {
+        if (model.constructor) {
+            return "return new ";
+        } else if (model.returnType.equals("void")) {
+            return "";
+        } else {
+            return "return ";
+        }
+    }
+
+    private void renderFields() {
+        renderMetricsField();
+        renderConstants();
+        for (Param p : model.params) {
+            renderField(p, "  ");
+            if (p.adder == Adder.ARRAY) {
+                println("  private " + p.elementType + "[] " + p.name + "Added;");
+                println("  private int " + p.name + "Size;");
+            } else if (p.hasAdder()) {
+                println("  private " + getBufferType(p) + " " + p.name + "Added;");
+            }
+        }
+        if (model.runtimeChecked) {
+            for (int chunk = 0; chunk * 64 < model.markers.size(); chunk++) {
+                println("  private long requiredSet" + chunk + ";");
+            }
+        }
+        renderOptionalSetFields("  ");
+        if (model.intern) {
+            // Kept up to date by the setters, so build() does not hash every parameter
+            println("  private int hash = computeHash();");
+        }
+        println();
+    }
+
+    private void renderMetricsField() {
+        if (!model.metrics) {
+            return;
+        }
+        StringBuilder optionals = new StringBuilder();
+        for (Param p : model.params) {
+            if (p.metricsIndex >= 0) {
+                optionals.append(", \"").append(p.name).append('"');
+            }
+        }
+        println("  private static final dk.danamlund.yabuilder.BuilderMetrics METRICS =");
+        println("    dk.danamlund.yabuilder.BuilderMetrics.register(\""
+                + model.builderQualifiedName + "\"" + optionals + ");");
+        println();
+    }
+
+    private void renderMetricsSet(Param p, String indent) {
+        if (model.metrics && p.metricsIndex >= 0) {
+            println(indent + "METRICS.set(" + p.metricsIndex + ");");
+        }
+    }
+
+    private void renderMetricsAdd(Param p, String indent) {
+        if (model.metrics && p.metricsIndex >= 0) {
+            println(indent + "METRICS.add(" + p.metricsIndex + ");");
+        }
+    }
+
+    private void renderOptionalSetFields(String indent) {
+        if (model.events) {
+            for (int chunk = 0; chunk * 64 < model.optionals; chunk++) {
+                println(indent + "private long optionalSet" + chunk + ";");
+            }
+        }
+    }
+
+    private void renderOptionalSet(Param p, String indent) {
+        if (model.events && p.metricsIndex >= 0) {
+            println(indent + "this.optionalSet" + (p.metricsIndex / 64) + " |= 0x"
+                    + Long.toHexString(1L << (p.metricsIndex % 64)) + "L;");
+        }
+    }
+
+    /** All optional parameters of a chunk of optionalSet set. */
+    private String optionalMask(int chunk) {
+        int bits = Math.min(64, model.optionals - chunk * 64);
+        return "0x" + Long.toHexString(bits == 64 ? -1L : (1L << bits) - 1) + "L";
+    }
+
+    /**
+     * The set bits, each after {@code prefix}, one long per 64 parameters: set0, ...
+     * of Dynamic by index, or optionalSet0, ... by metrics index.
+     */
+    private String getSetBits(String prefix, boolean dynamic) {
+        StringBuilder bits = new StringBuilder();
+        int count = dynamic ? model.params.size() : model.optionals;
+        for (int chunk = 0; chunk * 64 < count; chunk++) {
+            bits.append(chunk == 0 ? "" : ", ").append(prefix)
+                .append(dynamic ? "set" : "optionalSet").append(chunk);
+        }
+        return bits.toString();
+    }
+
+    /**
+     * The optional parameters that were set, for the build event. Only called
+     * for builds that are recorded. Static and given the set bits, so the
+     * builder does not escape through the rarely taken commit.
+     *
+     * @param dynamic Whether to read the set bits of Dynamic instead of optionalSet.
+     */
+    private void renderParametersSet(String indent, boolean dynamic) {
+        println(indent + "private static String parametersSet("
+                + getSetBits("long ", dynamic) + ") {");
+        println(indent + "  StringBuilder set = new StringBuilder();");
+        for (Param p : model.params) {
+            if (p.metricsIndex < 0) {
+                continue;
+            }
+            if (dynamic) {
+                println(indent + "  if ((" + bit(p) + " & " + mask(p) + ") != 0) {");
+            } else {
+                println(indent + "  if ((optionalSet" + (p.metricsIndex / 64) + " & 0x"
+                        + Long.toHexString(1L << (p.metricsIndex % 64)) + "L) != 0) {");
+            }
+            println(indent + "    set.append(\", " + p.name + "\");");
+            println(indent + "  }");
+        }
+        println(indent + "  return set.length() == 0 ? \"\" : set.substring(2);");
+        println(indent + "}");
+    }
+
+    /**
+     * {@literal @}Default(constant = true) values, evaluated once per builder class.
+     */
+    private void renderConstants() {
+        if (!model.hasConstants()) {
+            return;
+        }
+        for (Param p : model.params) {
+            if (p.constant) {
+                println("  private static final " + p.type + " " + p.getConstantName() + " = "
+                        + p.initialValue + ";");
+            }
+        }
+        println();
+    }
+
+    /**
+     * The field of a parameter, a lazy default gets a {@code nameSet} flag instead of
+     * an initializer.
+     */
+    private void renderField(Param p, String indent) {
+        if (p.lazy) {
+            println(indent + "private " + p.type + " " + p.name + ";");
+            println(indent + "private boolean " + p.name + "Set;");
+        } else if (p.hasDefault()) {
+            println(indent + "private " + p.type + " " + p.name + " = " + p.getResetValue() + ";");
+        } else {
+            println(indent + "private " + p.type + " " + p.name + ";");
+        }
+    }
+
+    private void renderSetterDoc(Param p, String indent) {
+        println(indent + "/**");
+        if (p.isMandatory()) {
+            if (p.isRequiredOneOf()) {
+                println(indent + " *  Requires one of: " + BuilderModel.getNames(model.getGroupParams(p)) + ".");
+            } else {
+                println(indent + " *  Required.");
+            }
+        } else {
+            if (p.hasDefault()) {
+                println(indent + " *  Optional (default: " + p.defaultValue + ").");
+            } else {
+                println(indent + " *  Optional.");
+            }
+        }
+        println(indent + " */");
+    }
+
+    private void renderColumns() {
+        String builderName = model.builderName;
+        String columnsName = "Columns";
+        println("  /**");
+        println("   *  Set every parameter to a column or a single value, and build all rows.");
+        println("   */");
+        println("  public static " + columnsName + model.isSetGenerics
+                + " columns(java.util.function.Function<"
+                + columnsName + model.notSetGenerics + ", "
+                + columnsName + model.isSetGenerics + "> columns) {");
+        println("    return columns.apply(new " + columnsName + model.notSetGenerics
+                + "());");
+        println("  }");
+        println();
+
+        println("  public static final class " + columnsName
+                + model.classGenerics + " {");
+        println("    private int rows = -1;");
+        for (Param p : model.params) {
+            println("    private " + p.type + "[] " + p.name + "Column;");
+            if (p.lazy) {
+                // Evaluated per row unless set, it may be mutable
+                println("    private " + p.type + " " + p.name + ";");
+                println("    private boolean " + p.name + "Set;");
+            } else if (p.hasDefault()) {
+                println("    private " + p.type + " " + p.name + " = "
+                        + (p.constant ? p.getConstantName() : p.initialValue) + ";");
+            } else {
+                println("    private " + p.type + " " + p.name + ";");
+            }
+        }
+        println();
+        println("    private " + columnsName + "() {");
+        println("    }");
+        println();
+
+        // Setter methods, a column and a single value for each parameter
+        for (Param p : model.params) {
+            for (boolean column : Arrays.asList(true, false)) {
+                if (p.isMandatory()) {
+                    println("    @SuppressWarnings(\"unchecked\")");
+                }
+                println("    public " + columnsName + p.setterGenerics
+                        + " " + p.name + "(" + p.type + (column ? "[] " : " ")
+                        + p.name + ") {");
+                if (column) {
+                    println("      this." + p.name + "Column = " + p.name + ";");
+                } else {
+                    println("      this." + p.name + "Column = null;");
+                    println("      this." + p.name + " = " + p.name + ";");
+                    if (p.lazy) {
+                        println("      this." + p.name + "Set = true;");
+                    }
+                }
+                if (p.isRequiredOneOf()) {
+                    for (Param groupParam : model.getGroupParams(p)) {
+                        if (groupParam != p) {
+                            println("      this." + groupParam.name + "Column = null;");
+                            println("      this." + groupParam.name + " = "
+                                    + groupParam.zeroValue + ";");
+                        }
+                    }
+                }
+                if (p.isMandatory()) {
+                    println("      return (" + columnsName + p.setterGenerics
+                            + ") this;");
+                } else {
+                    println("      return this;");
+                }
+                println("    }");
+                println();
+            }
+        }
+
+        println("    /**");
+        println("     *  Number of rows, only needed if no parameter is set to a column.");
+        println("     */");
+        println("    public " + columnsName + model.classGenerics + " rows(int rows) {");
+        println("      this.rows = rows;");
+        println("      return this;");
+        println("    }");
+        println();
+
+        println("    private int rows() {");
+        println("      int rows = this.rows;");
+        for (Param p : model.params) {
+            println("      if (" + p.name + "Column != null) {");
+            println("        if (rows < 0) {");
+            println("          rows = " + p.name + "Column.length;");
+            println("        } else if (rows != " + p.name + "Column.length) {");
+            println("          throw new IllegalArgumentException(\"" + builderName + "."
+                    + columnsName + ": " + p.name + " has \" + " + p.name
+                    + "Column.length + \" rows, expected \" + rows);");
+            println("        }");
+            println("      }");
+        }
+        println("      if (rows < 0) {");
+        println("        throw new IllegalStateException(\"" + builderName + "."
+                + columnsName + ": no columns set, use rows(int)\");");
+        println("      }");
+        println("      return rows;");
+        println("    }");
+        println();
+
+        StringBuilder row = new StringBuilder();
+        for (Param p : model.params) {
+            if (row.length() > 0) {
+                row.append(", ");
+            }
+            row.append(p.name + "Column != null ? " + p.name + "Column[i] : ");
+            if (p.lazy) {
+                row.append(p.name + "Set ? " + p.name + " : " + p.initialValue);
+            } else {
+                row.append(p.name);
+            }
+        }
+        String rowCall = model.targetQualifiedName + "(" + row + ")";
+        if (model.constructor) {
+            rowCall = "new " + rowCall;
+        }
+
+        if (model.returnType.equals("void")) {
+            println("    public void invokeAll() {");
+            println("      int rows = rows();");
+            println("      for (int i = 0; i < rows; i++) {");
+            println("        " + rowCall + ";");
+            println("      }");
+            println("    }");
+        } else {
+            if (model.canCreateArray) {
+                println("    public " + model.returnType + "[] buildArray() {");
+                println("      int rows = rows();");
+                println("      " + model.returnType + "[] built = new "
+                        + model.returnType.replaceFirst("^([^\\[]*)", "$1[rows]") + ";");
+                println("      for (int i = 0; i < rows; i++) {");
+                println("        built[i] = " + rowCall + ";");
+                println("      }");
+                println("      return built;");
+                println("    }");
+                println();
+            }
+            String elementType = model.boxedReturnType;
+            println("    public java.util.List<" + elementType + "> buildList() {");
+            println("      int rows = rows();");
+            println("      java.util.List<" + elementType + "> built = new java.util.ArrayList<"
+                    + elementType + ">(rows);");
+            println("      for (int i = 0; i < rows; i++) {");
+            println("        built.add(" + rowCall + ");");
+            println("      }");
+            println("      return built;");
+            println("    }");
+        }
+        println("  }");
+        println();
+    }
+
+    /**
+     * Rows keeps the parameters of each row at fixed offsets in a ByteBuffer,
+     * references as indexes into a side table, and Row writes one row straight
+     * into it. Targets are only created by build(row).
+     */
+    private void renderOffHeap() {
+        String builderName = model.builderName;
+        String rowType = "Row" + model.notSetGenerics;
+        boolean references = false;
+        for (Param p : model.params) {
+            references |= !p.kind.isPrimitive();
+        }
+        println("  /**");
+        println("   *  Rows in a direct buffer of {@code capacity} rows, grown as needed.");
+        println("   */");
+        println("  public static Rows rows(int capacity) {");
+        println("    return new Rows(java.nio.ByteBuffer.allocateDirect("
+                + "Math.multiplyExact(capacity, Rows.ROW_BYTES))");
+        println("                    .order(java.nio.ByteOrder.nativeOrder()), true);");
+        println("  }");
+        println();
+        println("  /**");
+        println("   *  Rows in {@code buffer} from its position, for example a memory-mapped");
+        println("   *  file. Adding more rows than fit throws BufferOverflowException.");
+        println("   */");
+        println("  public static Rows rows(java.nio.ByteBuffer buffer) {");
+        println("    return new Rows(buffer.slice().order(buffer.order()), false);");
+        println("  }");
+        println();
+
+        println("  public static final class Rows {");
+        println("    /** Bytes of a row. */");
+        println("    public static final int ROW_BYTES = " + model.rowBytes + ";");
+        for (Param p : model.params) {
+            println("    private static final int " + p.getOffsetName() + " = " + p.offset + ";");
+        }
+        println();
+        println("    private java.nio.ByteBuffer buffer;");
+        println("    private final boolean growable;");
+        if (references) {
+            println("    private final java.util.ArrayList<Object> objects = "
+                    + "new java.util.ArrayList<>();");
+        }
+        println("    private final " + rowType + " row = new " + rowType + "(this);");
+        println("    private int size;");
+        println();
+        println("    private Rows(java.nio.ByteBuffer buffer, boolean growable) {");
+        println("      this.buffer = buffer;");
+        println("      this.growable = growable;");
+        println("    }");
+        println();
+
+        println("    /**");
+        println("     *  Write the parameters of a row, return its index.");
+        println("     */");
+        println("    public int add(java.util.function.Function<" + rowType + ", Row"
+                + model.isSetGenerics + "> values) {");
+        println("      int base = size * ROW_BYTES;");
+        println("      if (buffer.capacity() - base < ROW_BYTES) {");
+        println("        grow();");
+        println("      }");
+        println("      row.start(base);");
+        if (references) {
+            // The entries of a failed row are the last ones of the side table
+            println("      int entries = objects.size();");
+            println("      try {");
+            println("        values.apply(row).finish();");
+            println("      } catch (Throwable t) {");
+            println("        objects.subList(entries, objects.size()).clear();");
+            println("        throw t;");
+            println("      }");
+        } else {
+            println("      values.apply(row).finish();");
+        }
+        println("      return size++;");
+        println("    }");
+        println();
+        println("    private void grow() {");
+        println("      long bytes = Math.max(2L * buffer.capacity(), (long) (size + 1) * ROW_BYTES);");
+        println("      bytes = Math.min(bytes, Integer.MAX_VALUE / ROW_BYTES * ROW_BYTES);");
+        println("      if (!growable || bytes < (long) (size + 1) * ROW_BYTES) {");
+        println("        throw new java.nio.BufferOverflowException();");
+        println("      }");
+        println("      java.nio.ByteBuffer grown = java.nio.ByteBuffer.allocateDirect((int) bytes)");
+        println("        .order(buffer.order());");
+        // Through Buffer, which has these methods on Java 8
+        println("      java.nio.Buffer used = buffer.duplicate();");
+        println("      used.clear();");
+        println("      used.limit(size * ROW_BYTES);");
+        println("      grown.put((java.nio.ByteBuffer) used);");
+        println("      buffer = grown;");
+        println("    }");
+        println();
+        println("    public int size() {");
+        println("      return size;");
+        println("    }");
+        println();
+        println("    /**");
+        println("     *  Remove every row, the buffer is reused.");
+        println("     */");
+        println("    public void clear() {");
+        println("      size = 0;");
+        if (references) {
+            println("      objects.clear();");
+        }
+        println("    }");
+        println();
+
+        StringBuilder arguments = new StringBuilder();
+        for (Param p : model.params) {
+            arguments.append(arguments.length() == 0 ? "" : ", ").append(getRowValue(p, "base"));
+        }
+        boolean unchecked = false;
+        for (Param p : model.params) {
+            unchecked |= !p.kind.isPrimitive() && !p.type.equals(p.erasure);
+        }
+        println("    /**");
+        println("     *  Create the target of {@code row}.");
+        println("     */");
+        if (unchecked) {
+            println("    @SuppressWarnings(\"unchecked\")");
+        }
+        println("    public " + model.returnType + " build(int row) {");
+        println("      int base = base(row);");
+        println("      " + getReturnPrefix() + model.targetQualifiedName + "(" + arguments + ");");
+        println("    }");
+        println();
+
+        // One reader per parameter, to filter rows before building them
+        for (Param p : model.params) {
+            if (!p.kind.isPrimitive() && !p.type.equals(p.erasure)) {
+                println("    @SuppressWarnings(\"unchecked\")");
+            }
+            println("    public " + p.type + " " + p.name + "(int row) {");
+            println("      return " + getRowValue(p, "base(row)") + ";");
+            println("    }");
+            println();
+        }
+
+        println("    private int base(int row) {");
+        println("      if (row < 0 || row >= size) {");
+        println("        throw new IndexOutOfBoundsException(\"" + builderName
+                + ".Rows: row \" + row + \", size \" + size);");
+        println("      }");
+        println("      return row * ROW_BYTES;");
+        println("    }");
+        if (references) {
+            println();
+            println("    private int index(Object value, int previous) {");
+            println("      if (previous >= 0) {");
+            println("        objects.set(previous, value);");
+            println("        return previous;");
+            println("      }");
+            println("      if (value == null) {");
+            println("        return -1;");
+            println("      }");
+            println("      objects.add(value);");
+            println("      return objects.size() - 1;");
+            println("    }");
+            println();
+            println("    private void release(int index) {");
+            println("      if (index >= 0) {");
+            println("        objects.set(index, null);");
+            println("      }");
+            println("    }");
+            println();
+            println("    private Object object(int index) {");
+            println("      return index < 0 ? null : objects.get(index);");
+            println("    }");
+        }
+        println("  }");
+        println();
+
+        println("  /**");
+        println("   *  Writes the parameters of one row straight into the buffer of its Rows.");
+        println("   */");
+        println("  public static final class Row" + model.classGenerics + " {");
+        println("    private final Rows rows;");
+        println("    private java.nio.ByteBuffer buffer;");
+        println("    private int base;");
+        for (int chunk = 0; chunk * 64 < model.params.size(); chunk++) {
+            println("    private long set" + chunk + ";");
+        }
+        println();
+        println("    private Row(Rows rows) {");
+        println("      this.rows = rows;");
+        println("    }");
+        println();
+        for (Param p : model.params) {
+            renderSetterDoc(p, "    ");
+            if (p.isMandatory()) {
+                println("    @SuppressWarnings(\"unchecked\")");
+            }
+            println("    public Row" + p.setterGenerics + " " + p.name + "(" + p.type + " "
+                    + p.name + ") {");
+            if (p.kind.isPrimitive()) {
+                println("      " + getRowPut(p, p.name) + ";");
+            } else {
+                // Set again, the value replaces its own entry in the side table
+                println("      " + getRowPut(p, p.name, "(this." + bit(p) + " & " + mask(p)
+                                             + ") != 0 ? this.buffer.getInt(this.base + Rows."
+                                             + p.getOffsetName() + ") : -1") + ";");
+            }
+            println("      this." + bit(p) + " |= " + mask(p) + ";");
+            if (p.isRequiredOneOf()) {
+                for (Param groupParam : model.getGroupParams(p)) {
+                    if (groupParam != p) {
+                        if (!groupParam.kind.isPrimitive()) {
+                            // Drop the value of the other member from the side table
+                            println("      if ((this." + bit(groupParam) + " & " + mask(groupParam)
+                                    + ") != 0) {");
+                            println("        this.rows.release(this.buffer.getInt(this.base + Rows."
+                                    + groupParam.getOffsetName() + "));");
+                            println("      }");
+                        }
+                        println("      this." + bit(groupParam) + " &= ~" + mask(groupParam) + ";");
+                    }
+                }
+            }
+            if (p.isMandatory()) {
+                println("      return (Row" + p.setterGenerics + ") this;");
+            } else {
+                println("      return this;");
+            }
+            println("    }");
+            println();
+        }
+        println("    private void start(int base) {");
+        println("      this.buffer = rows.buffer;");
+        println("      this.base = base;");
+        for (int chunk = 0; chunk * 64 < model.params.size(); chunk++) {
+            println("      this.set" + chunk + " = 0L;");
+        }
+        println("    }");
+        println();
+        // The buffer may hold an earlier row, write everything that was not set
+        println("    private void finish() {");
+        for (Param p : model.params) {
+            if (p.isMandatory() && !p.isRequiredOneOf()) {
+                continue;
+            }
+            String value = p.constant ? p.getConstantName()
+                : p.hasDefault() ? p.initialValue : p.zeroValue;
+            println("      if ((this." + bit(p) + " & " + mask(p) + ") == 0) {");
+            println("        " + getRowPut(p, value) + ";");
+            println("      }");
+        }
+        println("    }");
+        println("  }");
+        println();
+    }
+
+    /** Write {@code value} of {@code p} into the row of a Row, a reference into a new entry. */
+    private static String getRowPut(Param p, String value) {
+        return getRowPut(p, value, "-1");
+    }
+
+    /**
+     * Write {@code value} of {@code p} into the row of a Row, a reference into
+     * the entry {@code previous} of the side table or a new one if that is -1.
+     * Fields through this, a parameter may shadow them.
+     */
+    private static String getRowPut(Param p, String value, String previous) {
+        String at = "this.base + Rows." + p.getOffsetName() + ", ";
+        switch (p.kind) {
+        case BOOLEAN: return "this.buffer.put(" + at + "(byte) (" + value + " ? 1 : 0))";
+        case BYTE: return "this.buffer.put(" + at + value + ")";
+        case CHAR: return "this.buffer.putChar(" + at + value + ")";
+        case SHORT: return "this.buffer.putShort(" + at + value + ")";
+        case INT: return "this.buffer.putInt(" + at + value + ")";
+        case LONG: return "this.buffer.putLong(" + at + value + ")";
+        case FLOAT: return "this.buffer.putFloat(" + at + value + ")";
+        case DOUBLE: return "this.buffer.putDouble(" + at + value + ")";
+        default: return "this.buffer.putInt(" + at + "this.rows.index(" + value + ", " + previous + "))";
+        }
+    }
+
+    /** Read {@code p} of the row at {@code base} in Rows. */
+    private static String getRowValue(Param p, String base) {
+        String at = base + " + " + p.getOffsetName();
+        switch (p.kind) {
+        case BOOLEAN: return "buffer.get(" + at + ") != 0";
+        case BYTE: return "buffer.get(" + at + ")";
+        case CHAR: return "buffer.getChar(" + at + ")";
+        case SHORT: return "buffer.getShort(" + at + ")";
+        case INT: return "buffer.getInt(" + at + ")";
+        case LONG: return "buffer.getLong(" + at + ")";
+        case FLOAT: return "buffer.getFloat(" + at + ")";
+        case DOUBLE: return "buffer.getDouble(" + at + ")";
+        default: return "(" + p.type + ") object(buffer.getInt(" + at + "))";
+        }
+    }
+}
@@ -12,6 +12,10 @@ import java.lang.annotation.Target;
  * <p>
  * Parameters of type String will automatically get surrounded by "". So 
  * {@code @Default("\"foo\"")} generates {@code String s = "\"\"foo\"\"";}.
+ * <p>
+ * Literals are field initializers of the builder. Other expressions are only
+ * evaluated by {@code build()}, and only if the parameter was not set, unless
+ * {@code constant = true}.
  *
  * @see dk.danamlund.yabuilder.Builder
  * @see dk.danamlund.yabuilder.Required
@@ -20,4 +24,11 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.SOURCE)
 public @interface Default {
     String value();
+
+    /**
+     * @return Whether to evaluate the expression once, into a
+     *     {@code private static final} field of the builder. Only for pure
+     *     expressions whose result is immutable or never modified.
+     */
+    boolean constant() default false;
 }
@@ -0,0 +1,105 @@
+package dk.danamlund.yabuilder;
+
+import java.util.List;
+
+/**
+ * A builder populated by parameter name or ordinal, generated by
+ * {@literal @}Builder(dynamic = true) as {@code XBuilder.dynamic()}.
+ * <p>
+ * Meant for decoders of JSON, CSV and messages: look up the ordinal of each field
+ * name once with {@link #ordinal(CharSequence)}, and then set values with the
+ * setter of their primitive type, without reflection and without boxing. A setter
+ * of the wrong type for the parameter throws {@link IllegalArgumentException},
+ * {@link #setObject(int, Object)} also unboxes into primitive parameters, and
+ * throws {@link IllegalArgumentException} for null or another box.
+ * Required parameters are checked by {@link #build()}.
+ *
+ * @param <T> The built type, {@link Void} for void methods.
+ */
+public interface DynamicBuilder<T> {
+    /** Names of the parameters, indexed by ordinal. */
+    List<String> getNames();
+
+    /** Erased types of the parameters, indexed by ordinal. */
+    List<Class<?>> getTypes();
+
+    /** The ordinal of the parameter called {@code name}, or -1. */
+    int ordinal(CharSequence name);
+
+    DynamicBuilder<T> setBoolean(int ordinal, boolean value);
+
+    DynamicBuilder<T> setByte(int ordinal, byte value);
+
+    DynamicBuilder<T> setChar(int ordinal, char value);
+
+    DynamicBuilder<T> setShort(int ordinal, short value);
+
+    DynamicBuilder<T> setInt(int ordinal, int value);
+
+    DynamicBuilder<T> setLong(int ordinal, long value);
+
+    DynamicBuilder<T> setFloat(int ordinal, float value);
+
+    DynamicBuilder<T> setDouble(int ordinal, double value);
+
+    DynamicBuilder<T> setObject(int ordinal, Object value);
+
+    default DynamicBuilder<T> set(CharSequence name, boolean value) {
+        return setBoolean(ordinalOf(name), value);
+    }
+
+    default DynamicBuilder<T> set(CharSequence name, byte value) {
+        return setByte(ordinalOf(name), value);
+    }
+
+    default DynamicBuilder<T> set(CharSequence name, char value) {
+        return setChar(ordinalOf(name), value);
+    }
+
+    default DynamicBuilder<T> set(CharSequence name, short value) {
+        return setShort(ordinalOf(name), value);
+    }
+
+    default DynamicBuilder<T> set(CharSequence name, int value) {
+        return setInt(ordinalOf(name), value);
+    }
+
+    default DynamicBuilder<T> set(CharSequence name, long value) {
+        return setLong(ordinalOf(name), value);
+    }
+
+    default DynamicBuilder<T> set(CharSequence name, float value) {
+        return setFloat(ordinalOf(name), value);
+    }
+
+    default DynamicBuilder<T> set(CharSequence name, double value) {
+        return setDouble(ordinalOf(name), value);
+    }
+
+    default DynamicBuilder<T> set(CharSequence name, Object value) {
+        return setObject(ordinalOf(name), value);
+    }
+
+    /**
+     * @throws IllegalStateException if a required parameter, or every parameter
+     *     of a required group, was not set.
+     */
+    T build();
+
+    /** Restore every parameter to its default value and forget what was set. */
+    DynamicBuilder<T> reset();
+
+    /**
+     * The ordinal of {@code name}.
+     *
+     * @throws IllegalArgumentException if there is no such parameter.
+     */
+    default int ordinalOf(CharSequence name) {
+        int ordinal = ordinal(name);
+        if (ordinal < 0) {
+            throw new IllegalArgumentException(getClass().getName() + " has no parameter "
+                                               + name);
+        }
+        return ordinal;
+    }
+}
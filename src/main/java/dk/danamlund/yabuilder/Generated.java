@@ -0,0 +1,26 @@
+package dk.danamlund.yabuilder;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a builder class generated from a {@literal @}{@link Builder}.
+ * <p>
+ * The fingerprint covers the builder name, the annotated constructor or static method,
+ * the names, types and annotations of its parameters, and the annotation processor
+ * itself. When a builder class with the same fingerprint is already visible to the
+ * compiler, for example from a previous incremental compilation, the processor does not
+ * generate it again.
+ *
+ * @see dk.danamlund.yabuilder.Builder
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.CLASS)
+public @interface Generated {
+    /**
+     * @return Hex encoded SHA-256 of the {@literal @}{@link Builder} signature.
+     */
+    String fingerprint();
+}
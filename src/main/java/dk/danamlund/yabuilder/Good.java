@@ -0,0 +1,14 @@
+package dk.danamlund.yabuilder;
+
+/**
+ * The shared marker of a set parameter in builders generated with
+ * {@literal @}{@link Builder}{@code (compact = true)}.
+ * <p>
+ * Only used as a type argument, never instantiated.
+ *
+ * @see dk.danamlund.yabuilder.Missing
+ */
+public final class Good {
+    private Good() {
+    }
+}
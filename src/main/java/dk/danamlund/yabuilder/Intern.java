@@ -0,0 +1,41 @@
+package dk.danamlund.yabuilder;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Make the {@literal @}{@link Builder} on the same constructor or static method
+ * return canonical instances.
+ * <p>
+ * {@code build} first looks up the parameter values in an {@link InternCache}
+ * and only calls the constructor or static method when they are not there. For
+ * a static method this memoizes its results. The cache of a builder is
+ * {@code XBuilder.interned()}, which also has the hit rate.
+ * <p>
+ * The builder keeps the hash of its parameters up to date in every setter, so
+ * the lookup does not hash all parameters again. Parameters are compared with
+ * {@code equals}, arrays by content. The objects should be immutable.
+ * {@code columns()} does not intern.
+ *
+ * @see dk.danamlund.yabuilder.Builder
+ * @see dk.danamlund.yabuilder.InternCache
+ */
+@Target({ElementType.CONSTRUCTOR, ElementType.METHOD})
+@Retention(RetentionPolicy.SOURCE)
+public @interface Intern {
+    /**
+     * @return The maximum number of canonical instances, the least recently used
+     *     are evicted first. Large caches are split into segments and this is
+     *     rounded up to a multiple of their number.
+     */
+    int maxSize() default 10_000;
+
+    /**
+     * @return Whether to hold the canonical instances with weak references, so
+     *     instances that are no longer used elsewhere can be garbage collected
+     *     before they are evicted.
+     */
+    boolean weakValues() default false;
+}
@@ -0,0 +1,194 @@
+package dk.danamlund.yabuilder;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded concurrent cache of canonical instances, used by builders generated
+ * with {@literal @}{@link Intern}.
+ * <p>
+ * The keys are split over segments by hash. Each segment is a
+ * {@link LinkedHashMap} in access order behind its own lock and evicts its
+ * least recently used entry when it is full. Values are held strongly or with
+ * {@link WeakReference}s.
+ *
+ * @param <K> The key, the parameters of a builder.
+ * @param <V> The canonical instances.
+ */
+public final class InternCache<K, V> {
+    private static final int MAX_SEGMENTS = 64;
+
+    private final Segment<K>[] segments;
+    private final int segmentMask;
+    private final boolean weakValues;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private static final class Segment<K> extends LinkedHashMap<K, Object> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+        private final transient LongAdder evictions;
+
+        Segment(int maxSize, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Object> eldest) {
+            if (size() > maxSize) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * @param maxSize The maximum number of entries, at least 1.
+     * @param weakValues Whether to hold values with weak references.
+     */
+    public InternCache(int maxSize, boolean weakValues) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1: " + maxSize);
+        }
+        int segmentCount = 1;
+        int wanted = Math.min(MAX_SEGMENTS, 4 * Runtime.getRuntime().availableProcessors());
+        // Segments of at least 16 entries, so LRU order stays meaningful
+        while (segmentCount < wanted && segmentCount * 16 <= maxSize / 2) {
+            segmentCount *= 2;
+        }
+        @SuppressWarnings("unchecked")
+        Segment<K>[] segments = (Segment<K>[]) new Segment<?>[segmentCount];
+        int segmentSize = (maxSize + segmentCount - 1) / segmentCount;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<K>(segmentSize, evictions);
+        }
+        this.segments = segments;
+        this.segmentMask = segmentCount - 1;
+        this.weakValues = weakValues;
+    }
+
+    private Segment<K> segment(Object key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & segmentMask];
+    }
+
+    /**
+     * The canonical instance of {@code key}, or null.
+     */
+    public V get(K key) {
+        Segment<K> segment = segment(key);
+        V value;
+        synchronized (segment) {
+            value = unwrap(segment.get(key));
+            if (value == null && weakValues) {
+                // Cleared reference
+                segment.remove(key);
+            }
+        }
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Make {@code value} the canonical instance of {@code key}, unless another
+     * thread got there first.
+     *
+     * @return The canonical instance.
+     */
+    public V putIfAbsent(K key, V value) {
+        Segment<K> segment = segment(key);
+        synchronized (segment) {
+            V existing = unwrap(segment.get(key));
+            if (existing != null) {
+                return existing;
+            }
+            segment.put(key, weakValues ? new WeakReference<V>(value) : value);
+            return value;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V unwrap(Object value) {
+        if (value instanceof WeakReference) {
+            return ((WeakReference<V>) value).get();
+        }
+        return (V) value;
+    }
+
+    /** Number of lookups that found a canonical instance. */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** Number of lookups that did not find a canonical instance. */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** Number of entries evicted because the cache was full. */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /** Hits divided by lookups, 0 before the first lookup. */
+    public double getHitRate() {
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    /** Number of entries, including cleared weak references not yet removed. */
+    public int size() {
+        int size = 0;
+        for (Segment<K> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Segment<K> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "InternCache[size=" + size() + ", hits=" + getHits() + ", misses=" + getMisses()
+            + ", evictions=" + getEvictions() + "]";
+    }
+
+    /**
+     * Hash of a parameter value, by content for arrays.
+     */
+    public static int hash(Object value) {
+        if (value != null && value.getClass().isArray()) {
+            return Arrays.deepHashCode(new Object[] { value });
+        }
+        return Objects.hashCode(value);
+    }
+
+    /**
+     * Equality of parameter values, by content for arrays.
+     */
+    public static boolean equal(Object a, Object b) {
+        return Objects.deepEquals(a, b);
+    }
+}
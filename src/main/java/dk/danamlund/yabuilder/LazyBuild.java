@@ -0,0 +1,66 @@
+package dk.danamlund.yabuilder;
+
+import java.util.function.Supplier;
+
+/**
+ * A build of a {@literal @}{@link Builder}{@code (lazy = true)} builder that
+ * calls the target on the first {@link #get()} and returns the same result
+ * ever after, used by the generated {@code lazy} methods.
+ * <p>
+ * Safe to share between threads, concurrent first calls wait for one build.
+ * If the build throws, the exception is thrown from that {@code get()} and
+ * the next {@code get()} builds again. After a build the parameters, and the
+ * builder they were read from, can be garbage collected.
+ *
+ * @param <T> The target.
+ */
+public final class LazyBuild<T> implements Supplier<T> {
+    // Read and cleared under the lock, only until built is true
+    private Supplier<? extends T> build;
+    // Only written by the build, a volatile write in the constructor would
+    // cost a fence for every lazy() whose target is never used
+    private volatile boolean built;
+    private T value;
+
+    /**
+     * @param build Calls the target once, with parameters read before.
+     */
+    public LazyBuild(Supplier<? extends T> build) {
+        if (build == null) {
+            throw new NullPointerException("build");
+        }
+        this.build = build;
+    }
+
+    /**
+     * The target, built by the first call.
+     *
+     * @return The target.
+     */
+    @Override
+    public T get() {
+        if (built) {
+            return value;
+        }
+        synchronized (this) {
+            if (!built) {
+                value = build.get();
+                build = null;
+                built = true;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * @return Whether the target has been built.
+     */
+    public boolean isBuilt() {
+        return built;
+    }
+
+    @Override
+    public String toString() {
+        return built ? "LazyBuild[" + value + "]" : "LazyBuild[not built]";
+    }
+}
@@ -0,0 +1,16 @@
+package dk.danamlund.yabuilder;
+
+/**
+ * The shared marker of a required parameter that is not set yet in builders
+ * generated with {@literal @}{@link Builder}{@code (compact = true)}.
+ * <p>
+ * Only used as a type argument, never instantiated. A builder with a
+ * {@code Missing} type argument is not accepted by {@code build}, so it does
+ * not compile until every required parameter is set.
+ *
+ * @see dk.danamlund.yabuilder.Good
+ */
+public final class Missing {
+    private Missing() {
+    }
+}
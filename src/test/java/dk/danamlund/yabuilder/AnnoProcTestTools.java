@@ -82,11 +82,25 @@ public class AnnoProcTestTools {
 
     public static class Compiler implements Closeable {
         private final File tempDir;
+        private final List<String> options = new ArrayList<>();
         
         public Compiler() throws Exception {
             tempDir = Files.createTempDirectory("BuilderTest").toFile();
         }
 
+        public Compiler options(String... options) {
+            this.options.addAll(Arrays.asList(options));
+            return this;
+        }
+
+        public File getOutputDirectory() {
+            return tempDir;
+        }
+
+        public boolean exists(String file) {
+            return Files.exists(tempDir.toPath().resolve(file));
+        }
+
         public String compile(String runClass, JavaFileObject... javas) throws Exception {
             List<JavaFileObject> javaObjects = Arrays.asList(javas);
             List<String> javaNames = javaObjects.stream().map(o -> name(o))
@@ -96,7 +110,7 @@ public class AnnoProcTestTools {
             StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
             fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Arrays.asList(tempDir));
             CompilationTask task = compiler.getTask(new PrintWriter(System.out), fileManager, diagnostics, 
-                                                    null, javaNames, javaObjects);
+                                                    options, javaNames, javaObjects);
             task.setProcessors(Arrays.asList(new BuilderProcessor()));
             String errors = "";
             if (task.call()) {
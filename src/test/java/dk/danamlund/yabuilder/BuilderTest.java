@@ -3,6 +3,9 @@ package dk.danamlund.yabuilder;
 import static dk.danamlund.yabuilder.AnnoProcTestTools.assertNoErrors;
 import static dk.danamlund.yabuilder.AnnoProcTestTools.assertHasError;
 import static dk.danamlund.yabuilder.AnnoProcTestTools.java;
+import static dk.danamlund.yabuilder.AnnoProcTestTools.resourceJava;
+
+import dk.danamlund.yabuilder.AnnoProcTestTools.Compiler;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -190,4 +193,447 @@ public class BuilderTest {
                             "}"),
                        "@RequiredOneOf(\"alone\") must be on at least two parameters.");
     }
+
+    @Test
+    public void testFluent() throws Exception {
+        assertNoErrors("Fluent", "FluentBuilder.java");
+    }
+
+    @Test
+    public void testFluentMissingRequired() throws Exception {
+        assertHasError(java("C",
+                            "import dk.danamlund.yabuilder.*;",
+                            "class C {",
+                            "  @Builder(fluent = true)",
+                            "  static int m(@Required int id, @Required int otherId) {",
+                            "    return id;",
+                            "  }",
+                            "  static int test() throws Exception {",
+                            "    return C_mBuilder.build(C_mBuilder.start().id(42));",
+                            "  }",
+                            "}"),
+                       "C_mBuilder<C_mBuilder.Good,C_mBuilder.MissingOtherId> cannot be converted to "
+                       + "C_mBuilder<C_mBuilder.Good,C_mBuilder.Good>");
+    }
+
+    @Test
+    public void testStaged() throws Exception {
+        assertNoErrors("Staged", "StagedBuilder.java");
+    }
+
+    @Test
+    public void testStagedMissingRequired() throws Exception {
+        assertHasError(java("C",
+                            "import dk.danamlund.yabuilder.*;",
+                            "class C {",
+                            "  @Builder(staged = true)",
+                            "  static int m(@Required int id, @Required int otherId) {",
+                            "    return id;",
+                            "  }",
+                            "  static int test() {",
+                            "    return C_mBuilder.start().id(42).build();",
+                            "  }",
+                            "}"),
+                       "cannot find symbol");
+        assertHasError(java("C",
+                            "import dk.danamlund.yabuilder.*;",
+                            "class C {",
+                            "  @Builder(staged = true)",
+                            "  static int m(@Required int id, @Required int otherId) {",
+                            "    return id;",
+                            "  }",
+                            "  static int test() {",
+                            "    return C_mBuilder.build(b -> b.id(42));",
+                            "  }",
+                            "}"),
+                       "C_mBuilder.OtherIdStage cannot be converted to C_mBuilder.BuildStage");
+    }
+
+    @Test
+    public void testCompact() throws Exception {
+        assertNoErrors("Compact", "CompactBuilder.java");
+    }
+
+    @Test
+    public void testCompactMissingRequired() throws Exception {
+        assertHasError(java("C",
+                            "import dk.danamlund.yabuilder.*;",
+                            "class C {",
+                            "  @Builder(compact = true, fluent = true)",
+                            "  static int m(@Required int id, @Required int otherId) {",
+                            "    return id;",
+                            "  }",
+                            "  static int test() throws Exception {",
+                            "    return C_mBuilder.build(C_mBuilder.start().id(42));",
+                            "  }",
+                            "}"),
+                       "C_mBuilder<dk.danamlund.yabuilder.Good,dk.danamlund.yabuilder.Missing> cannot be "
+                       + "converted to C_mBuilder<dk.danamlund.yabuilder.Good,dk.danamlund.yabuilder.Good>");
+    }
+
+    @Test
+    public void testFrom() throws Exception {
+        assertNoErrors("From", "FromBuilder.java");
+    }
+
+    @Test
+    public void testFromMissingAccessor() throws Exception {
+        assertHasError(java("C",
+                            "import dk.danamlund.yabuilder.*;",
+                            "class C {",
+                            "  final int id;",
+                            "  @Builder(from = true)",
+                            "  C(int id, int other) {",
+                            "    this.id = id;",
+                            "  }",
+                            "}"),
+                       "found no accessible other(), getOther(), isOther() or field other");
+        assertHasError(java("C",
+                            "import dk.danamlund.yabuilder.*;",
+                            "class C {",
+                            "  private final int id;",
+                            "  @Builder(from = true)",
+                            "  C(int id) {",
+                            "    this.id = id;",
+                            "  }",
+                            "}"),
+                       "found no accessible id()");
+    }
+
+    @Test
+    public void testLazyDefault() throws Exception {
+        assertNoErrors("LazyDefault", "LazyDefaultBuilder.java");
+    }
+
+    @Test
+    public void testConstantDefaultTypeVariable() throws Exception {
+        assertHasError(java("C",
+                            "import dk.danamlund.yabuilder.*;",
+                            "class C {",
+                            "  @Builder",
+                            "  static <T> T m(@Default(value = \"null\", constant = true) T t) {",
+                            "    return t;",
+                            "  }",
+                            "}"),
+                       "@Default(constant = true) cannot be used on a type variable");
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        assertNoErrors("Metrics", "MetricsBuilder.java");
+    }
+
+    @Test
+    public void testDynamic() throws Exception {
+        assertNoErrors("Decoded", "DecodedBuilder.java");
+    }
+
+    @Test
+    public void testStreams() throws Exception {
+        assertNoErrors("Streamed", "StreamedBuilder.java");
+        assertHasError(java("C",
+                            "import dk.danamlund.yabuilder.*;",
+                            "class C {",
+                            "  @Builder(staged = true, streams = true)",
+                            "  C(@Required int id) {",
+                            "  }",
+                            "}"),
+                       "@Builder(streams = true) requires a non-staged builder");
+    }
+
+    @Test
+    public void testAsync() throws Exception {
+        assertNoErrors("Async", "AsyncBuilder.java");
+        assertHasError(java("C",
+                            "import dk.danamlund.yabuilder.*;",
+                            "class C {",
+                            "  @Builder(staged = true, async = true)",
+                            "  static void m(@Required int id) {",
+                            "  }",
+                            "}"),
+                       "@Builder(async = true) requires a non-staged builder");
+    }
+
+    @Test
+    public void testAdders() throws Exception {
+        assertNoErrors("Adders", "AddersBuilder.java");
+        assertHasError(java("C",
+                            "import dk.danamlund.yabuilder.*;",
+                            "class C {",
+                            "  @Builder(adders = true)",
+                            "  C(java.util.List<String> tags, String addTag) {",
+                            "  }",
+                            "}"),
+                       "@Builder(adders = true) cannot name the adders of tags");
+    }
+
+    @Test
+    public void testPrimitiveAdders() throws Exception {
+        assertNoErrors("PrimitiveAdders", "PrimitiveAddersBuilder.java");
+    }
+
+    @Test
+    public void testRuntimeChecked() throws Exception {
+        assertNoErrors("RuntimeChecked", "RuntimeCheckedBuilder.java");
+        assertHasError(java("C",
+                            "import dk.danamlund.yabuilder.*;",
+                            "class C {",
+                            "  @Builder(staged = true, runtimeChecked = true)",
+                            "  C(@Required int id) {",
+                            "  }",
+                            "}"),
+                       "@Builder(runtimeChecked = true) cannot be combined with staged");
+    }
+
+    @Test
+    public void testTemplates() throws Exception {
+        assertNoErrors("Templated", "TemplatedBuilder.java");
+        assertHasError(java("C",
+                            "import dk.danamlund.yabuilder.*;",
+                            "class C {",
+                            "  @Builder(staged = true, templates = true)",
+                            "  C(@Required int id) {",
+                            "  }",
+                            "}"),
+                       "@Builder(templates = true) cannot be combined with staged");
+    }
+
+    @Test
+    public void testEvents() throws Exception {
+        assertNoErrors("Evented", "EventedBuilder.java");
+    }
+
+    @Test
+    public void testOffHeap() throws Exception {
+        assertNoErrors("OffHeap", "OffHeapBuilder.java");
+        assertHasError(java("C",
+                            "import dk.danamlund.yabuilder.*;",
+                            "class C {",
+                            "  @Builder(offHeap = true)",
+                            "  static void m(@Required int id) {",
+                            "  }",
+                            "}"),
+                       "@Builder(offHeap = true) requires a non-staged, non-runtimeChecked "
+                       + "builder of a constructor or a method returning a class");
+        assertHasError(java("C",
+                            "import dk.danamlund.yabuilder.*;",
+                            "class C {",
+                            "  @Builder(offHeap = true)",
+                            "  C(@Required int id, int base) {",
+                            "  }",
+                            "}"),
+                       "@Builder(offHeap = true) cannot have a parameter named base");
+    }
+
+    @Test
+    public void testLazy() throws Exception {
+        assertNoErrors("Lazy", "LazyBuilder.java");
+        assertHasError(java("C",
+                            "import dk.danamlund.yabuilder.*;",
+                            "class C {",
+                            "  @Builder(staged = true, lazy = true)",
+                            "  static String m(@Required int id) {",
+                            "    return null;",
+                            "  }",
+                            "}"),
+                       "@Builder(lazy = true) requires a non-staged builder "
+                       + "of a constructor or a method returning a class");
+    }
+
+    @Test
+    public void testIntern() throws Exception {
+        assertNoErrors("Interned", "InternedBuilder.java");
+    }
+
+    @Test
+    public void testInternWithoutBuilder() throws Exception {
+        assertHasError(java("C",
+                            "import dk.danamlund.yabuilder.*;",
+                            "class C {",
+                            "  @Intern",
+                            "  C(int id) {",
+                            "  }",
+                            "}"),
+                       "@Intern requires @Builder");
+        assertHasError(java("C",
+                            "import dk.danamlund.yabuilder.*;",
+                            "class C {",
+                            "  @Builder @Intern",
+                            "  static void m(int id) {",
+                            "  }",
+                            "}"),
+                       "@Intern requires a constructor or a static method returning a value");
+        assertHasError(java("C",
+                            "import dk.danamlund.yabuilder.*;",
+                            "class C {",
+                            "  @Builder @Intern",
+                            "  C(int id, int hash) {",
+                            "  }",
+                            "}"),
+                       "@Intern cannot have a parameter named hash");
+    }
+
+    @Test
+    public void testPooled() throws Exception {
+        assertNoErrors("Pooled", "PooledBuilder.java");
+        assertHasError(java("C",
+                            "import dk.danamlund.yabuilder.*;",
+                            "class C {",
+                            "  @Builder(pooled = true)",
+                            "  C(@Required int id, long generation) {",
+                            "  }",
+                            "}"),
+                       "@Builder(pooled = true) cannot have a parameter named generation");
+    }
+
+    @Test
+    public void testColumns() throws Exception {
+        assertNoErrors("Bulk", "BulkBuilder.java");
+        assertNoErrors("BulkDefault", "BulkDefault_tagsBuilder.java");
+    }
+
+    @Test
+    public void testColumnsMissingRequired() throws Exception {
+        assertHasError(java("C",
+                            "import dk.danamlund.yabuilder.*;",
+                            "class C {",
+                            "  @Builder(columns = true)",
+                            "  static int m(@Required int id, String name) {",
+                            "    return id;",
+                            "  }",
+                            "  static Object test() {",
+                            "    return C_mBuilder.columns(c -> c.name(new String[] { \"a\" }));",
+                            "  }",
+                            "}"),
+                       "MissingId");
+    }
+
+    @Test
+    public void testReproducible() throws Exception {
+        try (Compiler first = new Compiler();
+             Compiler second = new Compiler();) {
+            Assert.assertEquals("", first.compile(null, resourceJava("OneOf.java")));
+            Assert.assertEquals("", second.compile(null, resourceJava("OneOf.java")));
+            String source = first.getSource("OneOfBuilder.java");
+            Assert.assertTrue(source, source.contains("@dk.danamlund.yabuilder.Generated("));
+            Assert.assertEquals(source, second.getSource("OneOfBuilder.java"));
+        }
+    }
+
+    @Test
+    public void testUnchangedBuilderNotRegenerated() throws Exception {
+        try (Compiler first = new Compiler();
+             Compiler unchanged = new Compiler();
+             Compiler changed = new Compiler();) {
+            Assert.assertEquals("", first.compile(null, resourceJava("Basic.java")));
+            String classpath = first.getOutputDirectory() + File.pathSeparator
+                + System.getProperty("java.class.path");
+
+            unchanged.options("-classpath", classpath);
+            Assert.assertEquals("", unchanged.compile(null, resourceJava("Basic.java")));
+            Assert.assertFalse(unchanged.exists("BasicBuilder.java"));
+
+            changed.options("-classpath", classpath);
+            Assert.assertEquals("", changed.compile(null, java("Basic",
+                                                                "import dk.danamlund.yabuilder.*;",
+                                                                "class Basic {",
+                                                                "  @Builder",
+                                                                "  Basic(int id, long changed) {",
+                                                                "  }",
+                                                                "}")));
+            Assert.assertTrue(changed.exists("BasicBuilder.java"));
+        }
+    }
+
+    @Test
+    public void testParallelism() throws Exception {
+        try (Compiler serial = new Compiler();
+             Compiler parallel = new Compiler();) {
+            serial.options("-A" + BuilderProcessor.PARALLELISM_OPTION + "=1");
+            parallel.options("-A" + BuilderProcessor.PARALLELISM_OPTION + "=4");
+            Assert.assertEquals("", serial.compile(null, resourceJava("Bulk.java")));
+            Assert.assertEquals("", parallel.compile(null, resourceJava("Bulk.java")));
+            for (String builder : Arrays.asList("BulkBuilder.java", "BulkSumBuilder.java")) {
+                Assert.assertEquals(serial.getSource(builder), parallel.getSource(builder));
+            }
+        }
+    }
+
+    @Test
+    public void testParallelismInvalid() throws Exception {
+        try (Compiler compiler = new Compiler()) {
+            compiler.options("-A" + BuilderProcessor.PARALLELISM_OPTION + "=zero");
+            String errors = compiler.compile(null, resourceJava("Basic.java"));
+            Assert.assertTrue(errors, errors.contains("must be a positive integer"));
+        }
+    }
+
+    @Test
+    public void testStatsOption() throws Exception {
+        try (Compiler compiler = new Compiler()) {
+            File stats = new File(compiler.getOutputDirectory(), "stats.jsonl");
+            compiler.options("-A" + BuilderProcessor.STATS_OPTION + "=" + stats);
+            Assert.assertEquals("", compiler.compile(null, resourceJava("Bulk.java")));
+            List<String> lines = Files.readAllLines(stats.toPath());
+            Assert.assertTrue(lines.toString(), lines.get(0).matches(
+                "\\{\"type\":\"builder\",\"round\":0,\"builder\":\"BulkBuilder\","
+                + "\"params\":4,\"typeParameters\":2,\"instanceBytes\":32,"
+                + "\"modelNanos\":\\d+,\"renderNanos\":\\d+,\"writeNanos\":\\d+,"
+                + "\"bytes\":\\d+\\}"));
+            Assert.assertTrue(lines.toString(), lines.get(2).startsWith(
+                "{\"type\":\"round\",\"round\":0,\"builders\":2,\"skipped\":0,"));
+            // Later rounds generate nothing
+            Assert.assertTrue(lines.toString(), lines.get(lines.size() - 1).contains(
+                "\"builders\":0"));
+        }
+        // Runtime-checked builders have no type parameters for their markers
+        try (Compiler compiler = new Compiler()) {
+            File stats = new File(compiler.getOutputDirectory(), "stats.jsonl");
+            compiler.options("-A" + BuilderProcessor.STATS_OPTION + "=" + stats);
+            Assert.assertEquals("", compiler.compile(null, java("C",
+                "import dk.danamlund.yabuilder.*;",
+                "class C {",
+                "  @Builder(fluent = true, runtimeChecked = true)",
+                "  static int m(@Required int id, @Required int other) {",
+                "    return id;",
+                "  }",
+                "}")));
+            List<String> lines = Files.readAllLines(stats.toPath());
+            Assert.assertTrue(lines.toString(), lines.get(0).contains(
+                "\"builder\":\"C_mBuilder\",\"params\":2,\"typeParameters\":0,"));
+        }
+    }
+
+    @Test
+    public void testDefaultsOption() throws Exception {
+        try (Compiler compiler = new Compiler()) {
+            compiler.options("-A" + BuilderProcessor.DEFAULTS_OPTION + "=fluent, compact");
+            Assert.assertEquals("", compiler.compile("C", java("C",
+                "import dk.danamlund.yabuilder.*;",
+                "class C {",
+                "  @Builder",
+                "  static int m(@Required int id) {",
+                "    return id;",
+                "  }",
+                "  @Builder(value = \"LambdaBuilder\", fluent = false)",
+                "  static int lambda(@Required int id) {",
+                "    return id;",
+                "  }",
+                "  public static void test() {",
+                "    org.junit.Assert.assertEquals(42, C_mBuilder.build(C_mBuilder.start().id(42)));",
+                "    org.junit.Assert.assertEquals(42, LambdaBuilder.build(b -> b.id(42)));",
+                "    org.junit.Assert.assertEquals(0, C_mBuilder.class.getDeclaredClasses().length);",
+                "  }",
+                "}")));
+        }
+    }
+
+    @Test
+    public void testDefaultsOptionInvalid() throws Exception {
+        try (Compiler compiler = new Compiler()) {
+            compiler.options("-A" + BuilderProcessor.DEFAULTS_OPTION + "=fluent,eager");
+            String errors = compiler.compile(null, resourceJava("Basic.java"));
+            Assert.assertTrue(errors, errors.contains("can only contain"));
+        }
+    }
 }
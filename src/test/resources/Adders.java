@@ -0,0 +1,71 @@
+import dk.danamlund.yabuilder.*;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Assert;
+
+class Adders {
+    final List<String> tags;
+    final Set<Integer> ids;
+    final Map<String, ? extends Number> attributes;
+    final String[] names;
+    final List<String> entries;
+
+    @Builder(fluent = true, adders = true)
+    Adders(List<String> tags, @Required Set<Integer> ids, Map<String, ? extends Number> attributes,
+           String[] names, @Default("java.util.Arrays.asList(\"default\")") List<String> entries) {
+        this.tags = tags;
+        this.ids = ids;
+        this.attributes = attributes;
+        this.names = names;
+        this.entries = entries;
+    }
+
+    public static void test() {
+        AddersBuilder<AddersBuilder.Good> b = AddersBuilder.start()
+            .tagsCapacity(4).addTag("a").addTag("b")
+            .addId(1).addId(2).addId(1)
+            .putAttribute("x", 1).putAttribute("y", 2.5)
+            .addName("n1").addName("n2")
+            .addEntry("e");
+        Adders first = AddersBuilder.build(b);
+        Assert.assertEquals(Arrays.asList("a", "b"), first.tags);
+        Assert.assertEquals(2, first.ids.size());
+        Assert.assertEquals(2.5, first.attributes.get("y"));
+        Assert.assertArrayEquals(new String[] { "n1", "n2" }, first.names);
+        Assert.assertEquals(Arrays.asList("e"), first.entries);
+        try {
+            first.tags.add("c");
+            Assert.fail();
+        } catch (UnsupportedOperationException e) {
+        }
+
+        // Adding after build() copies, the built target does not change
+        Adders second = AddersBuilder.build(b.addTag("c").addName("n3"));
+        Assert.assertEquals(Arrays.asList("a", "b"), first.tags);
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), second.tags);
+        Assert.assertArrayEquals(new String[] { "n1", "n2" }, first.names);
+        Assert.assertArrayEquals(new String[] { "n1", "n2", "n3" }, second.names);
+
+        // Adders start from the value of the setter, setters replace the added elements
+        Adders third = AddersBuilder.build(AddersBuilder.start().ids(Collections.singleton(7))
+            .addId(8).names(new String[] { "m" }).addName("n").tags(Arrays.asList("t")));
+        Assert.assertEquals(2, third.ids.size());
+        Assert.assertArrayEquals(new String[] { "m", "n" }, third.names);
+        Assert.assertEquals(Arrays.asList("t"), third.tags);
+        Assert.assertEquals(Arrays.asList("default"), third.entries);
+        Assert.assertNull(third.attributes);
+
+        // A capacity alone does not set the parameter, its default stays
+        AddersBuilder<AddersBuilder.Good> sized = AddersBuilder.start().addId(1).entriesCapacity(4);
+        Assert.assertEquals(Arrays.asList("default"), AddersBuilder.build(sized).entries);
+        Assert.assertEquals(Arrays.asList("e"), AddersBuilder.build(sized.addEntry("e")).entries);
+
+        // Full arrays are handed off without a copy
+        AddersBuilder<AddersBuilder.Good> full = AddersBuilder.start().addId(1).namesCapacity(2)
+            .addName("a").addName("b");
+        Assert.assertEquals(2, AddersBuilder.build(full).names.length);
+    }
+}
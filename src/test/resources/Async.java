@@ -0,0 +1,101 @@
+import dk.danamlund.yabuilder.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.Assert;
+
+class Async {
+    static final AtomicInteger running = new AtomicInteger();
+    static final AtomicInteger maxRunning = new AtomicInteger();
+    static final List<String> logged = new ArrayList<>();
+
+    @Builder(value = "AsyncBuilder", async = true)
+    static String fetch(@Required int id, @Default("10") int delay) {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        try {
+            if (id < 0) {
+                throw new IllegalArgumentException("negative id " + id);
+            }
+            return "fetched " + id;
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+
+    @Builder(value = "AsyncFluentBuilder", fluent = true, pooled = true, async = true)
+    static int square(@Required int x) {
+        return x * x;
+    }
+
+    @Builder(value = "AsyncLogBuilder", async = true)
+    static void log(@Required String message) {
+        synchronized (logged) {
+            logged.add(message);
+        }
+    }
+
+    public static void test() throws Exception {
+        Assert.assertEquals("fetched 1", AsyncBuilder.buildAsync(b -> b.id(1)).get());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Function<AsyncBuilder<AsyncBuilder.MissingId>, AsyncBuilder<AsyncBuilder.Good>>> batch =
+                new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                int id = i;
+                batch.add(b -> b.id(id).delay(5));
+            }
+            List<String> fetched = AsyncBuilder.buildAll(batch, 3, executor).get();
+            Assert.assertEquals(20, fetched.size());
+            for (int i = 0; i < 20; i++) {
+                Assert.assertEquals("fetched " + i, fetched.get(i));
+            }
+            Assert.assertTrue(maxRunning.get() <= 3);
+
+            batch.add(5, b -> b.id(-1));
+            try {
+                AsyncBuilder.buildAll(batch, 3, executor).get();
+                Assert.fail();
+            } catch (ExecutionException e) {
+                Assert.assertEquals("negative id -1", e.getCause().getMessage());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // The builder is copied, it can be changed and reused right away
+        AsyncFluentBuilder<AsyncFluentBuilder.Good> b = AsyncFluentBuilder.pooled().x(3);
+        CompletableFuture<Integer> nine = AsyncFluentBuilder.buildAsync(b);
+        Assert.assertEquals(Integer.valueOf(16),
+                            AsyncFluentBuilder.buildAsync(AsyncFluentBuilder.pooled().x(4)).get());
+        Assert.assertEquals(Integer.valueOf(9), nine.get());
+        Assert.assertEquals(Arrays.asList(1, 4, 9), AsyncFluentBuilder.buildAll(
+            Arrays.asList(AsyncFluentBuilder.start().x(1), AsyncFluentBuilder.start().x(2),
+                          AsyncFluentBuilder.start().x(3)), 2).get());
+        Assert.assertTrue(AsyncFluentBuilder.buildAll(new ArrayList<>(), 2).get().isEmpty());
+
+        // An executor running in the calling thread goes through a large batch without recursing
+        List<AsyncFluentBuilder<AsyncFluentBuilder.Good>> squares = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            squares.add(AsyncFluentBuilder.start().x(i));
+        }
+        List<Integer> squared = AsyncFluentBuilder.buildAll(squares, 4, Runnable::run).get();
+        Assert.assertEquals(100_000, squared.size());
+        Assert.assertEquals(Integer.valueOf(99_999 * 99_999), squared.get(99_999));
+
+        AsyncLogBuilder.buildAsync(b2 -> b2.message("one")).get();
+        Assert.assertEquals(2, AsyncLogBuilder.buildAll(
+            Arrays.asList(b2 -> b2.message("two"), b2 -> b2.message("three")), 1).get().size());
+        Assert.assertEquals(Arrays.asList("one", "two", "three"), logged);
+    }
+}
@@ -0,0 +1,58 @@
+import dk.danamlund.yabuilder.*;
+import java.util.List;
+import org.junit.Assert;
+
+class Bulk {
+    private final int id;
+    private final String name;
+    private final String foo1;
+    private final String foo2;
+
+    @Builder(columns = true)
+    Bulk(@Required int id, 
+            @Default("none") String name,
+            @RequiredOneOf("foo") String foo1,
+            @RequiredOneOf("foo") String foo2) {
+        this.id = id;
+        this.name = name;
+        this.foo1 = foo1;
+        this.foo2 = foo2;
+    }
+
+    @Builder(value = "BulkSumBuilder", columns = true)
+    static long sum(@Required int a, @Required long b) {
+        return a + b;
+    }
+
+    public static void test() {
+        Bulk[] array = BulkBuilder.columns(c -> c.id(new int[] { 1, 2, 3 })
+                                                 .foo2(new String[] { "a", "b", "c" })
+                                                 .name("name"))
+            .buildArray();
+        Assert.assertEquals(3, array.length);
+        Assert.assertEquals(2, array[1].id);
+        Assert.assertEquals("name", array[1].name);
+        Assert.assertEquals(null, array[1].foo1);
+        Assert.assertEquals("b", array[1].foo2);
+
+        List<Bulk> list = BulkBuilder.columns(c -> c.id(42).foo1("foo").rows(2))
+            .buildList();
+        Assert.assertEquals(2, list.size());
+        Assert.assertEquals(42, list.get(1).id);
+        Assert.assertEquals("none", list.get(1).name);
+        Assert.assertEquals("foo", list.get(1).foo1);
+
+        long[] sums = BulkSumBuilder.columns(c -> c.a(new int[] { 1, 2 }).b(10L)).buildArray();
+        Assert.assertArrayEquals(new long[] { 11L, 12L }, sums);
+        Assert.assertEquals(Long.valueOf(12L),
+                            BulkSumBuilder.columns(c -> c.a(new int[] { 1, 2 }).b(10L))
+                            .buildList().get(1));
+
+        try {
+            BulkSumBuilder.columns(c -> c.a(new int[] { 1, 2 }).b(new long[] { 1L }))
+                .buildList();
+            Assert.fail("columns of different lengths");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
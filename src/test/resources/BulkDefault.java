@@ -0,0 +1,26 @@
+import dk.danamlund.yabuilder.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+
+class BulkDefault {
+    @Builder(columns = true)
+    static List<String> tags(@Required int id,
+                             @Default("new java.util.ArrayList<String>()") List<String> tags) {
+        tags.add("tag" + id);
+        return tags;
+    }
+
+    public static void test() {
+        // A default that is not a literal is evaluated per row
+        List<List<String>> tags = BulkDefault_tagsBuilder.columns(c -> c.id(new int[] { 1, 2 }))
+            .buildList();
+        Assert.assertEquals(Arrays.asList("tag1"), tags.get(0));
+        Assert.assertEquals(Arrays.asList("tag2"), tags.get(1));
+
+        List<String> shared = new ArrayList<>();
+        BulkDefault_tagsBuilder.columns(c -> c.id(new int[] { 1, 2 }).tags(shared)).buildList();
+        Assert.assertEquals(Arrays.asList("tag1", "tag2"), shared);
+    }
+}
@@ -0,0 +1,43 @@
+import dk.danamlund.yabuilder.*;
+import org.junit.Assert;
+
+class Compact {
+    private final int id;
+    private final String firstName;
+    private final String lastName;
+    private final String comment;
+
+    @Builder(compact = true, columns = true)
+    Compact(@Required int id,
+            @RequiredOneOf("name") String firstName,
+            @RequiredOneOf("name") String lastName,
+            @Default("none") String comment) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.comment = comment;
+    }
+
+    @Builder(value = "CompactFluentBuilder", compact = true, fluent = true)
+    static String fluent(@Required String name, int count) {
+        return name + " " + count;
+    }
+
+    public static void test() {
+        Compact compact = CompactBuilder.build(b -> b.lastName("last").id(42));
+        Assert.assertEquals(42, compact.id);
+        Assert.assertEquals("last", compact.lastName);
+        Assert.assertEquals("none", compact.comment);
+
+        Assert.assertEquals(2, CompactBuilder.columns(c -> c.id(new int[] { 1, 2 }).firstName("first"))
+                            .buildList().size());
+
+        Assert.assertEquals("foo 2",
+                            CompactFluentBuilder.build(CompactFluentBuilder.start().name("foo").count(2)));
+
+        for (Class<?> c : new Class<?>[] { CompactBuilder.class, CompactFluentBuilder.class }) {
+            Assert.assertEquals(c.getName(), c == CompactBuilder.class ? 1 : 0,
+                                c.getDeclaredClasses().length);
+        }
+    }
+}
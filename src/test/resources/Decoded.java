@@ -0,0 +1,115 @@
+import dk.danamlund.yabuilder.*;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+
+class Decoded {
+    final int id;
+    final String name;
+    final long weightInGrams;
+    final List<String> tags;
+    final int heightInCm;
+    final double heightInFeet;
+
+    @Builder(dynamic = true)
+    Decoded(@Required int id,
+            @Default("none") String name,
+            @Default("Long.valueOf(7)") long weightInGrams,
+            List<String> tags,
+            @RequiredOneOf("height") int heightInCm,
+            @RequiredOneOf("height") double heightInFeet) {
+        this.id = id;
+        this.name = name;
+        this.weightInGrams = weightInGrams;
+        this.tags = tags;
+        this.heightInCm = heightInCm;
+        this.heightInFeet = heightInFeet;
+    }
+
+    static int voids = 0;
+
+    @Builder(value = "DecodedVoidBuilder", staged = true, dynamic = true)
+    static void voidMethod(@Required boolean b, char c, byte by, short s, float f) {
+        voids++;
+    }
+
+    public static void test() {
+        Assert.assertEquals(Arrays.asList("id", "name", "weightInGrams", "tags", "heightInCm",
+                                          "heightInFeet"),
+                            DecodedBuilder.Dynamic.PARAMETER_NAMES);
+        Assert.assertEquals(Arrays.asList(int.class, String.class, long.class, List.class,
+                                          int.class, double.class),
+                            DecodedBuilder.Dynamic.PARAMETER_TYPES);
+        Assert.assertEquals(2, DecodedBuilder.Dynamic.WEIGHT_IN_GRAMS);
+
+        DecodedBuilder.Dynamic b = DecodedBuilder.dynamic();
+        Assert.assertEquals(4, b.ordinal(new StringBuilder("heightInCm")));
+        Assert.assertEquals(-1, b.ordinal("heightInCn"));
+        Assert.assertEquals(-1, b.ordinal(""));
+
+        Decoded d = b.setInt(DecodedBuilder.Dynamic.ID, 42)
+            .setDouble(DecodedBuilder.Dynamic.HEIGHT_IN_FEET, 1.5)
+            .build();
+        Assert.assertEquals(42, d.id);
+        Assert.assertEquals("none", d.name);
+        Assert.assertEquals(7L, d.weightInGrams);
+        Assert.assertEquals(1.5, d.heightInFeet, 0.0);
+
+        d = b.reset()
+            .set("heightInFeet", 1.5)
+            .set("heightInCm", 180)
+            .set("weightInGrams", 80_000L)
+            .set("tags", Arrays.asList("a"))
+            .setObject(DecodedBuilder.Dynamic.ID, 43)
+            .build();
+        Assert.assertEquals(43, d.id);
+        Assert.assertEquals(80_000L, d.weightInGrams);
+        Assert.assertEquals(Arrays.asList("a"), d.tags);
+        Assert.assertEquals(180, d.heightInCm);
+        Assert.assertEquals(0.0, d.heightInFeet, 0.0);
+
+        try {
+            DecodedBuilder.dynamic().set("name", "foo").build();
+            Assert.fail("built without id");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("DecodedBuilder.Dynamic: missing id, one of heightInCm, heightInFeet",
+                                e.getMessage());
+        }
+        try {
+            DecodedBuilder.dynamic().setLong(DecodedBuilder.Dynamic.ID, 1L);
+            Assert.fail("set int to a long");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("DecodedBuilder.Dynamic: id is int, not long", e.getMessage());
+        }
+        try {
+            DecodedBuilder.dynamic().set("id", (Object) null);
+            Assert.fail("set int to null");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("DecodedBuilder.Dynamic: id is int, not null", e.getMessage());
+        }
+        try {
+            DecodedBuilder.dynamic().setObject(DecodedBuilder.Dynamic.WEIGHT_IN_GRAMS, 1);
+            Assert.fail("set long to an Integer");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("DecodedBuilder.Dynamic: weightInGrams is long, not java.lang.Integer",
+                                e.getMessage());
+        }
+        try {
+            DecodedBuilder.dynamic().setInt(6, 1);
+            Assert.fail("set ordinal 6");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("DecodedBuilder.Dynamic has no parameter 6", e.getMessage());
+        }
+        try {
+            DecodedBuilder.dynamic().set("nope", 1);
+            Assert.fail("set nope");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().endsWith("has no parameter nope"));
+        }
+
+        dk.danamlund.yabuilder.DynamicBuilder<Void> v = DecodedVoidBuilder.dynamic();
+        v.set("b", true).set("c", 'c').set("by", (byte) 1).set("s", (short) 2).set("f", 1f);
+        Assert.assertNull(v.build());
+        Assert.assertEquals(1, voids);
+    }
+}
@@ -0,0 +1,77 @@
+import dk.danamlund.yabuilder.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Assert;
+
+class Evented {
+    final int id;
+    final String name;
+    final int size;
+
+    @Builder(events = true, dynamic = true)
+    Evented(@Required int id, @Default("none") String name, @Default("1") int size) {
+        this.id = id;
+        this.name = name;
+        this.size = size;
+    }
+
+    @Builder(value = "EventedStagedBuilder", staged = true, events = true)
+    static Evented staged(@Required int id, @Default("none") String name, @Default("1") int size) {
+        return new Evented(id, name, size);
+    }
+
+    @Builder(value = "EventedSlowBuilder", fluent = true, events = true)
+    static int slow(@Required int millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return millis;
+    }
+
+    public static void test() throws Exception {
+        // Not recorded, the event is never filled in
+        Assert.assertEquals("x", EventedBuilder.build(b -> b.id(1).name("x")).name);
+
+        List<RecordedEvent> events = new ArrayList<>();
+        Path file = Files.createTempFile("evented", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("dk.danamlund.yabuilder.Build").withThreshold(Duration.ZERO);
+            recording.start();
+            EventedBuilder.build(b -> b.id(1).size(2));
+            EventedBuilder.build(b -> b.id(2));
+            EventedStagedBuilder.build(b -> b.id(3).name("x"));
+            EventedBuilder.dynamic().set("id", 4).set("size", 5).set("name", "y").build();
+            EventedSlowBuilder.build(EventedSlowBuilder.start().millis(1));
+            recording.stop();
+            recording.dump(file);
+            events.addAll(RecordingFile.readAllEvents(file));
+        } finally {
+            Files.delete(file);
+        }
+
+        Assert.assertEquals(5, events.size());
+        assertEvent(events.get(0), "EventedBuilder", "Evented", "size");
+        assertEvent(events.get(1), "EventedBuilder", "Evented", "");
+        assertEvent(events.get(2), "EventedStagedBuilder", "Evented.staged", "name");
+        assertEvent(events.get(3), "EventedBuilder", "Evented", "name, size");
+        assertEvent(events.get(4), "EventedSlowBuilder", "Evented.slow", "");
+        Assert.assertTrue(events.get(4).getDuration().toNanos() >= 1_000_000L);
+        Assert.assertNotNull(events.get(0).getStackTrace());
+    }
+
+    private static void assertEvent(RecordedEvent event, String builder, String target,
+                                    String parametersSet) {
+        Assert.assertEquals("dk.danamlund.yabuilder.Build", event.getEventType().getName());
+        Assert.assertEquals(builder, event.getString("builder"));
+        Assert.assertEquals(target, event.getString("target"));
+        Assert.assertEquals(parametersSet, event.getString("parametersSet"));
+    }
+}
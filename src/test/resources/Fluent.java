@@ -0,0 +1,37 @@
+import dk.danamlund.yabuilder.*;
+import org.junit.Assert;
+
+class Fluent {
+    private final int id;
+    private final String firstName;
+    private final String lastName;
+    private final String comment;
+
+    @Builder(fluent = true)
+    Fluent(@Required int id,
+           @RequiredOneOf("name") String firstName,
+           @RequiredOneOf("name") String lastName,
+           @Default("none") String comment) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.comment = comment;
+    }
+
+    @Builder(value = "FluentOptionalBuilder", fluent = true)
+    static String optional(String name) {
+        return "optional " + name;
+    }
+
+    public static void test() {
+        Fluent fluent = FluentBuilder.build(FluentBuilder.start().lastName("last").id(42));
+        Assert.assertEquals(42, fluent.id);
+        Assert.assertEquals(null, fluent.firstName);
+        Assert.assertEquals("last", fluent.lastName);
+        Assert.assertEquals("none", fluent.comment);
+
+        Assert.assertEquals("optional null", FluentOptionalBuilder.build(FluentOptionalBuilder.start()));
+        Assert.assertEquals("optional foo",
+                            FluentOptionalBuilder.build(FluentOptionalBuilder.start().name("foo")));
+    }
+}
@@ -0,0 +1,73 @@
+import dk.danamlund.yabuilder.*;
+import org.junit.Assert;
+
+class From {
+    static class Base {
+        private final String comment;
+
+        Base(String comment) {
+            this.comment = comment;
+        }
+
+        public String getComment() {
+            return comment;
+        }
+    }
+
+    static class Target extends Base {
+        final int id;
+        private final String firstName;
+        private final String lastName;
+        private final boolean active;
+
+        @Builder(value = "FromBuilder", from = true)
+        Target(@Required int id,
+               @RequiredOneOf("name") String firstName,
+               @RequiredOneOf("name") String lastName,
+               boolean active,
+               @Default("none") String comment) {
+            super(comment);
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.active = active;
+        }
+
+        String firstName() {
+            return firstName;
+        }
+
+        String getLastName() {
+            return lastName;
+        }
+
+        boolean isActive() {
+            return active;
+        }
+    }
+
+    @Builder(value = "FromFluentBuilder", from = true, fluent = true)
+    static Target fluent(@Required int id, String firstName, String lastName,
+                         boolean active, String comment) {
+        return new Target(id, firstName, lastName, active, comment);
+    }
+
+    public static void test() {
+        Target a = FromBuilder.build(b -> b.id(42).firstName("first").active(true));
+        Target b = FromBuilder.from(a, build -> build.lastName("last").comment("changed"));
+        Assert.assertEquals(42, b.id);
+        Assert.assertEquals(null, b.firstName);
+        Assert.assertEquals("last", b.lastName);
+        Assert.assertEquals(true, b.active);
+        Assert.assertEquals("changed", b.getComment());
+
+        Target c = FromBuilder.from(b, build -> build);
+        Assert.assertEquals("last", c.lastName);
+        Assert.assertEquals("changed", c.getComment());
+
+        Target d = FromFluentBuilder.build(FromFluentBuilder.from(a).id(7));
+        Assert.assertEquals(7, d.id);
+        Assert.assertEquals("first", d.firstName);
+        Assert.assertEquals("none", d.getComment());
+    }
+}
@@ -0,0 +1,69 @@
+import dk.danamlund.yabuilder.*;
+import org.junit.Assert;
+
+class Interned {
+    final int id;
+    final String firstName;
+    final String lastName;
+    final double height;
+    final int[] tags;
+
+    @Builder(from = true)
+    @Intern(maxSize = 2)
+    Interned(@Required int id,
+             @RequiredOneOf("name") String firstName,
+             @RequiredOneOf("name") String lastName,
+             double height,
+             @Default("null") int[] tags) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.height = height;
+        this.tags = tags;
+    }
+
+    static int calls = 0;
+
+    @Builder(value = "InternedFluentBuilder", fluent = true, pooled = true)
+    @Intern(weakValues = true)
+    static Integer square(@Required Integer x) {
+        calls++;
+        return x * x;
+    }
+
+    // Named like the locals of Key.equals
+    @Builder("InternedOtherBuilder")
+    @Intern
+    static String pair(@Required String other, @Default("0") int o) {
+        return new String(other + o);
+    }
+
+    public static void test() {
+        Interned a = InternedBuilder.build(b -> b.id(1).firstName("first").height(1.5));
+        Interned b = InternedBuilder.build(b2 -> b2.height(1.5).lastName("last").id(1)
+                                           .firstName("first"));
+        Assert.assertSame(a, b);
+        Assert.assertNotSame(a, InternedBuilder.build(b2 -> b2.id(1).lastName("first")));
+        Assert.assertNotSame(a, InternedBuilder.build(b2 -> b2.id(1).firstName("first")));
+
+        Interned c = InternedBuilder.build(b2 -> b2.id(2).firstName("c").tags(new int[] { 1, 2 }));
+        Assert.assertSame(c, InternedBuilder.build(b2 -> b2.id(2).firstName("c")
+                                                   .tags(new int[] { 1, 2 })));
+        Assert.assertEquals(2, InternedBuilder.interned().size());
+        Assert.assertEquals(2, InternedBuilder.interned().getHits());
+        Assert.assertEquals(4, InternedBuilder.interned().getMisses());
+        Assert.assertEquals(2, InternedBuilder.interned().getEvictions());
+        Assert.assertSame(c, InternedBuilder.from(c, b2 -> b2));
+        Assert.assertSame(c, InternedBuilder.from(c, b2 -> b2.firstName("d").firstName("c")));
+
+        Integer nine = InternedFluentBuilder.build(InternedFluentBuilder.start().x(3));
+        Assert.assertSame(nine, InternedFluentBuilder.build(InternedFluentBuilder.start().x(4).x(3)));
+        Assert.assertSame(nine, InternedFluentBuilder.build(InternedFluentBuilder.pooled().x(3)));
+        Assert.assertEquals(1, calls);
+        Assert.assertEquals(2.0 / 3, InternedFluentBuilder.interned().getHitRate(), 0.0);
+
+        String pair = InternedOtherBuilder.build(b2 -> b2.other("a").o(1));
+        Assert.assertSame(pair, InternedOtherBuilder.build(b2 -> b2.o(1).other("a")));
+        Assert.assertNotSame(pair, InternedOtherBuilder.build(b2 -> b2.other("a")));
+    }
+}
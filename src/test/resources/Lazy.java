@@ -0,0 +1,110 @@
+import dk.danamlund.yabuilder.*;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.Assert;
+
+class Lazy {
+    static final AtomicInteger CREATED = new AtomicInteger();
+    static final AtomicInteger DEFAULTS = new AtomicInteger();
+
+    final int id;
+    final String name;
+    final Integer size;
+
+    @Builder(lazy = true)
+    Lazy(@Required int id, @Default("none") String name, @Default("Lazy.defaultSize()") Integer size) {
+        this.id = id;
+        this.name = name;
+        this.size = size;
+        CREATED.incrementAndGet();
+    }
+
+    static Integer defaultSize() {
+        DEFAULTS.incrementAndGet();
+        return 10;
+    }
+
+    @Builder(value = "LazyFluentBuilder", fluent = true, lazy = true)
+    static Lazy of(@Required int id, @Default("none") String name) {
+        if (id < 0) {
+            throw new IllegalArgumentException("id " + id);
+        }
+        return new Lazy(id, name, 1);
+    }
+
+    public static void test() throws Exception {
+        Supplier<Lazy> lazy = LazyBuilder.lazy(b -> b.id(1));
+        Assert.assertEquals(0, CREATED.get());
+        Assert.assertEquals(0, DEFAULTS.get());
+        Lazy built = lazy.get();
+        Assert.assertEquals(1, built.id);
+        Assert.assertEquals("none", built.name);
+        Assert.assertEquals(Integer.valueOf(10), built.size);
+        Assert.assertSame(built, lazy.get());
+        Assert.assertEquals(1, CREATED.get());
+        Assert.assertEquals(1, DEFAULTS.get());
+
+        // Changing the builder afterwards does not change the lazy build
+        LazyFluentBuilder<LazyFluentBuilder.Good> builder = LazyFluentBuilder.start().id(2).name("x");
+        LazyBuild<Lazy> fluent = LazyFluentBuilder.lazy(builder);
+        builder.name("y");
+        Assert.assertFalse(fluent.isBuilt());
+        Assert.assertEquals("LazyBuild[not built]", fluent.toString());
+        Assert.assertEquals("x", fluent.get().name);
+        Assert.assertTrue(fluent.isBuilt());
+        Assert.assertEquals("y", LazyFluentBuilder.build(builder).name);
+
+        // The parameters are released by a build, kept by a failed one
+        Field build = LazyBuild.class.getDeclaredField("build");
+        build.setAccessible(true);
+        Assert.assertNull(build.get(fluent));
+
+        // A failed build is built again by the next get()
+        LazyBuild<Lazy> failing = LazyFluentBuilder.lazy(LazyFluentBuilder.start().id(-1));
+        for (int i = 0; i < 2; i++) {
+            try {
+                failing.get();
+                Assert.fail();
+            } catch (IllegalArgumentException e) {
+                Assert.assertEquals("id -1", e.getMessage());
+            }
+        }
+        Assert.assertFalse(failing.isBuilt());
+        Assert.assertNotNull(build.get(failing));
+
+        // Concurrent first calls build once
+        CREATED.set(0);
+        LazyBuild<Lazy> shared = LazyBuilder.lazy(b -> b.id(3).name("shared"));
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<Lazy> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+                Lazy result = shared.get();
+                synchronized (results) {
+                    results.add(result);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(1, CREATED.get());
+        Assert.assertEquals(8, results.size());
+        for (Lazy result : results) {
+            Assert.assertSame(results.get(0), result);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+import dk.danamlund.yabuilder.*;
+import java.util.List;
+import org.junit.Assert;
+
+class LazyDefault {
+    static int lazyCalls = 0;
+    static int constantCalls = 0;
+
+    static List<String> lazy() {
+        lazyCalls++;
+        return java.util.Arrays.asList("lazy");
+    }
+
+    static List<String> constant() {
+        constantCalls++;
+        return java.util.Collections.singletonList("constant");
+    }
+
+    final int id;
+    final List<String> lazyList;
+    final List<String> constantList;
+    final long literal;
+
+    @Builder(fluent = true, pooled = true)
+    LazyDefault(@Required int id,
+                @Default("LazyDefault.lazy()") List<String> lazyList,
+                @Default(value = "LazyDefault.constant()", constant = true) List<String> constantList,
+                @Default("-0x10L") long literal) {
+        this.id = id;
+        this.lazyList = lazyList;
+        this.constantList = constantList;
+        this.literal = literal;
+    }
+
+    @Builder(value = "LazyDefaultStagedBuilder", staged = true)
+    static List<String> staged(@Required int id,
+                               @Default("LazyDefault.lazy()") List<String> lazyList) {
+        return lazyList;
+    }
+
+    @Builder(value = "LazyDefaultInternedBuilder", fluent = true)
+    @Intern
+    static String interned(@Default("1") int n,
+                           @Default("LazyDefault.lazy()") List<String> lazyList) {
+        return n + " " + lazyList;
+    }
+
+    public static void test() {
+        LazyDefault set = LazyDefaultBuilder.build(
+            LazyDefaultBuilder.start().id(1).lazyList(null).constantList(null));
+        Assert.assertNull(set.lazyList);
+        Assert.assertNull(set.constantList);
+        Assert.assertEquals(-16L, set.literal);
+        Assert.assertEquals(0, lazyCalls);
+
+        LazyDefault unset = LazyDefaultBuilder.build(LazyDefaultBuilder.start().id(2));
+        Assert.assertEquals(java.util.Arrays.asList("lazy"), unset.lazyList);
+        Assert.assertEquals(java.util.Arrays.asList("constant"), unset.constantList);
+        Assert.assertEquals(1, lazyCalls);
+
+        // reset() forgets that lazyList was set
+        Assert.assertNull(
+            LazyDefaultBuilder.build(LazyDefaultBuilder.pooled().id(3).lazyList(null)).lazyList);
+        Assert.assertNotNull(LazyDefaultBuilder.build(LazyDefaultBuilder.pooled().id(3)).lazyList);
+        Assert.assertEquals(2, lazyCalls);
+        Assert.assertEquals(1, constantCalls);
+
+        Assert.assertNull(LazyDefaultStagedBuilder.build(b -> b.id(1).lazyList(null)));
+        Assert.assertEquals(2, lazyCalls);
+        Assert.assertNotNull(LazyDefaultStagedBuilder.build(b -> b.id(1)));
+        Assert.assertEquals(3, lazyCalls);
+
+        // An evaluated default is the same key as setting its value
+        String interned = LazyDefaultInternedBuilder.build(LazyDefaultInternedBuilder.start());
+        Assert.assertEquals("1 [lazy]", interned);
+        Assert.assertEquals(4, lazyCalls);
+        Assert.assertSame(interned, LazyDefaultInternedBuilder.build(
+            LazyDefaultInternedBuilder.start().lazyList(java.util.Arrays.asList("lazy"))));
+        Assert.assertEquals(4, lazyCalls);
+    }
+}
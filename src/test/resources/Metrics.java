@@ -0,0 +1,73 @@
+import dk.danamlund.yabuilder.*;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import javax.management.ObjectName;
+import org.junit.Assert;
+
+class Metrics {
+    final int id;
+    final String name;
+
+    @Builder(metrics = true)
+    Metrics(@Required int id, @Default("none") String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    @Builder(value = "MetricsStaticBuilder", fluent = true, metrics = true)
+    @Intern
+    static String metrics(@Required int id, String comment) {
+        return id + " " + comment;
+    }
+
+    @Builder(value = "MetricsStagedBuilder", staged = true, metrics = true)
+    static void staged(@Required int id, @Default("0") int count) {
+    }
+
+    @Builder(value = "MetricsAddersBuilder", adders = true, metrics = true)
+    static int tags(@Required int id, List<String> tags) {
+        return tags == null ? 0 : tags.size();
+    }
+
+    public static void test() throws Exception {
+        MetricsBuilder.build(b -> b.id(1));
+        MetricsBuilder.build(b -> b.id(2).name("two"));
+        MetricsBuilder.build(b -> b.id(3).name("three").name("four"));
+        BuilderMetrics metrics = BuilderMetrics.of("MetricsBuilder");
+        Assert.assertEquals(3, metrics.getBuilds());
+        Assert.assertEquals(0, metrics.getBuildNanos());
+        Assert.assertEquals(Long.valueOf(3), metrics.getParameterSets().get("name"));
+        Assert.assertFalse(metrics.getParameterSets().containsKey("id"));
+
+        ObjectName name = new ObjectName("dk.danamlund.yabuilder:type=BuilderMetrics,name="
+                                         + ObjectName.quote("MetricsBuilder"));
+        Assert.assertEquals(3L, ManagementFactory.getPlatformMBeanServer()
+                            .getAttribute(name, "Builds"));
+
+        for (int i = 0; i < 100 * BuilderMetrics.TIMING_SAMPLE; i++) {
+            Assert.assertEquals("1 null",
+                                MetricsStaticBuilder.build(MetricsStaticBuilder.start().id(1)));
+        }
+        BuilderMetrics staticMetrics = BuilderMetrics.of("MetricsStaticBuilder");
+        Assert.assertEquals(100 * BuilderMetrics.TIMING_SAMPLE, staticMetrics.getBuilds());
+        Assert.assertTrue(staticMetrics.getTimedBuilds() > 0);
+        Assert.assertTrue(staticMetrics.getTimedBuilds() < staticMetrics.getBuilds());
+        Assert.assertTrue(staticMetrics.getMeanBuildNanos() > 0);
+        Assert.assertEquals(0.0, staticMetrics.getParameterSetRates().get("comment"), 0.0);
+
+        MetricsStagedBuilder.build(b -> b.id(1).count(2));
+        Map<String, Double> rates = BuilderMetrics.of("MetricsStagedBuilder").getParameterSetRates();
+        Assert.assertEquals(1.0, rates.get("count"), 0.0);
+
+        Assert.assertEquals(3, MetricsAddersBuilder.build(b -> b.id(1).addTag("a").addTag("b").addTag("c")));
+        BuilderMetrics adders = BuilderMetrics.of("MetricsAddersBuilder");
+        Assert.assertEquals(Long.valueOf(0), adders.getParameterSets().get("tags"));
+        Assert.assertEquals(Long.valueOf(3), adders.getParameterAdds().get("tags"));
+        Assert.assertEquals(0.0, adders.getParameterSetRates().get("tags"), 0.0);
+
+        metrics.reset();
+        Assert.assertEquals(0, metrics.getBuilds());
+        Assert.assertTrue(BuilderMetrics.all().contains(metrics));
+    }
+}
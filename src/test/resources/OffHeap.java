@@ -0,0 +1,142 @@
+import dk.danamlund.yabuilder.*;
+import java.nio.BufferOverflowException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+
+class OffHeap {
+    final long id;
+    final double score;
+    final boolean flagged;
+    final char grade;
+    final String name;
+    final List<String> tags;
+    final int height;
+    final Integer stamp;
+
+    @Builder(offHeap = true)
+    OffHeap(@Required long id, @Required double score, boolean flagged, @Default("'C'") char grade,
+            @Default("none") String name, List<String> tags,
+            @RequiredOneOf("height") int heightInCm, @RequiredOneOf("height") short heightInInches,
+            @Default("Integer.valueOf(7)") Integer stamp) {
+        this.id = id;
+        this.score = score;
+        this.flagged = flagged;
+        this.grade = grade;
+        this.name = name;
+        this.tags = tags;
+        this.height = heightInCm > 0 ? heightInCm : (int) (heightInInches * 2.54);
+        this.stamp = stamp;
+    }
+
+    @Builder(value = "OffHeapNamesBuilder", offHeap = true)
+    static String names(@Required int buffer, @Default("1") int row, String size) {
+        return buffer + " " + row + " " + size;
+    }
+
+    @Builder(value = "OffHeapGroupBuilder", offHeap = true)
+    static String group(@RequiredOneOf("value") String text, @RequiredOneOf("value") Integer number) {
+        return text != null ? text : "n" + number;
+    }
+
+    public static void test() throws Exception {
+        Assert.assertEquals(40, OffHeapBuilder.Rows.ROW_BYTES);
+
+        OffHeapBuilder.Rows rows = OffHeapBuilder.rows(1);
+        for (int i = 0; i < 100; i++) {
+            long id = i;
+            int row = rows.add(b -> b.id(id).score(id / 100.0).heightInCm(180));
+            Assert.assertEquals(i, row);
+        }
+        rows.add(b -> b.id(100).score(1.0).flagged(true).grade('A').name("x")
+                 .tags(Arrays.asList("a")).heightInCm(1).heightInInches((short) 10).stamp(null));
+        Assert.assertEquals(101, rows.size());
+
+        List<OffHeap> survivors = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.score(i) >= 0.99) {
+                survivors.add(rows.build(i));
+            }
+        }
+        Assert.assertEquals(2, survivors.size());
+        OffHeap first = survivors.get(0);
+        Assert.assertEquals(99L, first.id);
+        Assert.assertFalse(first.flagged);
+        Assert.assertEquals('C', first.grade);
+        Assert.assertEquals("none", first.name);
+        Assert.assertNull(first.tags);
+        Assert.assertEquals(180, first.height);
+        Assert.assertEquals(Integer.valueOf(7), first.stamp);
+        OffHeap last = survivors.get(1);
+        Assert.assertTrue(last.flagged);
+        Assert.assertEquals('A', last.grade);
+        Assert.assertEquals("x", last.name);
+        Assert.assertEquals(Arrays.asList("a"), last.tags);
+        Assert.assertEquals(25, last.height);
+        Assert.assertNull(last.stamp);
+        Assert.assertEquals((short) 10, rows.heightInInches(100));
+        Assert.assertEquals(0, rows.heightInCm(100));
+
+        // A cleared row is overwritten, including what the earlier row set
+        rows.clear();
+        rows.add(b -> b.id(1).score(0.0).heightInInches((short) 70));
+        OffHeap reused = rows.build(0);
+        Assert.assertEquals(177, reused.height);
+        Assert.assertEquals("none", reused.name);
+        Assert.assertFalse(reused.flagged);
+        try {
+            rows.build(1);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException e) {
+            Assert.assertEquals("OffHeapBuilder.Rows: row 1, size 1", e.getMessage());
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 2 * OffHeapBuilder.Rows.ROW_BYTES);
+        buffer.position(8);
+        OffHeapBuilder.Rows fixed = OffHeapBuilder.rows(buffer);
+        fixed.add(b -> b.id(1).score(0.5).heightInCm(1));
+        fixed.add(b -> b.id(2).score(0.5).heightInCm(2));
+        Assert.assertEquals(2L, buffer.getLong(8 + OffHeapBuilder.Rows.ROW_BYTES));
+        try {
+            fixed.add(b -> b.id(3).score(0.5).heightInCm(3));
+            Assert.fail();
+        } catch (BufferOverflowException e) {
+            Assert.assertEquals(2, fixed.size());
+        }
+
+        // Parameters named after fields, and a reference set twice reuses its entry
+        OffHeapNamesBuilder.Rows names = OffHeapNamesBuilder.rows(1);
+        names.add(b -> b.buffer(3).row(4).size("a").size("b"));
+        names.add(b -> b.buffer(5).size(null).size("c"));
+        Assert.assertEquals("3 4 b", names.build(0));
+        Assert.assertEquals("5 1 c", names.build(1));
+        Field objects = OffHeapNamesBuilder.Rows.class.getDeclaredField("objects");
+        objects.setAccessible(true);
+        Assert.assertEquals(2, ((List<?>) objects.get(names)).size());
+
+        // Switching a group member drops the value of the other one, a failed
+        // row drops the values it wrote
+        OffHeapGroupBuilder.Rows group = OffHeapGroupBuilder.rows(1);
+        group.add(b -> b.text("a").number(1));
+        Assert.assertEquals("n1", group.build(0));
+        try {
+            group.add(b -> {
+                    b.text("b");
+                    throw new IllegalStateException("failed row");
+                });
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("failed row", e.getMessage());
+        }
+        Assert.assertEquals(1, group.size());
+        Field groupObjects = OffHeapGroupBuilder.Rows.class.getDeclaredField("objects");
+        groupObjects.setAccessible(true);
+        List<?> entries = (List<?>) groupObjects.get(group);
+        Assert.assertFalse(entries.contains("a"));
+        Assert.assertFalse(entries.contains("b"));
+        Assert.assertTrue(entries.contains(1));
+    }
+}
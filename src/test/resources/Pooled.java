@@ -0,0 +1,80 @@
+import dk.danamlund.yabuilder.*;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+
+class Pooled {
+    private final int id;
+    private final String name;
+    private final List<Pooled> children;
+
+    @Builder(pooled = true)
+    Pooled(@Required int id, @Default("none") String name, List<Pooled> children) {
+        this.id = id;
+        this.name = name;
+        this.children = children;
+    }
+
+    @Builder(value = "PooledFluentBuilder", fluent = true, pooled = true)
+    static String fluent(@Required int id, @Default("none") String name) {
+        return id + " " + name;
+    }
+
+    static int fail() {
+        throw new IllegalStateException("failed mid-build");
+    }
+
+    public static void test() throws Exception {
+        Pooled a = PooledBuilder.build(b -> b.id(1).name("a"));
+        Pooled b = PooledBuilder.build(b2 -> b2.id(2));
+        Assert.assertEquals(2, b.id);
+        Assert.assertEquals("none", b.name);
+        Assert.assertEquals(null, b.children);
+
+        // Nested builds fall back to new builders
+        List<Pooled> children = new ArrayList<>();
+        Pooled parent = PooledBuilder.build(p -> {
+                children.add(PooledBuilder.build(c -> c.id(4).name("child")));
+                return p.id(3).children(children);
+            });
+        Assert.assertEquals(3, parent.id);
+        Assert.assertEquals("none", parent.name);
+        Assert.assertEquals(4, parent.children.get(0).id);
+        Assert.assertEquals("child", parent.children.get(0).name);
+
+        // Only fluent builders hand out the pooled builder, nothing would release it
+        try {
+            PooledBuilder.class.getMethod("pooled");
+            Assert.fail("pooled() without a release");
+        } catch (NoSuchMethodException expected) {
+        }
+
+        Assert.assertEquals("1 foo",
+                            PooledFluentBuilder.build(PooledFluentBuilder.pooled().id(1).name("foo")));
+        Assert.assertEquals("2 none", PooledFluentBuilder.build(PooledFluentBuilder.pooled().id(2)));
+
+        // While the pooled builder is in use pooled() hands out new builders
+        PooledFluentBuilder<PooledFluentBuilder.MissingId> inUse = PooledFluentBuilder.pooled();
+        PooledFluentBuilder<PooledFluentBuilder.MissingId> other = PooledFluentBuilder.pooled();
+        Assert.assertNotSame(inUse, other);
+        Assert.assertEquals("4 none", PooledFluentBuilder.build(other.id(4)));
+        Assert.assertEquals("5 none", PooledFluentBuilder.build(inUse.id(5)));
+        Assert.assertSame(inUse, PooledFluentBuilder.pooled());
+        Assert.assertEquals("6 none", PooledFluentBuilder.build(inUse.id(6)));
+
+        // A pooled builder that is never built does not stop pooled()
+        try {
+            PooledFluentBuilder.build(PooledFluentBuilder.pooled().name("x").id(fail()));
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("failed mid-build", e.getMessage());
+        }
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(i + " none",
+                                PooledFluentBuilder.build(PooledFluentBuilder.pooled().id(i)));
+        }
+
+        Assert.assertEquals("7 none", PooledFluentBuilder.build(
+            PooledFluentBuilder.start().id(7).name("foo").reset().id(7)));
+    }
+}
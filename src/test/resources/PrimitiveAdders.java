@@ -0,0 +1,38 @@
+import dk.danamlund.yabuilder.*;
+import org.junit.Assert;
+
+class PrimitiveAdders {
+    final int[] ids;
+    final double[] weights;
+    final long[] data;
+    final String[] names;
+
+    @Builder(adders = true)
+    PrimitiveAdders(@Required int[] ids, double[] weights, long[] data, String... names) {
+        this.ids = ids;
+        this.weights = weights;
+        this.data = data;
+        this.names = names;
+    }
+
+    public static void test() {
+        PrimitiveAdders built = PrimitiveAddersBuilder.build(b -> {
+            b.idsCapacity(100);
+            for (int i = 0; i < 100; i++) {
+                b.addId(i);
+            }
+            return b.addIds(100, 101).addWeight(1.5).addWeights(2.5, 3.5).addData(7L)
+                .addName("a").addNames("b", "c");
+        });
+        Assert.assertEquals(102, built.ids.length);
+        Assert.assertEquals(101, built.ids[101]);
+        Assert.assertArrayEquals(new double[] { 1.5, 2.5, 3.5 }, built.weights, 0.0);
+        Assert.assertArrayEquals(new long[] { 7L }, built.data);
+        Assert.assertArrayEquals(new String[] { "a", "b", "c" }, built.names);
+
+        int[] ids = { 1, 2 };
+        PrimitiveAdders added = PrimitiveAddersBuilder.build(b -> b.ids(ids).addIds(3, 4, 5, 6, 7, 8, 9, 10, 11));
+        Assert.assertArrayEquals(new int[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 }, added.ids);
+        Assert.assertArrayEquals(new int[] { 1, 2 }, ids);
+    }
+}
@@ -0,0 +1,55 @@
+import dk.danamlund.yabuilder.*;
+import org.junit.Assert;
+
+class RuntimeChecked {
+    final int id;
+    final String name;
+    final double height;
+
+    @Builder(fluent = true, runtimeChecked = true)
+    RuntimeChecked(@Required int id, @Default("none") String name,
+                   @RequiredOneOf("height") int heightInCm, @RequiredOneOf("height") double heightInFeet) {
+        this.id = id;
+        this.name = name;
+        this.height = heightInCm > 0 ? heightInCm : heightInFeet * 30.48;
+    }
+
+    @Builder(value = "RuntimeCheckedWideBuilder", runtimeChecked = true)
+    static int wide(@Required int p0, @Required int p1, @Required int p2, @Required int p3, @Required int p4, @Required int p5, @Required int p6, @Required int p7, @Required int p8, @Required int p9,
+                   @Required int p10, @Required int p11, @Required int p12, @Required int p13, @Required int p14, @Required int p15, @Required int p16, @Required int p17, @Required int p18, @Required int p19,
+                   @Required int p20, @Required int p21, @Required int p22, @Required int p23, @Required int p24, @Required int p25, @Required int p26, @Required int p27, @Required int p28, @Required int p29,
+                   @Required int p30, @Required int p31, @Required int p32, @Required int p33, @Required int p34, @Required int p35, @Required int p36, @Required int p37, @Required int p38, @Required int p39,
+                   @Required int p40, @Required int p41, @Required int p42, @Required int p43, @Required int p44, @Required int p45, @Required int p46, @Required int p47, @Required int p48, @Required int p49,
+                   @Required int p50, @Required int p51, @Required int p52, @Required int p53, @Required int p54, @Required int p55, @Required int p56, @Required int p57, @Required int p58, @Required int p59,
+                   @Required int p60, @Required int p61, @Required int p62, @Required int p63, @Required int p64, @Required int p65, @Required int p66, @Required int p67, @Required int p68, @Required int p69) {
+        return p0 + p69;
+    }
+
+    public static void test() {
+        RuntimeCheckedBuilder b = RuntimeCheckedBuilder.start();
+        try {
+            RuntimeCheckedBuilder.build(b.name("x"));
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("RuntimeCheckedBuilder: missing id, one of heightInCm, heightInFeet",
+                                e.getMessage());
+        }
+        RuntimeChecked built = RuntimeCheckedBuilder.build(b.id(1).heightInCm(180));
+        Assert.assertEquals(180.0, built.height, 0.0);
+        Assert.assertEquals("x", built.name);
+        try {
+            RuntimeCheckedBuilder.build(b.reset().heightInFeet(6.0));
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("RuntimeCheckedBuilder: missing id", e.getMessage());
+        }
+
+        try {
+            RuntimeCheckedWideBuilder.build(b2 -> b2.p0(0).p1(1).p2(2).p3(3).p4(4).p5(5).p6(6).p7(7).p8(8).p9(9).p10(10).p11(11).p12(12).p13(13).p14(14).p15(15).p16(16).p17(17).p18(18).p19(19).p20(20).p21(21).p22(22).p23(23).p24(24).p25(25).p26(26).p27(27).p28(28).p29(29).p30(30).p31(31).p32(32).p33(33).p34(34).p35(35).p36(36).p37(37).p38(38).p39(39).p40(40).p41(41).p42(42).p43(43).p44(44).p45(45).p46(46).p47(47).p48(48).p49(49).p50(50).p51(51).p52(52).p53(53).p54(54).p55(55).p56(56).p57(57).p58(58).p59(59).p60(60).p61(61).p62(62).p63(63).p64(64).p66(66).p67(67).p68(68).p69(69));
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("RuntimeCheckedWideBuilder: missing p65", e.getMessage());
+        }
+        Assert.assertEquals(69, RuntimeCheckedWideBuilder.build(b2 -> b2.p0(0).p1(1).p2(2).p3(3).p4(4).p5(5).p6(6).p7(7).p8(8).p9(9).p10(10).p11(11).p12(12).p13(13).p14(14).p15(15).p16(16).p17(17).p18(18).p19(19).p20(20).p21(21).p22(22).p23(23).p24(24).p25(25).p26(26).p27(27).p28(28).p29(29).p30(30).p31(31).p32(32).p33(33).p34(34).p35(35).p36(36).p37(37).p38(38).p39(39).p40(40).p41(41).p42(42).p43(43).p44(44).p45(45).p46(46).p47(47).p48(48).p49(49).p50(50).p51(51).p52(52).p53(53).p54(54).p55(55).p56(56).p57(57).p58(58).p59(59).p60(60).p61(61).p62(62).p63(63).p64(64).p66(66).p67(67).p68(68).p69(69).p65(65)));
+    }
+}
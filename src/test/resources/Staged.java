@@ -0,0 +1,47 @@
+import dk.danamlund.yabuilder.*;
+import org.junit.Assert;
+
+class Staged {
+    private final int id;
+    private final String firstName;
+    private final String lastName;
+    private final String comment;
+
+    @Builder(staged = true)
+    Staged(@Required int id,
+           @RequiredOneOf("name") String firstName,
+           @RequiredOneOf("name") String lastName,
+           @Default("none") String comment) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.comment = comment;
+    }
+
+    @Builder(value = "StagedFluentBuilder", staged = true, fluent = true)
+    static String fluent(@Required String name, int count) {
+        return name + " " + count;
+    }
+
+    @Builder(value = "StagedOptionalBuilder", staged = true)
+    static void optional(String name) {
+    }
+
+    public static void test() {
+        Staged staged = StagedBuilder.build(b -> b.id(42).lastName("last"));
+        Assert.assertEquals(42, staged.id);
+        Assert.assertEquals(null, staged.firstName);
+        Assert.assertEquals("last", staged.lastName);
+        Assert.assertEquals("none", staged.comment);
+
+        staged = StagedBuilder.build(b -> b.id(1).firstName("first").comment("comment"));
+        Assert.assertEquals("first", staged.firstName);
+        Assert.assertEquals("comment", staged.comment);
+
+        Assert.assertEquals("foo 0", StagedFluentBuilder.start().name("foo").build());
+        Assert.assertEquals("foo 2", StagedFluentBuilder.start().name("foo").count(2).build());
+
+        StagedOptionalBuilder.build(b -> b);
+        StagedOptionalBuilder.build(b -> b.name("name"));
+    }
+}
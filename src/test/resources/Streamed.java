@@ -0,0 +1,60 @@
+import dk.danamlund.yabuilder.*;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Assert;
+
+class Streamed {
+    final int id;
+    final String name;
+
+    @Builder(streams = true)
+    Streamed(@Required int id, @Default("none") String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    @Builder(value = "StreamedSumBuilder", fluent = true, streams = true)
+    static int sum(@Required int a, @Default("1") int b) {
+        return a + b;
+    }
+
+    public static void test() {
+        List<Streamed> streamed = StreamedBuilder.stream(
+            IntStream.range(0, 10_000).boxed().parallel(),
+            (b, i) -> i % 2 == 0 ? b.id(i) : b.id(i).name("odd")).collect(Collectors.toList());
+        Assert.assertEquals(10_000, streamed.size());
+        for (int i = 0; i < streamed.size(); i++) {
+            Assert.assertEquals(i, streamed.get(i).id);
+            Assert.assertEquals(i % 2 == 0 ? "none" : "odd", streamed.get(i).name);
+        }
+
+        List<Streamed> collected = IntStream.range(0, 10_000).boxed().parallel()
+            .collect(StreamedBuilder.collector((b, i) -> i % 2 == 0 ? b.id(i) : b.id(i).name("odd")));
+        Assert.assertEquals(10_000, collected.size());
+        for (int i = 0; i < collected.size(); i++) {
+            Assert.assertEquals(i, collected.get(i).id);
+            Assert.assertEquals(i % 2 == 0 ? "none" : "odd", collected.get(i).name);
+        }
+
+        Map<String, Long> names = IntStream.range(0, 9).boxed().parallel()
+            .collect(StreamedBuilder.collector((b, i) -> i % 3 == 0 ? b.id(i).name("three") : b.id(i),
+                                               Collectors.groupingBy(s -> s.name, Collectors.counting())));
+        Assert.assertEquals(Long.valueOf(3), names.get("three"));
+        Assert.assertEquals(Long.valueOf(6), names.get("none"));
+
+        // A concurrent downstream still gets one builder per container
+        ConcurrentMap<Integer, String> byId = IntStream.range(0, 10_000).boxed().parallel()
+            .collect(StreamedBuilder.collector((b, i) -> i % 2 == 0 ? b.id(i) : b.id(i).name("odd"),
+                                               Collectors.toConcurrentMap(s -> s.id, s -> s.name)));
+        Assert.assertEquals(10_000, byId.size());
+        for (int i = 0; i < 10_000; i++) {
+            Assert.assertEquals(i % 2 == 0 ? "none" : "odd", byId.get(i));
+        }
+
+        Assert.assertEquals(55, StreamedSumBuilder.stream(
+            IntStream.range(0, 10).boxed(), (b, i) -> b.a(i)).mapToInt(Integer::intValue).sum());
+    }
+}
@@ -0,0 +1,65 @@
+import dk.danamlund.yabuilder.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Assert;
+
+class Templated {
+    static final AtomicInteger stamps = new AtomicInteger();
+
+    final int id;
+    final String name;
+    final Integer stamp;
+    final List<String> tags;
+
+    @Builder(templates = true, adders = true)
+    Templated(@Required int id, @Required String name, @Default("Templated.stamp()") Integer stamp,
+              List<String> tags) {
+        this.id = id;
+        this.name = name;
+        this.stamp = stamp;
+        this.tags = tags;
+    }
+
+    static Integer stamp() {
+        return stamps.incrementAndGet();
+    }
+
+    @Builder(value = "TemplatedSumBuilder", fluent = true, templates = true)
+    static int sum(@Required int a, @Required int b, @Default("100") int c) {
+        return a + b + c;
+    }
+
+    public static void test() {
+        TemplatedBuilder.Template<TemplatedBuilder.MissingId, TemplatedBuilder.Good> template =
+            TemplatedBuilder.template(b -> b.name("shared").addTag("a"));
+        Assert.assertEquals(1, stamps.get());
+
+        List<Templated> built = IntStream.range(0, 1000).parallel()
+            .mapToObj(i -> template.build(b -> b.id(i)))
+            .collect(Collectors.toList());
+        Assert.assertEquals(1, stamps.get());
+        for (int i = 0; i < built.size(); i++) {
+            Assert.assertEquals(i, built.get(i).id);
+            Assert.assertEquals("shared", built.get(i).name);
+            Assert.assertEquals(Integer.valueOf(1), built.get(i).stamp);
+            Assert.assertEquals(Arrays.asList("a"), built.get(i).tags);
+        }
+
+        // Builds change their copy, never the template
+        Templated changed = template.build(b -> b.id(1).name("other").addTag("b").stamp(7));
+        Assert.assertEquals("other", changed.name);
+        Assert.assertEquals(Arrays.asList("a", "b"), changed.tags);
+        Templated unchanged = template.build(b -> b.id(2));
+        Assert.assertEquals("shared", unchanged.name);
+        Assert.assertEquals(Integer.valueOf(1), unchanged.stamp);
+        Assert.assertEquals(Arrays.asList("a"), unchanged.tags);
+
+        TemplatedSumBuilder.Template<TemplatedSumBuilder.Good, TemplatedSumBuilder.MissingB> sum =
+            TemplatedSumBuilder.start().a(1).c(10).template();
+        Assert.assertEquals(13, TemplatedSumBuilder.build(sum.start().b(2)));
+        Assert.assertEquals(14, (int) sum.build(b -> b.b(3)));
+    }
+}